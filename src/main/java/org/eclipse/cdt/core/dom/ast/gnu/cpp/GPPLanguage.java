@@ -124,6 +124,9 @@ public class GPPLanguage extends AbstractCLikeLanguage {
     @Override
     protected ISourceCodeParser createParser(IScanner scanner, ParserMode parserMode, IParserLogService logService, IIndex index, int options, IParserSettings settings) {
         GNUCPPSourceParser parser = new GNUCPPSourceParser(scanner, parserMode, logService, getParserExtensionConfiguration(), index);
+        if ((options & OPTION_LAZY_FUNCTION_BODIES) != 0) {
+            parser.setDeferFunctionBodies(true);
+        }
         if (settings != null) {
             int maximumTrivialExpressions = settings.getMaximumTrivialExpressionsInAggregateInitializers();
             if (maximumTrivialExpressions >= 0 && (options & OPTION_SKIP_TRIVIAL_EXPRESSIONS_IN_AGGREGATE_INITIALIZERS) != 0) {
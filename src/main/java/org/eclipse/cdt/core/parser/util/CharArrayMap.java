@@ -90,6 +90,9 @@ public final class CharArrayMap<V> {
             Key k = (Key) x;
             if (length != k.length)
                 return false;
+            // Interned identifiers share their array.
+            if (buffer == k.buffer && start == k.start)
+                return true;
             for (int i = start, j = k.start; i < length; i++, j++) {
                 if (buffer[i] != k.buffer[j]) {
                     return false;
@@ -467,6 +467,12 @@ public abstract class ASTTranslationUnit extends ASTNode implements IASTTranslat
      */
     public abstract void resolveAmbiguities();
 
+    /**
+     * Resolves the ambiguities in a part of the AST that was parsed after the rest of the AST,
+     * see {@link DeferredFunctionBody}.
+     */
+    public abstract void resolveAmbiguities(IASTNode node);
+
     /**
      * Can be called to create a type for a type-id.
      */
@@ -498,14 +504,7 @@ public abstract class ASTTranslationUnit extends ASTNode implements IASTTranslat
 
     @Override
     public final void freeze() {
-        accept(new ASTGenericVisitor(true) {
-
-            @Override
-            protected int genericVisit(IASTNode node) {
-                ((ASTNode) node).setIsFrozen();
-                return PROCESS_CONTINUE;
-            }
-        });
+        accept(new Freezer());
         if (IndexFileSet.sDEBUG && fIndexFileSet != null && fASTFileSet != null) {
             long t = ((IndexFileSet) fIndexFileSet).getTimingContainsDeclarationNanos() + ((IndexFileSet) fASTFileSet).getTimingContainsDeclarationNanos();
             String forName = //$NON-NLS-1$
@@ -619,4 +618,20 @@ public abstract class ASTTranslationUnit extends ASTNode implements IASTTranslat
     public Map<IType, String> getTypeStringCache(boolean normalized) {
         return normalized ? fNormalizedTypeStringCache.get() : fUnnormalizedTypeStringCache.get();
     }
+
+    /**
+     * Makes the visited nodes immutable.
+     */
+    static final class Freezer extends ASTGenericVisitor implements DeferredFunctionBody.ParserVisitor {
+
+        Freezer() {
+            super(true);
+        }
+
+        @Override
+        protected int genericVisit(IASTNode node) {
+            ((ASTNode) node).setIsFrozen();
+            return PROCESS_CONTINUE;
+        }
+    }
 }
@@ -100,8 +100,10 @@ import org.eclipse.cdt.core.parser.IToken;
 import org.eclipse.cdt.core.parser.OffsetLimitReachedException;
 import org.eclipse.cdt.core.parser.ParseError;
 import org.eclipse.cdt.core.parser.ParserMode;
+import org.eclipse.cdt.core.parser.util.ArrayUtil;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 import org.eclipse.cdt.internal.core.parser.scanner.ILocationResolver;
+import org.eclipse.cdt.internal.core.parser.scanner.Token;
 
 /**
  * Base class for the c- and c++ parser.
@@ -232,6 +234,10 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 
     protected int maximumTrivialExpressionsInAggregateInitializers = Integer.MAX_VALUE;
 
+    protected boolean deferFunctionBodies;
+
+    private final Object deferredFunctionBodyLock = new Object();
+
     /**
      *  Marks the beginning of the current declaration. It is important to clear the mark whenever we
      *  enter a nested declaration, in order to avoid holding on to all the tokens.
@@ -280,6 +286,14 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
         maximumTrivialExpressionsInAggregateInitializers = limit;
     }
 
+    /**
+     * Instructs the parser to parse function bodies only when their content is accessed.
+     * The parser is kept alive by the AST until all bodies have been parsed.
+     */
+    public void setDeferFunctionBodies(boolean defer) {
+        deferFunctionBodies = defer;
+    }
+
     private AbstractParserLogService wrapLogService(IParserLogService logService) {
         if (logService instanceof AbstractParserLogService) {
             return (AbstractParserLogService) logService;
@@ -364,6 +378,9 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
         }
         IToken t = nextToken(skipInactive);
         for (; i > 1; --i) {
+            // The tokens of a deferred function body end with the end of input.
+            if (t.getType() == IToken.tEND_OF_INPUT)
+                break;
             t = t.getNext();
             if (t == null)
                 t = fetchToken(skipInactive);
@@ -493,6 +510,8 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
         final int lt = t.getType();
         if (lt == IToken.tINACTIVE_CODE_SEPARATOR || lt == IToken.tINACTIVE_CODE_END)
             throw new EndOfFileException(t.getOffset(), true);
+        if (lt == IToken.tEND_OF_INPUT)
+            throw new EndOfFileException(t.getOffset());
     }
 
     /**
@@ -1525,9 +1544,87 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
             return cs;
         }
         // full parse
+        if (deferFunctionBodies && LT(1) == IToken.tLBRACE)
+            return deferFunctionBody();
         return functionBody();
     }
 
+    private IASTCompoundStatement deferFunctionBody() throws BacktrackException, EndOfFileException {
+        final IToken first = LA(1);
+        if (!(first instanceof Token))
+            return functionBody();
+        final IToken last;
+        try {
+            last = skipOverCompoundStatement(false);
+        } catch (EndOfFileException e) {
+            // Incomplete body, let the regular parser deal with it.
+            backup(first);
+            return functionBody();
+        }
+        // Copy the tokens of the body, such that the rest of the token stream can be collected.
+        // The copy ends with the end of input, lookahead must not reach the scanner when the body
+        // is parsed.
+        Token head = ((Token) first).clone();
+        Token tail = head;
+        for (IToken t = first; t != last; ) {
+            t = t.getNext();
+            Token copy = ((Token) t).clone();
+            tail.setNext(copy);
+            tail = copy;
+        }
+        Token end = tail.clone();
+        end.setType(IToken.tEND_OF_INPUT);
+        end.setOffset(last.getEndOffset(), last.getEndOffset());
+        end.setNext(null);
+        tail.setNext(end);
+        IASTCompoundStatement cs = newDeferredFunctionBody(new DeferredFunctionBody(this, deferredFunctionBodyLock, head, getDeferredFunctionBodyState()));
+        setRange(cs, first.getOffset(), last.getEndOffset());
+        return cs;
+    }
+
+    /**
+     * Creates the compound statement standing in for a function body that is parsed later.
+     */
+    protected abstract IASTCompoundStatement newDeferredFunctionBody(DeferredFunctionBody body);
+
+    /**
+     * Returns the state of the parser needed for parsing a deferred function body at the current
+     * position, or {@code null}.
+     */
+    protected Object getDeferredFunctionBodyState() {
+        return null;
+    }
+
+    /**
+     * Parses a function body that was deferred, returns its statements.
+     *
+     * @param tu the translation unit containing the function body
+     */
+    protected IASTStatement[] parseDeferredFunctionBody(DeferredFunctionBody body, IASTTranslationUnit tu) {
+        final IToken savedNextToken = nextToken;
+        final IToken savedDeclarationMark = declarationMark;
+        final boolean savedActiveCode = fActiveCode;
+        nextToken = body.getFirstToken();
+        declarationMark = null;
+        fActiveCode = true;
+        try {
+            return functionBody().getStatements();
+        } catch (BacktrackException bt) {
+            IASTNode beforeProblem = bt.getNodeBeforeProblem();
+            IASTStatement[] statements = beforeProblem instanceof IASTCompoundStatement ? ((IASTCompoundStatement) beforeProblem).getStatements() : IASTStatement.EMPTY_STATEMENT_ARRAY;
+            IASTProblem problem = bt.getProblem();
+            if (problem != null)
+                statements = ArrayUtil.append(statements, buildProblemStatement(problem));
+            return ArrayUtil.trim(statements);
+        } catch (EndOfFileException e) {
+            return IASTStatement.EMPTY_STATEMENT_ARRAY;
+        } finally {
+            nextToken = savedNextToken;
+            declarationMark = savedDeclarationMark;
+            fActiveCode = savedActiveCode;
+        }
+    }
+
     /**
      * Parses a function body.
      *
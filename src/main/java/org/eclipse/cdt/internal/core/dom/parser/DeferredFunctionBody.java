@@ -0,0 +1,160 @@
+/**
+ * ****************************************************************************
+ *  Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * *****************************************************************************
+ */
+package org.eclipse.cdt.internal.core.dom.parser;
+
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
+import org.eclipse.cdt.core.dom.ast.IASTStatement;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.parser.IToken;
+
+/**
+ * The tokens of a function body that is parsed when its content is accessed for the first time.
+ * See {@link AbstractGNUSourceCodeParser#setDeferFunctionBodies(boolean)}.
+ */
+public final class DeferredFunctionBody {
+
+    /**
+     * The compound statement standing in for the function body.
+     */
+    public interface Owner extends IASTCompoundStatement {
+
+        /**
+         * Stores the statements of the parsed body, regardless of whether the AST is frozen.
+         */
+        void setDeferredStatements(IASTStatement[] statements);
+    }
+
+    /**
+     * Marks the visitors of the parser that process the AST while it is built, like ambiguity
+     * resolution and freezing. These see a body that has not been parsed as an empty one, any
+     * other visitor causes the body to be parsed.
+     */
+    public interface ParserVisitor {
+    }
+
+    private AbstractGNUSourceCodeParser fParser;
+
+    private IToken fFirstToken;
+
+    private final Object fParserState;
+
+    private final Object fLock;
+
+    // Guarded by fLock, set while the body is parsed, such that requests for the body by the
+    // thread parsing it return right away.
+    private boolean fInProgress;
+
+    // Set when the body is complete, i.e. parsed, ambiguity-resolved and frozen if necessary.
+    private volatile boolean fMaterialized;
+
+    DeferredFunctionBody(AbstractGNUSourceCodeParser parser, Object lock, IToken firstToken, Object parserState) {
+        fParser = parser;
+        fLock = lock;
+        fFirstToken = firstToken;
+        fParserState = parserState;
+    }
+
+    IToken getFirstToken() {
+        return fFirstToken;
+    }
+
+    /**
+     * Returns the parser state recorded when the body was skipped.
+     */
+    public Object getParserState() {
+        return fParserState;
+    }
+
+    public boolean isMaterialized() {
+        return fMaterialized;
+    }
+
+    /**
+     * Parses the body and adds its statements to the owner, unless this has been done already.
+     * Ambiguities in the body are resolved, and if the owner is frozen the new nodes are frozen too.
+     */
+    public void materialize(Owner owner) {
+        if (fMaterialized)
+            return;
+        // All deferred bodies of an AST share the lock, they share the parser and ambiguity
+        // resolution in one body may materialize another one.
+        synchronized (fLock) {
+            if (fMaterialized || fInProgress)
+                return;
+            // Name resolution during ambiguity resolution may ask for the body again.
+            fInProgress = true;
+            try {
+                doMaterialize(owner);
+            } finally {
+                fInProgress = false;
+                fMaterialized = true;
+            }
+        }
+    }
+
+    private void doMaterialize(Owner owner) {
+        AbstractGNUSourceCodeParser parser = fParser;
+        fParser = null;
+        IASTTranslationUnit tu = owner.getTranslationUnit();
+        IASTStatement[] statements = parser.parseDeferredFunctionBody(this, tu);
+        fFirstToken = null;
+
+        final boolean frozen = ((ASTNode) owner).isFrozen();
+        owner.setDeferredStatements(statements);
+        if (tu instanceof ASTTranslationUnit) {
+            ((ASTTranslationUnit) tu).resolveAmbiguities(owner);
+        }
+        if (frozen) {
+            ASTVisitor freezer = new ASTTranslationUnit.Freezer();
+            for (IASTStatement statement : owner.getStatements()) {
+                statement.accept(freezer);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given visitor is to skip the content of a body that has not been parsed.
+     */
+    public boolean skipsBody(ASTVisitor action) {
+        if (!(action instanceof ParserVisitor) || fMaterialized)
+            return false;
+        // The body that is being parsed is visited by its own ambiguity resolution.
+        synchronized (fLock) {
+            return !fMaterialized && !fInProgress;
+        }
+    }
+
+    /**
+     * Visits a function body that has not been parsed yet as if it was empty.
+     */
+    public static boolean acceptUnmaterialized(IASTCompoundStatement body, ASTVisitor action) {
+        if (action.shouldVisitStatements) {
+            switch(action.visit(body)) {
+                case ASTVisitor.PROCESS_ABORT:
+                    return false;
+                case ASTVisitor.PROCESS_SKIP:
+                    return true;
+                default:
+                    break;
+            }
+            switch(action.leave(body)) {
+                case ASTVisitor.PROCESS_ABORT:
+                    return false;
+                default:
+                    break;
+            }
+        }
+        return true;
+    }
+}
@@ -22,12 +22,13 @@ import org.eclipse.cdt.core.dom.ast.IASTParameterDeclaration;
 import org.eclipse.cdt.core.dom.ast.IScope;
 import org.eclipse.cdt.core.dom.ast.c.ICCompositeTypeScope;
 import org.eclipse.cdt.internal.core.dom.parser.ASTAmbiguousNode;
+import org.eclipse.cdt.internal.core.dom.parser.DeferredFunctionBody;
 
 /**
  * Visitor to resolve ast ambiguities in the right order, which is simply a depth
  * first traversal.
  */
-public final class CASTAmbiguityResolver extends ASTVisitor {
+public final class CASTAmbiguityResolver extends ASTVisitor implements DeferredFunctionBody.ParserVisitor {
 	public CASTAmbiguityResolver() {
 		super(false);
 		includeInactiveNodes = true;
@@ -104,6 +104,7 @@ import org.eclipse.cdt.internal.core.dom.parser.ASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.AbstractGNUSourceCodeParser;
 import org.eclipse.cdt.internal.core.dom.parser.BacktrackException;
 import org.eclipse.cdt.internal.core.dom.parser.DeclarationOptions;
+import org.eclipse.cdt.internal.core.dom.parser.DeferredFunctionBody;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguousExpression;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguousStatement;
 
@@ -1754,6 +1755,22 @@ public class GNUCSourceParser extends AbstractGNUSourceCodeParser {
         }
     }
 
+    @Override
+    protected IASTCompoundStatement newDeferredFunctionBody(DeferredFunctionBody body) {
+        return new CASTDeferredCompoundStatement(body);
+    }
+
+    @Override
+    protected IASTStatement[] parseDeferredFunctionBody(DeferredFunctionBody body, IASTTranslationUnit tu) {
+        final IASTTranslationUnit savedTranslationUnit = translationUnit;
+        translationUnit = tu;
+        try {
+            return super.parseDeferredFunctionBody(body, tu);
+        } finally {
+            translationUnit = savedTranslationUnit;
+        }
+    }
+
     @Override
     protected void nullifyTranslationUnit() {
         translationUnit = null;
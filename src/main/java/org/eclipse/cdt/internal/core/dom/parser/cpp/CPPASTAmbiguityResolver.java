@@ -44,13 +44,14 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTTemplateId;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTTemplateSpecialization;
 import org.eclipse.cdt.internal.core.dom.parser.ASTAmbiguousNode;
 import org.eclipse.cdt.internal.core.dom.parser.ASTQueries;
+import org.eclipse.cdt.internal.core.dom.parser.DeferredFunctionBody;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
 
 /**
  * Visitor to resolve AST ambiguities in the right order
  */
-final public class CPPASTAmbiguityResolver extends ASTVisitor {
+final public class CPPASTAmbiguityResolver extends ASTVisitor implements DeferredFunctionBody.ParserVisitor {
 
     public int fSkipInitializers = 0;
 
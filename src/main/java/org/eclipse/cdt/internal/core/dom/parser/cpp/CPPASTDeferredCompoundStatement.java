@@ -0,0 +1,66 @@
+/**
+ * ****************************************************************************
+ *  Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * *****************************************************************************
+ */
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTImplicitDestructorName;
+import org.eclipse.cdt.core.dom.ast.IASTStatement;
+import org.eclipse.cdt.internal.core.dom.parser.DeferredFunctionBody;
+
+/**
+ * Function body that is parsed when its content is accessed for the first time.
+ */
+public class CPPASTDeferredCompoundStatement extends CPPASTCompoundStatement implements DeferredFunctionBody.Owner {
+
+    private final DeferredFunctionBody fDeferredBody;
+
+    public CPPASTDeferredCompoundStatement(DeferredFunctionBody body) {
+        fDeferredBody = body;
+    }
+
+    @Override
+    public IASTStatement[] getStatements() {
+        fDeferredBody.materialize(this);
+        return super.getStatements();
+    }
+
+    @Override
+    public void setDeferredStatements(IASTStatement[] stmts) {
+        statements = stmts;
+        for (IASTStatement statement : stmts) {
+            statement.setParent(this);
+            statement.setPropertyInParent(NESTED_STATEMENT);
+        }
+    }
+
+    @Override
+    public IASTImplicitDestructorName[] getImplicitDestructorNames() {
+        fDeferredBody.materialize(this);
+        return super.getImplicitDestructorNames();
+    }
+
+    @Override
+    public boolean accept(ASTVisitor action) {
+        // The visitors of the parser do not cause the body to be parsed.
+        if (fDeferredBody.skipsBody(action))
+            return DeferredFunctionBody.acceptUnmaterialized(this, action);
+        fDeferredBody.materialize(this);
+        return super.accept(action);
+    }
+
+    @Override
+    public ICPPExecution getExecution() {
+        fDeferredBody.materialize(this);
+        return super.getExecution();
+    }
+}
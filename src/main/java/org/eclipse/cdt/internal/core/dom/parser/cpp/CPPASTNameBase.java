@@ -75,7 +75,8 @@ public abstract class CPPASTNameBase extends ASTNode implements ICPPASTName {
         return new RecursionResolvingBinding(this, args);
     }
 
-    public IBinding fBinding;
+    // Volatile for the safe publication of bindings to threads resolving other names concurrently.
+    public volatile IBinding fBinding;
 
     private byte fResolutionDepth;
 
@@ -17,8 +17,11 @@
  */
 package org.eclipse.cdt.internal.core.dom.parser.cpp;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.cdt.core.dom.ILinkage;
 import org.eclipse.cdt.core.dom.ast.ASTVisitor;
 import org.eclipse.cdt.core.dom.ast.IASTName;
@@ -34,6 +37,7 @@ import org.eclipse.cdt.core.dom.ast.IType;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTTranslationUnit;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassTemplatePartialSpecialization;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunctionType;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPNamespace;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPNamespaceScope;
@@ -42,9 +46,12 @@ import org.eclipse.cdt.core.parser.ParserLanguage;
 import org.eclipse.cdt.core.parser.util.ArrayUtil;
 import org.eclipse.cdt.internal.core.dom.Linkage;
 import org.eclipse.cdt.internal.core.dom.parser.ASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.DeferredFunctionBody;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguityParent;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPInheritance.FinalOverriderMap;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.ConstexprCallRequest;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.OperatorResolutionRequest;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.TypeInstantiationRequest;
 import org.eclipse.cdt.internal.core.index.IIndexScope;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
@@ -62,15 +69,26 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 
     public CPPASTAmbiguityResolver fAmbiguityResolver;
 
-    // Caches.
-    final public Map<ICPPClassType, FinalOverriderMap> fFinalOverriderMapCache = new HashMap<>();
+    // Caches. They are synchronized, the names of function bodies may be resolved concurrently,
+    // see ParallelNameResolver.
+    final public Map<ICPPClassType, FinalOverriderMap> fFinalOverriderMapCache = Collections.synchronizedMap(new HashMap<>());
 
     // Cache for type instantiations. This is currently only used for instantiations of
     // alias template instances, but its use could potentially be expanded to cover other
     // instantiations. Note that class template instances are already cached by the
     // template definition, so we wouldn't want to double-cache those. (But we could e.g.
     // cache instantiations of function types if we found it worthwhile.)
-    private final Map<TypeInstantiationRequest, IType> fInstantiationCache = new HashMap<>();
+    private final Map<TypeInstantiationRequest, IType> fInstantiationCache = Collections.synchronizedMap(new HashMap<>());
+
+    // Cache for the overload resolution of operators, see CPPSemantics.findOverloadedOperator().
+    private final Map<OperatorResolutionRequest, ICPPFunction> fOperatorResolutionCache = Collections.synchronizedMap(new HashMap<>());
+
+    // Results of constexpr function calls, see EvalFunctionCall.
+    private final Map<ConstexprCallRequest, ICPPEvaluation> fConstexprCallMemo = Collections.synchronizedMap(new HashMap<>());
+
+    private final AtomicInteger fOperatorResolutionCacheHits = new AtomicInteger();
+
+    private final AtomicInteger fOperatorResolutionCacheMisses = new AtomicInteger();
 
     public CPPASTTranslationUnit() {
         fScopeMapper = new CPPScopeMapper(this);
@@ -222,7 +240,7 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
         fScopeMapper.handleAdditionalDirectives(scope);
     }
 
-    private class ProblemBindingClearer extends ASTVisitor {
+    private class ProblemBindingClearer extends ASTVisitor implements DeferredFunctionBody.ParserVisitor {
 
         public ProblemBindingClearer() {
             shouldVisitNames = true;
@@ -246,6 +264,22 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
         // the affected names to be attempted again with a fully ambiguity-resolved AST.
         accept(new ProblemBindingClearer());
         fAmbiguityResolver = null;
+        ForkJoinPool pool = ParallelNameResolver.getPool();
+        if (pool != null) {
+            ParallelNameResolver.resolve(this, pool);
+        }
+    }
+
+    @Override
+    public void resolveAmbiguities(IASTNode node) {
+        CPPASTAmbiguityResolver outerResolver = fAmbiguityResolver;
+        fAmbiguityResolver = new CPPASTAmbiguityResolver();
+        try {
+            node.accept(fAmbiguityResolver);
+            node.accept(new ProblemBindingClearer());
+        } finally {
+            fAmbiguityResolver = outerResolver;
+        }
     }
 
     @Override
@@ -268,6 +302,36 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
         return fInstantiationCache;
     }
 
+    public Map<OperatorResolutionRequest, ICPPFunction> getOperatorResolutionCache() {
+        return fOperatorResolutionCache;
+    }
+
+    public Map<ConstexprCallRequest, ICPPEvaluation> getConstexprCallMemo() {
+        return fConstexprCallMemo;
+    }
+
+    public void recordOperatorResolutionCacheAccess(boolean hit) {
+        if (hit) {
+            fOperatorResolutionCacheHits.incrementAndGet();
+        } else {
+            fOperatorResolutionCacheMisses.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of operator overload resolutions that were answered from the cache.
+     */
+    public int getOperatorResolutionCacheHits() {
+        return fOperatorResolutionCacheHits.get();
+    }
+
+    /**
+     * Returns the number of cacheable operator overload resolutions that had to be computed.
+     */
+    public int getOperatorResolutionCacheMisses() {
+        return fOperatorResolutionCacheMisses.get();
+    }
+
     public void recordPartialSpecialization(ICPPClassTemplatePartialSpecialization indexSpec, ICPPClassTemplatePartialSpecialization astSpec) {
         fScopeMapper.recordPartialSpecialization(indexSpec, astSpec);
     }
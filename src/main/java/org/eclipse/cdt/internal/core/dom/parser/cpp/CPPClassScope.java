@@ -263,7 +263,7 @@ public class CPPClassScope extends CPPScope implements ICPPClassScope {
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private void addConstructor(Object constructor) {
+	private synchronized void addConstructor(Object constructor) {
 		if (bindings == null)
 			bindings = new CharArrayObjectMap(1);
 
@@ -345,45 +345,29 @@ public class CPPClassScope extends CPPScope implements ICPPClassScope {
 	private ICPPConstructor[] getConstructors(IASTName forName, boolean forceResolve) {
 		populateCache();
 
-		final CharArrayObjectMap<Object> nameMap = bindings;
-		if (nameMap == null)
-			return ICPPConstructor.EMPTY_CONSTRUCTOR_ARRAY;
-
-		Object o = nameMap.get(CONSTRUCTOR_KEY);
-		if (o != null) {
+		// The candidates are resolved outside of the lock, resolution may add names to this scope.
+		final Object[] candidates;
+		synchronized (this) {
+			Object o = bindings != null ? bindings.get(CONSTRUCTOR_KEY) : null;
+			if (o == null)
+				return ICPPConstructor.EMPTY_CONSTRUCTOR_ARRAY;
+			candidates = o instanceof ObjectSet<?> ? ((ObjectSet<?>) o).keyArray() : new Object[] { o };
+		}
+		ICPPConstructor[] bs = ICPPConstructor.EMPTY_CONSTRUCTOR_ARRAY;
+		int n = 0;
+		for (Object obj : candidates) {
 			IBinding binding = null;
-			if (o instanceof ObjectSet<?>) {
-				ObjectSet<?> set = (ObjectSet<?>) o;
-				ICPPConstructor[] bs = ICPPConstructor.EMPTY_CONSTRUCTOR_ARRAY;
-				int n = 0;
-				for (int i = 0; i < set.size(); i++) {
-					Object obj = set.keyAt(i);
-					if (obj instanceof IASTName) {
-						IASTName name = (IASTName) obj;
-						binding = shouldResolve(forceResolve, name, forName) ? name.resolveBinding()
-								: name.getBinding();
-						if (binding instanceof ICPPConstructor) {
-							bs = appendAt(bs, n++, (ICPPConstructor) binding);
-						}
-					} else if (obj instanceof ICPPConstructor) {
-						bs = appendAt(bs, n++, (ICPPConstructor) obj);
-					}
-				}
-				return trim(bs, n);
-			} else if (o instanceof IASTName) {
-				if (shouldResolve(forceResolve, (IASTName) o, forName) || ((IASTName) o).getBinding() != null) {
-					// Always store the name, rather than the binding, so that we can properly flush the scope.
-					nameMap.put(CONSTRUCTOR_KEY, o);
-					binding = ((IASTName) o).resolveBinding();
-				}
-			} else if (o instanceof IBinding) {
-				binding = (IBinding) o;
+			if (obj instanceof IASTName) {
+				IASTName name = (IASTName) obj;
+				binding = shouldResolve(forceResolve, name, forName) ? name.resolveBinding() : name.getBinding();
+			} else if (obj instanceof IBinding) {
+				binding = (IBinding) obj;
 			}
-			if (binding != null && binding instanceof ICPPConstructor) {
-				return new ICPPConstructor[] { (ICPPConstructor) binding };
+			if (binding instanceof ICPPConstructor) {
+				bs = appendAt(bs, n++, (ICPPConstructor) binding);
 			}
 		}
-		return ICPPConstructor.EMPTY_CONSTRUCTOR_ARRAY;
+		return trim(bs, n);
 	}
 
 	@Override
@@ -86,9 +86,11 @@ public class CPPNamespaceScope extends CPPScope implements ICPPInternalNamespace
 
     @Override
     public ICPPUsingDirective[] getUsingDirectives() {
-        initUsingDirectives();
         populateCache();
-        return fUsingDirectives.toArray(new ICPPUsingDirective[fUsingDirectives.size()]);
+        synchronized (this) {
+            initUsingDirectives();
+            return fUsingDirectives.toArray(new ICPPUsingDirective[fUsingDirectives.size()]);
+        }
     }
 
     private void initUsingDirectives() {
@@ -104,7 +106,7 @@ public class CPPNamespaceScope extends CPPScope implements ICPPInternalNamespace
     }
 
     @Override
-    public void addUsingDirective(ICPPUsingDirective directive) {
+    public synchronized void addUsingDirective(ICPPUsingDirective directive) {
         initUsingDirectives();
         fUsingDirectives.add(directive);
     }
@@ -168,16 +170,18 @@ public class CPPNamespaceScope extends CPPScope implements ICPPInternalNamespace
     public void addName(IASTName name, boolean adlOnly) {
         if (name instanceof ICPPASTQualifiedName && !canDenoteNamespaceMember((ICPPASTQualifiedName) name))
             return;
-        super.addName(name, adlOnly);
-        if (adlOnly) {
-            fVisibleToAdlOnly.put(name.getLookupKey());
-        } else {
-            fVisibleToAdlOnly.remove(name.getLookupKey());
+        synchronized (this) {
+            super.addName(name, adlOnly);
+            if (adlOnly) {
+                fVisibleToAdlOnly.put(name.getLookupKey());
+            } else {
+                fVisibleToAdlOnly.remove(name.getLookupKey());
+            }
         }
     }
 
     @Override
-    protected boolean nameIsVisibleToLookup(ScopeLookupData lookup) {
+    protected synchronized boolean nameIsVisibleToLookup(ScopeLookupData lookup) {
         if (lookup.isArgumentDependent()) {
             return true;
         }
@@ -73,6 +73,10 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 
     public boolean isCached = false;
 
+    // Set when the population of the cache has completed. Names may be resolved concurrently,
+    // the map of bindings is therefore accessed while holding the lock of the scope.
+    private volatile boolean fCachePopulated;
+
     protected CharArrayObjectMap<Object> bindings;
 
     private ICPPNamespace fIndexNamespace = UNINITIALIZED;
@@ -104,7 +108,7 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 
     @Override
     @SuppressWarnings({ "unchecked" })
-    public void addName(IASTName name, boolean adlOnly) {
+    public synchronized void addName(IASTName name, boolean adlOnly) {
         // Don't add inactive names to the scope.
         if (!name.isActive())
             return;
@@ -250,35 +254,39 @@ abstract public class CPPScope implements ICPPASTInternalScope {
         if (!nameIsVisibleToLookup(lookup)) {
             return result;
         }
-        Object obj = null;
-        if (lookup.isPrefixLookup()) {
-            char[][] keys = bindings != null ? bindings.keys() : CharArrayUtils.EMPTY_ARRAY_OF_CHAR_ARRAYS;
-            ObjectSet<Object> all = new ObjectSet<>(16);
-            IContentAssistMatcher matcher = ContentAssistMatcherFactory.getInstance().createMatcher(c);
-            for (char[] key : keys) {
-                if (key != CONSTRUCTOR_KEY && matcher.match(key)) {
-                    obj = bindings.get(key);
-                    if (obj instanceof ObjectSet<?>) {
-                        all.addAll((ObjectSet<?>) obj);
-                    } else if (obj != null) {
-                        all.put(obj);
+        // The candidates are resolved outside of the lock, resolution may add names to this scope.
+        Object[] candidates;
+        synchronized (this) {
+            Object obj = null;
+            if (lookup.isPrefixLookup()) {
+                char[][] keys = bindings != null ? bindings.keys() : CharArrayUtils.EMPTY_ARRAY_OF_CHAR_ARRAYS;
+                ObjectSet<Object> all = new ObjectSet<>(16);
+                IContentAssistMatcher matcher = ContentAssistMatcherFactory.getInstance().createMatcher(c);
+                for (char[] key : keys) {
+                    if (key != CONSTRUCTOR_KEY && matcher.match(key)) {
+                        obj = bindings.get(key);
+                        if (obj instanceof ObjectSet<?>) {
+                            all.addAll((ObjectSet<?>) obj);
+                        } else if (obj != null) {
+                            all.put(obj);
+                        }
                     }
                 }
+                obj = all;
+            } else {
+                obj = bindings != null ? bindings.get(c) : null;
             }
-            obj = all;
-        } else {
-            obj = bindings != null ? bindings.get(c) : null;
-        }
-        if (obj != null) {
             if (obj instanceof ObjectSet<?>) {
-                ObjectSet<?> os = (ObjectSet<?>) obj;
-                for (int j = 0; j < os.size(); j++) {
-                    result = addCandidate(os.keyAt(j), lookup, result);
-                }
+                candidates = ((ObjectSet<?>) obj).keyArray();
+            } else if (obj != null) {
+                candidates = new Object[] { obj };
             } else {
-                result = addCandidate(obj, lookup, result);
+                return result;
             }
         }
+        for (Object candidate : candidates) {
+            result = addCandidate(candidate, lookup, result);
+        }
         return ArrayUtil.trim(result);
     }
 
@@ -327,15 +335,23 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 
     @Override
     public final void populateCache() {
-        if (!isCached) {
-            // set to true before doing the work, to avoid recursion
-            isCached = true;
-            CPPSemantics.populateCache(this);
+        if (!fCachePopulated) {
+            synchronized (this) {
+                if (!isCached) {
+                    // set to true before doing the work, to avoid recursion
+                    isCached = true;
+                    try {
+                        CPPSemantics.populateCache(this);
+                    } finally {
+                        fCachePopulated = true;
+                    }
+                }
+            }
         }
     }
 
     @Override
-    public void removeNestedFromCache(IASTNode container) {
+    public synchronized void removeNestedFromCache(IASTNode container) {
         if (bindings != null) {
             removeFromMap(bindings, container);
         }
@@ -382,7 +398,7 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 
     @Override
     @SuppressWarnings({ "unchecked" })
-    public void addBinding(IBinding binding) {
+    public synchronized void addBinding(IBinding binding) {
         if (bindings == null)
             bindings = new CharArrayObjectMap<>(1);
         char[] c = binding.getNameCharArray();
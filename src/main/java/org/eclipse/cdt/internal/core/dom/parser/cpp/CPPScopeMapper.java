@@ -53,6 +53,9 @@ import org.eclipse.cdt.internal.core.index.IIndexScope;
 /**
  * Utility to map index-scopes to scopes from the AST. This is important for
  * scopes that can be reopened, i.e. namespaces.
+ * <p>
+ * The mapper is used by all threads resolving names of the AST, see {@link ParallelNameResolver}.
+ * Its maps are accessed under the lock of the mapper, the AST and the index are not.
  */
 public class CPPScopeMapper {
 
@@ -160,7 +163,7 @@ public class CPPScopeMapper {
         }
 
         @Override
-        public void addUsingDirective(ICPPUsingDirective usingDirective) {
+        public synchronized void addUsingDirective(ICPPUsingDirective usingDirective) {
             initUsingDirectives();
             fUsingDirectives.add(usingDirective);
         }
@@ -176,7 +179,7 @@ public class CPPScopeMapper {
         }
 
         @Override
-        public ICPPUsingDirective[] getUsingDirectives() {
+        public synchronized ICPPUsingDirective[] getUsingDirectives() {
             initUsingDirectives();
             return fUsingDirectives.toArray(new ICPPUsingDirective[fUsingDirectives.size()]);
         }
@@ -307,7 +310,7 @@ public class CPPScopeMapper {
      * @param offset the global offset at which the using directives are provided
      * @param usingDirectives the list of additional directives.
      */
-    public void registerAdditionalDirectives(int offset, List<ICPPUsingDirective> usingDirectives) {
+    public synchronized void registerAdditionalDirectives(int offset, List<ICPPUsingDirective> usingDirectives) {
         if (!usingDirectives.isEmpty()) {
             for (ICPPUsingDirective ud : usingDirectives) {
                 IScope container = ud.getContainingScope();
@@ -330,12 +333,18 @@ public class CPPScopeMapper {
      */
     public void handleAdditionalDirectives(ICPPNamespaceScope scope) {
         assert !(scope instanceof IIndexScope);
-        if (fPerName.isEmpty()) {
-            return;
-        }
         try {
+            // The directives are added outside of the lock, the scope has a lock of its own.
+            List<UsingDirectiveWrapper> candidates;
+            synchronized (this) {
+                if (fPerName.isEmpty()) {
+                    return;
+                }
+            }
             String qname = getReverseQualifiedName(scope);
-            List<UsingDirectiveWrapper> candidates = fPerName.remove(qname);
+            synchronized (this) {
+                candidates = fPerName.remove(qname);
+            }
             if (candidates != null) {
                 for (UsingDirectiveWrapper ud : candidates) {
                     scope.addUsingDirective(ud);
@@ -376,13 +385,22 @@ public class CPPScopeMapper {
             return fTu.getScope();
         }
         if (scope instanceof ICPPNamespaceScope) {
-            IScope result = fMappedScopes.get(scope);
+            IScope result;
+            synchronized (this) {
+                result = fMappedScopes.get(scope);
+            }
             if (result == null) {
+                // Computed outside of the lock, it looks into the AST and the index.
                 result = fTu.getScope().findNamespaceScope(scope);
                 if (result == null) {
                     result = wrapNamespaceScope((ICPPNamespaceScope) scope);
                 }
-                fMappedScopes.put(scope, result);
+                synchronized (this) {
+                    IScope existing = fMappedScopes.putIfAbsent(scope, result);
+                    if (existing != null) {
+                        result = existing;
+                    }
+                }
             }
             return result;
         }
@@ -392,10 +410,18 @@ public class CPPScopeMapper {
     private IScope wrapNamespaceScope(ICPPNamespaceScope scope) {
         try {
             String rqname = getReverseQualifiedName(scope);
-            NamespaceScopeWrapper result = fNamespaceWrappers.get(rqname);
+            NamespaceScopeWrapper result;
+            synchronized (this) {
+                result = fNamespaceWrappers.get(rqname);
+            }
             if (result == null) {
                 result = new NamespaceScopeWrapper(getCompositeNamespaceScope(scope));
-                fNamespaceWrappers.put(rqname, result);
+                synchronized (this) {
+                    NamespaceScopeWrapper existing = fNamespaceWrappers.putIfAbsent(rqname, result);
+                    if (existing != null) {
+                        result = existing;
+                    }
+                }
             }
             return result;
         } catch (DOMException e) {
@@ -429,11 +455,15 @@ public class CPPScopeMapper {
             }
             return type;
         }
-        if (fClasses == null) {
-            fClasses = new CharArrayMap<>();
-            fTu.accept(new Visitor());
+        IASTName[] names;
+        synchronized (this) {
+            if (fClasses == null) {
+                fClasses = new CharArrayMap<>();
+                fTu.accept(new Visitor());
+            }
+            names = fClasses.get(type.getNameCharArray());
         }
-        IASTName[] names = fClasses.get(type.getNameCharArray());
+        // The names are resolved outside of the lock, resolution may map other bindings.
         if (names != null) {
             for (IASTName name : names) {
                 if (name == null)
@@ -450,11 +480,11 @@ public class CPPScopeMapper {
         return type;
     }
 
-    public void recordPartialSpecialization(ICPPClassTemplatePartialSpecialization indexSpec, ICPPClassTemplatePartialSpecialization astSpec) {
+    public synchronized void recordPartialSpecialization(ICPPClassTemplatePartialSpecialization indexSpec, ICPPClassTemplatePartialSpecialization astSpec) {
         fPartialSpecs.put(indexSpec, astSpec);
     }
 
-    public ICPPClassTemplatePartialSpecialization mapToAST(ICPPClassTemplatePartialSpecialization indexSpec) {
+    public synchronized ICPPClassTemplatePartialSpecialization mapToAST(ICPPClassTemplatePartialSpecialization indexSpec) {
         ICPPClassTemplatePartialSpecialization astSpec = fPartialSpecs.get(indexSpec);
         if (astSpec != null) {
             return astSpec;
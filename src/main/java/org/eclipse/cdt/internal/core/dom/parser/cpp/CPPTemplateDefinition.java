@@ -99,7 +99,7 @@ public abstract class CPPTemplateDefinition extends PlatformObject implements IC
     }
 
     @Override
-    public final void addInstance(ICPPTemplateArgument[] arguments, ICPPTemplateInstance instance) {
+    public synchronized final void addInstance(ICPPTemplateArgument[] arguments, ICPPTemplateInstance instance) {
         if (instances == null)
             instances = new ObjectMap(2);
         String key = ASTTypeUtil.getArgumentListString(arguments, true);
@@ -108,11 +108,14 @@ public abstract class CPPTemplateDefinition extends PlatformObject implements IC
 
     @Override
     public final ICPPTemplateInstance getInstance(ICPPTemplateArgument[] arguments) {
-        if (instances != null) {
-            String key = ASTTypeUtil.getArgumentListString(arguments, true);
-            ICPPTemplateInstance cand = (ICPPTemplateInstance) instances.get(key);
-            if (cand != null)
-                return cand;
+        String key = ASTTypeUtil.getArgumentListString(arguments, true);
+        // The index is consulted without holding the lock.
+        synchronized (this) {
+            if (instances != null) {
+                ICPPTemplateInstance cand = (ICPPTemplateInstance) instances.get(key);
+                if (cand != null)
+                    return cand;
+            }
         }
         final ICPPClassTemplate ib = getIndexBinding();
         if (ib instanceof ICPPInstanceCache) {
@@ -148,7 +151,7 @@ public abstract class CPPTemplateDefinition extends PlatformObject implements IC
     }
 
     @Override
-    public ICPPTemplateInstance[] getAllInstances() {
+    public synchronized ICPPTemplateInstance[] getAllInstances() {
         if (instances != null) {
             ICPPTemplateInstance[] result = new ICPPTemplateInstance[instances.size()];
             for (int i = 0; i < instances.size(); i++) {
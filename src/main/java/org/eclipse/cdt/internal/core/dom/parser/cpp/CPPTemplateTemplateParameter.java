@@ -218,7 +218,7 @@ public class CPPTemplateTemplateParameter extends CPPTemplateParameter implement
     }
 
     @Override
-    public final void addInstance(ICPPTemplateArgument[] arguments, ICPPTemplateInstance instance) {
+    public synchronized final void addInstance(ICPPTemplateArgument[] arguments, ICPPTemplateInstance instance) {
         if (instances == null)
             instances = new ObjectMap(2);
         String key = ASTTypeUtil.getArgumentListString(arguments, true);
@@ -226,7 +226,7 @@ public class CPPTemplateTemplateParameter extends CPPTemplateParameter implement
     }
 
     @Override
-    public final ICPPTemplateInstance getInstance(ICPPTemplateArgument[] arguments) {
+    public synchronized final ICPPTemplateInstance getInstance(ICPPTemplateArgument[] arguments) {
         if (instances != null) {
             String key = ASTTypeUtil.getArgumentListString(arguments, true);
             return (ICPPTemplateInstance) instances.get(key);
@@ -235,7 +235,7 @@ public class CPPTemplateTemplateParameter extends CPPTemplateParameter implement
     }
 
     @Override
-    public ICPPTemplateInstance[] getAllInstances() {
+    public synchronized ICPPTemplateInstance[] getAllInstances() {
         if (instances != null) {
             ICPPTemplateInstance[] result = new ICPPTemplateInstance[instances.size()];
             for (int i = 0; i < instances.size(); i++) {
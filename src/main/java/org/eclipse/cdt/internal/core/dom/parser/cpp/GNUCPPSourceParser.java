@@ -181,6 +181,7 @@ import org.eclipse.cdt.internal.core.dom.parser.ASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.AbstractGNUSourceCodeParser;
 import org.eclipse.cdt.internal.core.dom.parser.BacktrackException;
 import org.eclipse.cdt.internal.core.dom.parser.DeclarationOptions;
+import org.eclipse.cdt.internal.core.dom.parser.DeferredFunctionBody;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguityParent;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguousDeclarator;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguousExpression;
@@ -6222,6 +6223,36 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 		}
 	}
 
+	@Override
+	protected IASTCompoundStatement newDeferredFunctionBody(DeferredFunctionBody body) {
+		return new CPPASTDeferredCompoundStatement(body);
+	}
+
+	@Override
+	protected Object getDeferredFunctionBodyState() {
+		return currentClassName;
+	}
+
+	@Override
+	protected IASTStatement[] parseDeferredFunctionBody(DeferredFunctionBody body, IASTTranslationUnit tu) {
+		final ICPPASTTranslationUnit savedTranslationUnit = translationUnit;
+		final char[] savedClassName = currentClassName;
+		final int savedNestingDepth = templateArgumentNestingDepth;
+		final TemplateIdStrategy savedStrategy = fTemplateParameterListStrategy;
+		translationUnit = (ICPPASTTranslationUnit) tu;
+		currentClassName = (char[]) body.getParserState();
+		templateArgumentNestingDepth = 0;
+		fTemplateParameterListStrategy = null;
+		try {
+			return super.parseDeferredFunctionBody(body, tu);
+		} finally {
+			translationUnit = savedTranslationUnit;
+			currentClassName = savedClassName;
+			templateArgumentNestingDepth = savedNestingDepth;
+			fTemplateParameterListStrategy = savedStrategy;
+		}
+	}
+
 	protected IASTStatement parseSwitchStatement() throws EndOfFileException, BacktrackException {
 		int startOffset;
 		startOffset = consume().getOffset();
@@ -99,12 +99,18 @@ public interface ICPPEvaluation {
 	 * Keeps track of state during a constexpr evaluation.
 	 */
 	public final class ConstexprEvaluationContext {
+		/**
+		 * System property with the maximum number of steps allowed in a single constexpr evaluation.
+		 */
+		public static final String MAX_STEPS_PROPERTY = "org.eclipse.cdt.core.parser.maxConstexprEvaluationSteps"; //$NON-NLS-1$
+
 		/**
 		 * The maximum number of steps allowed in a single constexpr evaluation.
 		 * This is used to prevent a buggy constexpr function from causing the
-		 * IDE to hang.
+		 * IDE to hang. Defaults to 1024 and can be raised with {@link #MAX_STEPS_PROPERTY}
+		 * for code that does heavier metaprogramming.
 		 */
-		public static final int MAX_CONSTEXPR_EVALUATION_STEPS = 1024;
+		public static final int MAX_CONSTEXPR_EVALUATION_STEPS = Math.max(1, Integer.getInteger(MAX_STEPS_PROPERTY, 1024));
 
 		private int fStepsPerformed;
 
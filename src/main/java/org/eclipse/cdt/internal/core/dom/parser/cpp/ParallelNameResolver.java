@@ -0,0 +1,224 @@
+/**
+ * ****************************************************************************
+ *  Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * *****************************************************************************
+ */
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTDeclSpecifier;
+import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
+import org.eclipse.cdt.core.dom.ast.IASTDeclarator;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclSpecifier;
+import org.eclipse.cdt.core.dom.ast.IScope;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTCompositeTypeSpecifier;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTDeclSpecifier;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTFunctionDeclarator;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTNamespaceDefinition;
+import org.eclipse.cdt.internal.core.dom.parser.ASTQueries;
+import org.eclipse.cdt.internal.core.dom.parser.DeferredFunctionBody;
+import org.eclipse.cdt.internal.core.dom.parser.IASTInternalScope;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
+
+/**
+ * Resolves all names of an AST right after ambiguity resolution, with the bodies of
+ * independent function definitions resolved in parallel on a fork/join pool.
+ * <p>
+ * The names outside of function bodies are resolved on the calling thread first, such that
+ * the bindings and the scopes shared by the bodies exist before the bodies are processed.
+ * The bodies of constexpr functions and of functions with deduced return types are resolved
+ * on the calling thread as well, because the evaluation of other bodies looks into them.
+ * Each of the remaining bodies is accessed by the task resolving it, only.
+ */
+public final class ParallelNameResolver {
+
+    /**
+     * The number of threads used to resolve the names in function bodies right after ambiguity
+     * resolution, by default names are resolved on demand.
+     */
+    public static final String NAME_RESOLUTION_THREADS_PROPERTY = "org.eclipse.cdt.core.parser.nameResolutionThreads"; //$NON-NLS-1$
+
+    // The number of function definitions below which a task is not split any further.
+    private static final int BATCH_SIZE = 8;
+
+    private static ForkJoinPool sPool;
+
+    private ParallelNameResolver() {
+    }
+
+    /**
+     * Returns the pool shared by all ASTs for resolving function bodies, or {@code null}
+     * if names are resolved on demand. The property is checked on every call, a pool that
+     * is no longer used terminates its idle threads.
+     */
+    static synchronized ForkJoinPool getPool() {
+        int threads = Integer.getInteger(NAME_RESOLUTION_THREADS_PROPERTY, 0);
+        if (threads <= 1)
+            return null;
+        if (sPool == null || sPool.getParallelism() != threads) {
+            sPool = new ForkJoinPool(threads, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("C++ Name Resolution"); //$NON-NLS-1$
+                return thread;
+            }, null, false);
+        }
+        return sPool;
+    }
+
+    /**
+     * Resolves the names of the given ambiguity-resolved AST. The index of the AST must be
+     * read-locked by the calling thread, the tasks access it on behalf of that thread.
+     */
+    public static void resolve(CPPASTTranslationUnit tu, ForkJoinPool pool) {
+        List<IASTFunctionDefinition> independentBodies = new ArrayList<>();
+        CPPSemantics.pushLookupPoint(tu);
+        try {
+            populateCache(tu.getScope());
+            tu.accept(new DeclarationNameResolver(independentBodies));
+        } catch (RuntimeException e) {
+            // The remaining names are resolved on demand.
+            CCorePlugin.log(e);
+            return;
+        } finally {
+            CPPSemantics.popLookupPoint();
+        }
+        if (!independentBodies.isEmpty()) {
+            pool.invoke(new BodyResolution(independentBodies, 0, independentBodies.size()));
+        }
+    }
+
+    /**
+     * Checks whether the body of the function may be looked into while resolving the names
+     * of other function bodies, i.e. by constexpr evaluation or return type deduction.
+     */
+    private static boolean isSharedWithOtherBodies(IASTFunctionDefinition fdef) {
+        IASTDeclSpecifier declSpec = fdef.getDeclSpecifier();
+        if (declSpec instanceof ICPPASTDeclSpecifier && ((ICPPASTDeclSpecifier) declSpec).isConstexpr())
+            return true;
+        if (declSpec instanceof IASTSimpleDeclSpecifier) {
+            int type = ((IASTSimpleDeclSpecifier) declSpec).getType();
+            if (type == IASTSimpleDeclSpecifier.t_auto || type == IASTSimpleDeclSpecifier.t_decltype_auto) {
+                IASTDeclarator dtor = ASTQueries.findTypeRelevantDeclarator(fdef.getDeclarator());
+                return !(dtor instanceof ICPPASTFunctionDeclarator) || ((ICPPASTFunctionDeclarator) dtor).getTrailingReturnType() == null;
+            }
+        }
+        return false;
+    }
+
+    private static void populateCache(IScope scope) {
+        if (scope instanceof IASTInternalScope) {
+            ((IASTInternalScope) scope).populateCache();
+        }
+    }
+
+    // Bodies that are parsed lazily are resolved on demand, once they are parsed.
+    private static class NameResolver extends ASTVisitor implements DeferredFunctionBody.ParserVisitor {
+
+        NameResolver() {
+            shouldVisitNames = true;
+        }
+
+        @Override
+        public int visit(IASTName name) {
+            name.resolveBinding();
+            return PROCESS_CONTINUE;
+        }
+    }
+
+    /**
+     * Resolves the names outside of the independent function bodies and collects these bodies.
+     */
+    private static final class DeclarationNameResolver extends NameResolver {
+
+        private final List<IASTFunctionDefinition> fIndependentBodies;
+
+        DeclarationNameResolver(List<IASTFunctionDefinition> independentBodies) {
+            fIndependentBodies = independentBodies;
+            shouldVisitDeclarations = true;
+            shouldVisitDeclSpecifiers = true;
+            shouldVisitNamespaces = true;
+        }
+
+        @Override
+        public int visit(IASTDeclaration declaration) {
+            if (!(declaration instanceof IASTFunctionDefinition))
+                return PROCESS_CONTINUE;
+            IASTFunctionDefinition fdef = (IASTFunctionDefinition) declaration;
+            if (isSharedWithOtherBodies(fdef))
+                return PROCESS_CONTINUE;
+            fdef.getDeclSpecifier().accept(this);
+            fdef.getDeclarator().accept(this);
+            fIndependentBodies.add(fdef);
+            return PROCESS_SKIP;
+        }
+
+        @Override
+        public int visit(IASTDeclSpecifier declSpec) {
+            if (declSpec instanceof ICPPASTCompositeTypeSpecifier) {
+                populateCache(((ICPPASTCompositeTypeSpecifier) declSpec).getScope());
+            }
+            return PROCESS_CONTINUE;
+        }
+
+        @Override
+        public int visit(ICPPASTNamespaceDefinition namespaceDefinition) {
+            populateCache(namespaceDefinition.getScope());
+            return PROCESS_CONTINUE;
+        }
+    }
+
+    /**
+     * Resolves the names of a range of independent function definitions.
+     */
+    private static final class BodyResolution extends RecursiveAction {
+
+        private final List<IASTFunctionDefinition> fDefinitions;
+
+        private final int fFrom;
+
+        private final int fTo;
+
+        BodyResolution(List<IASTFunctionDefinition> definitions, int from, int to) {
+            fDefinitions = definitions;
+            fFrom = from;
+            fTo = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (fTo - fFrom > BATCH_SIZE) {
+                int middle = (fFrom + fTo) >>> 1;
+                invokeAll(new BodyResolution(fDefinitions, fFrom, middle), new BodyResolution(fDefinitions, middle, fTo));
+                return;
+            }
+            NameResolver resolver = new NameResolver();
+            for (int i = fFrom; i < fTo; i++) {
+                IASTFunctionDefinition fdef = fDefinitions.get(i);
+                CPPSemantics.pushLookupPoint(fdef);
+                try {
+                    fdef.accept(resolver);
+                } catch (RuntimeException e) {
+                    // The remaining names of the function are resolved on demand.
+                    CCorePlugin.log(e);
+                } finally {
+                    CPPSemantics.popLookupPoint();
+                }
+            }
+        }
+    }
+}
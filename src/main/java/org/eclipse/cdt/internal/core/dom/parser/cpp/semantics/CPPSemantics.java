@@ -44,6 +44,7 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -316,6 +317,15 @@ public class CPPSemantics {
 	//       "::  i"         => { "::", "i",   null     }
 	private static final Pattern QUALNAME_REGEX = Pattern.compile("^\\s*(::)?\\s*([^\\s:]+)\\s*(?:::(.*))?$"); //$NON-NLS-1$
 
+	/**
+	 * System property that disables the reuse of operator overload resolutions within an AST,
+	 * e.g. for debugging.
+	 */
+	public static final String DISABLE_OPERATOR_RESOLUTION_CACHE_PROPERTY = "org.eclipse.cdt.core.parser.disableOperatorResolutionCache"; //$NON-NLS-1$
+
+	private static final boolean USE_OPERATOR_RESOLUTION_CACHE = !Boolean
+			.getBoolean(DISABLE_OPERATOR_RESOLUTION_CACHE_PROPERTY);
+
 	// This flag controls whether name lookup is allowed to find bindings in headers
 	// that are not reachable via includes from the file containing the name.
 	// Generally this is not allowed, but certain consumers, such as IncludeOrganizer,
@@ -4583,6 +4593,35 @@ public class CPPSemantics {
 			pointOfInstantiation = pointOfInstantiation.getParent();
 		}
 
+		// Reuse the result of an earlier resolution of the operator for arguments of the same types.
+		OperatorResolutionRequest request = null;
+		CPPASTTranslationUnit tu = null;
+		if (USE_OPERATOR_RESOLUTION_CACHE && pointOfInstantiation != null
+				&& !fAllowPromiscuousBindingResolution.get()
+				&& pointOfInstantiation.getTranslationUnit() instanceof CPPASTTranslationUnit) {
+			tu = (CPPASTTranslationUnit) pointOfInstantiation.getTranslationUnit();
+			request = OperatorResolutionRequest.create(operator, mode, pointOfDefinition, pointOfInstantiation,
+					methodLookupType, args);
+		}
+		if (request != null) {
+			Map<OperatorResolutionRequest, ICPPFunction> cache = tu.getOperatorResolutionCache();
+			ICPPFunction result = cache.get(request);
+			if (result != null || cache.containsKey(request)) {
+				tu.recordOperatorResolutionCacheAccess(true);
+				return result;
+			}
+			tu.recordOperatorResolutionCacheAccess(false);
+			result = resolveOverloadedOperator(pointOfDefinition, args, methodLookupType, operator, mode,
+					pointOfInstantiation);
+			cache.put(request, result);
+			return result;
+		}
+		return resolveOverloadedOperator(pointOfDefinition, args, methodLookupType, operator, mode,
+				pointOfInstantiation);
+	}
+
+	private static ICPPFunction resolveOverloadedOperator(IScope pointOfDefinition, ICPPEvaluation[] args,
+			IType methodLookupType, OverloadableOperator operator, LookupMode mode, IASTNode pointOfInstantiation) {
 		ICPPClassType callToObjectOfClassType = null;
 		IType type2 = null;
 		if (args.length >= 2) {
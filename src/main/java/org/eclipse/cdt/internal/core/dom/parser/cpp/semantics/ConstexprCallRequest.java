@@ -0,0 +1,85 @@
+/**
+ * ****************************************************************************
+ *  Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * *****************************************************************************
+ */
+package org.eclipse.cdt.internal.core.dom.parser.cpp.semantics;
+
+import java.util.Arrays;
+import org.eclipse.cdt.core.dom.ast.IPointerType;
+import org.eclipse.cdt.core.dom.ast.IType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPParameter;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPReferenceType;
+import org.eclipse.cdt.core.parser.util.CharArrayUtils;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation;
+
+/**
+ * Key of the constexpr evaluation of a call to a function with given arguments, used to reuse
+ * the result when the same function is called with the same argument values again.
+ * The arguments are identified by their signatures, which include their values.
+ */
+public class ConstexprCallRequest {
+
+    private final ICPPFunction function;
+
+    private final char[][] argSignatures;
+
+    private int hashCode;
+
+    private ConstexprCallRequest(ICPPFunction function, char[][] argSignatures) {
+        this.function = function;
+        this.argSignatures = argSignatures;
+    }
+
+    /**
+     * Creates the key for a call of the given function, or returns {@code null} if the result
+     * of the call may depend on more than the values of the arguments, i.e. if the function
+     * is called on an object or takes references or pointers.
+     *
+     * @param arguments the function followed by the arguments of the call
+     */
+    static ConstexprCallRequest create(ICPPFunction function, ICPPEvaluation[] arguments, ICPPEvaluation implicitThis) {
+        if (implicitThis != null)
+            return null;
+        for (ICPPParameter parameter : function.getParameters()) {
+            IType type = SemanticUtil.getNestedType(parameter.getType(), SemanticUtil.TDEF);
+            if (type instanceof ICPPReferenceType || type instanceof IPointerType)
+                return null;
+        }
+        char[][] argSignatures = new char[arguments.length - 1][];
+        for (int i = 1; i < arguments.length; i++) {
+            argSignatures[i - 1] = arguments[i].getSignature();
+        }
+        return new ConstexprCallRequest(function, argSignatures);
+    }
+
+    @Override
+    public int hashCode() {
+        if (hashCode == 0) {
+            int result = function.hashCode();
+            for (char[] signature : argSignatures) {
+                result = 31 * result + CharArrayUtils.hash(signature);
+            }
+            hashCode = result == 0 ? 1 : result;
+        }
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ConstexprCallRequest))
+            return false;
+        ConstexprCallRequest other = (ConstexprCallRequest) obj;
+        return function.equals(other.function) && Arrays.deepEquals(argSignatures, other.argSignatures);
+    }
+}
@@ -22,9 +22,11 @@ import static org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.SemanticUti
 import static org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.SemanticUtil.TDEF;
 
 import java.util.Arrays;
+import java.util.Map;
 
 import org.eclipse.cdt.core.dom.ast.IASTExpression.ValueCategory;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.dom.ast.IASTTypeId;
 import org.eclipse.cdt.core.dom.ast.IBinding;
 import org.eclipse.cdt.core.dom.ast.IFunctionType;
@@ -46,6 +48,7 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateParameterMap;
 import org.eclipse.cdt.internal.core.dom.parser.CompositeValue;
 import org.eclipse.cdt.internal.core.dom.parser.DependentValue;
 import org.eclipse.cdt.internal.core.dom.parser.ITypeMarshalBuffer;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClosureType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPFunction;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation;
@@ -348,6 +351,29 @@ public final class EvalFunctionCall extends CPPDependentEvaluation {
 		if (!function.isConstexpr())
 			return EvalFixed.INCOMPLETE;
 
+		// Reuse the result of an earlier call with the same argument values.
+		ConstexprCallRequest request = null;
+		Map<ConstexprCallRequest, ICPPEvaluation> memo = getConstexprCallMemo();
+		if (memo != null) {
+			request = ConstexprCallRequest.create(function, fArguments, getImplicitThis());
+			if (request != null) {
+				ICPPEvaluation memoized = memo.get(request);
+				if (memoized != null)
+					return copyResult(memoized);
+			}
+		}
+
+		ICPPEvaluation result = executeFunctionBody(function, context);
+		// Incomplete results are not remembered, they may be caused by the exhausted step budget
+		// of the enclosing evaluation.
+		if (request != null && result instanceof EvalFixed && result != EvalFixed.INCOMPLETE
+				&& !(result.getValue() instanceof DependentValue)) {
+			memo.put(request, copyResult(result));
+		}
+		return result;
+	}
+
+	private ICPPEvaluation executeFunctionBody(ICPPFunction function, ConstexprEvaluationContext context) {
 		ActivationRecord record = createActivationRecord(function.getParameters(), fArguments, getImplicitThis());
 		ICPPExecution bodyExec = CPPFunction.getFunctionBodyExecution(function);
 		if (bodyExec == null) {
@@ -389,6 +415,24 @@ public final class EvalFunctionCall extends CPPDependentEvaluation {
 		return EvalFixed.INCOMPLETE;
 	}
 
+	private static Map<ConstexprCallRequest, ICPPEvaluation> getConstexprCallMemo() {
+		IASTNode lookupPoint = CPPSemantics.getCurrentLookupPoint();
+		if (lookupPoint != null) {
+			IASTTranslationUnit tu = lookupPoint.getTranslationUnit();
+			if (tu instanceof CPPASTTranslationUnit) {
+				return ((CPPASTTranslationUnit) tu).getConstexprCallMemo();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Values may be modified by the evaluation that uses them, the memo keeps its own copies.
+	 */
+	private static ICPPEvaluation copyResult(ICPPEvaluation result) {
+		return new EvalFixed(result.getType(), result.getValueCategory(), result.getValue().clone());
+	}
+
 	public ICPPFunction resolveFunctionBinding() {
 		ICPPFunction function = getOverload();
 		if (function == null) {
@@ -0,0 +1,201 @@
+/**
+ * ****************************************************************************
+ *  Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * *****************************************************************************
+ */
+package org.eclipse.cdt.internal.core.dom.parser.cpp.semantics;
+
+import static org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.SemanticUtil.CVTYPE;
+import static org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.SemanticUtil.REF;
+import static org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.SemanticUtil.TDEF;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
+import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
+import org.eclipse.cdt.core.dom.ast.IASTDeclarationStatement;
+import org.eclipse.cdt.core.dom.ast.IASTDeclarator;
+import org.eclipse.cdt.core.dom.ast.IASTExpression.ValueCategory;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionDeclarator;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
+import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclaration;
+import org.eclipse.cdt.core.dom.ast.IASTStatement;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.IScope;
+import org.eclipse.cdt.core.dom.ast.ISemanticProblem;
+import org.eclipse.cdt.core.dom.ast.IType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTLinkageSpecification;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTNamespaceDefinition;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTUsingDeclaration;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTUsingDirective;
+import org.eclipse.cdt.core.parser.util.CharArrayUtils;
+import org.eclipse.cdt.internal.core.dom.parser.ASTQueries;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPBasicType;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.OverloadableOperator;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics.LookupMode;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * Key of the overload resolution of an operator, used to reuse the selected function when
+ * the same operator is applied to arguments of the same types and value categories again.
+ * <p>
+ * The lookup point is represented by the declaration that encloses it: the innermost function
+ * definition, or the declaration at namespace scope. Within such a region no new namespace
+ * scope declarations can appear. A function body can still change the visible candidates by
+ * block scope using-directives, using-declarations or function declarations, no key is created
+ * for a lookup point preceded by one of these in an enclosing block.
+ */
+public class OperatorResolutionRequest {
+
+    private final OverloadableOperator operator;
+
+    private final LookupMode mode;
+
+    private final IScope pointOfDefinition;
+
+    private final IASTNode region;
+
+    private final IType methodLookupType;
+
+    private final IType[] argTypes;
+
+    private final ValueCategory[] argCategories;
+
+    private int hashCode;
+
+    private OperatorResolutionRequest(OverloadableOperator operator, LookupMode mode, IScope pointOfDefinition, IASTNode region, IType methodLookupType, IType[] argTypes, ValueCategory[] argCategories) {
+        this.operator = operator;
+        this.mode = mode;
+        this.pointOfDefinition = pointOfDefinition;
+        this.region = region;
+        this.methodLookupType = methodLookupType;
+        this.argTypes = argTypes;
+        this.argCategories = argCategories;
+    }
+
+    /**
+     * Creates the key for the resolution of an operator, or returns {@code null} if the outcome
+     * of the resolution may depend on more than the types and value categories of the arguments.
+     */
+    static OperatorResolutionRequest create(OverloadableOperator operator, LookupMode mode, IScope pointOfDefinition, IASTNode lookupPoint, IType methodLookupType, ICPPEvaluation[] args) {
+        IASTNode region = getRegion(lookupPoint);
+        if (region == null)
+            return null;
+        if (methodLookupType instanceof ISemanticProblem)
+            return null;
+        IType[] argTypes = new IType[args.length];
+        ValueCategory[] argCategories = new ValueCategory[args.length];
+        for (int i = 0; i < args.length; i++) {
+            ICPPEvaluation arg = args[i];
+            if (arg == null || arg instanceof EvalInitList || arg.isTypeDependent())
+                return null;
+            IType type = arg.getType();
+            if (type == null || type instanceof ISemanticProblem || type instanceof FunctionSetType || type instanceof InitializerListType)
+                return null;
+            // Null pointer constants are recognized by the value of the literal, which the
+            // type comparison ignores.
+            IType nestedType = SemanticUtil.getNestedType(type, TDEF | REF | CVTYPE);
+            if (nestedType instanceof CPPBasicType && ((CPPBasicType) nestedType).isFromLiteral())
+                return null;
+            argTypes[i] = type;
+            argCategories[i] = arg.getValueCategory();
+        }
+        return new OperatorResolutionRequest(operator, mode, pointOfDefinition, region, methodLookupType, argTypes, argCategories);
+    }
+
+    private static IASTNode getRegion(IASTNode lookupPoint) {
+        IASTNode node = lookupPoint;
+        while (node != null) {
+            if (node instanceof IASTFunctionDefinition)
+                return node;
+            IASTNode parent = node.getParent();
+            if (parent instanceof IASTCompoundStatement && changesCandidatesBefore((IASTCompoundStatement) parent, node))
+                return null;
+            if (parent instanceof IASTTranslationUnit || parent instanceof ICPPASTNamespaceDefinition || parent instanceof ICPPASTLinkageSpecification)
+                return node;
+            node = parent;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a statement of the block that precedes the given one declares something
+     * that may add operator candidates for the remainder of the block.
+     */
+    private static boolean changesCandidatesBefore(IASTCompoundStatement block, IASTNode child) {
+        for (IASTStatement statement : block.getStatements()) {
+            if (statement == child)
+                return false;
+            if (!(statement instanceof IASTDeclarationStatement))
+                continue;
+            IASTDeclaration declaration = ((IASTDeclarationStatement) statement).getDeclaration();
+            if (declaration instanceof ICPPASTUsingDirective || declaration instanceof ICPPASTUsingDeclaration)
+                return true;
+            if (declaration instanceof IASTSimpleDeclaration) {
+                for (IASTDeclarator declarator : ((IASTSimpleDeclaration) declaration).getDeclarators()) {
+                    if (ASTQueries.findTypeRelevantDeclarator(declarator) instanceof IASTFunctionDeclarator)
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        if (hashCode == 0) {
+            int result = operator.hashCode();
+            result = 31 * result + mode.hashCode();
+            result = 31 * result + region.hashCode();
+            SignatureBuilder builder = new SignatureBuilder();
+            try {
+                for (IType type : argTypes) {
+                    builder.marshalType(type);
+                }
+                result = 31 * result + CharArrayUtils.hash(builder.getSignature());
+            } catch (CoreException e) {
+                CCorePlugin.log(e);
+            }
+            hashCode = result == 0 ? 1 : result;
+        }
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof OperatorResolutionRequest))
+            return false;
+        OperatorResolutionRequest other = (OperatorResolutionRequest) obj;
+        if (operator != other.operator || mode != other.mode || region != other.region || pointOfDefinition != other.pointOfDefinition)
+            return false;
+        if (argTypes.length != other.argTypes.length)
+            return false;
+        if (!equals(methodLookupType, other.methodLookupType))
+            return false;
+        for (int i = 0; i < argTypes.length; i++) {
+            if (argCategories[i] != other.argCategories[i])
+                return false;
+            if (!argTypes[i].isSameType(other.argTypes[i]))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean equals(IType type1, IType type2) {
+        if (type1 == type2)
+            return true;
+        if (type1 == null || type2 == null)
+            return false;
+        return type1.isSameType(type2);
+    }
+}
@@ -29,6 +29,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.core.CCorePlugin;
@@ -58,6 +64,7 @@ import org.eclipse.cdt.internal.core.pdom.dom.PDOMNode;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 
 public class CIndex implements IIndex {
@@ -67,9 +74,42 @@ public class CIndex implements IIndex {
 	 */
 	private static final boolean SPECIALCASE_SINGLES = true;
 
+	/**
+	 * The number of threads shared by all indexes for querying their fragments concurrently,
+	 * by default the fragments are queried one after the other.
+	 */
+	public static final String QUERY_THREADS_PROPERTY = "org.eclipse.cdt.core.index.fragmentQueryThreads"; //$NON-NLS-1$
+
+	private static ExecutorService sQueryExecutor;
+
 	private final IIndexFragment[] fFragments;
 	private int fReadLock;
 	private ICompositesFactory cppCF, cCF, fCF;
+	private volatile Executor fQueryExecutor;
+	private final AtomicLongArray fFragmentQueryTimes;
+
+	/**
+	 * A query performed on each of the fragments of the index.
+	 */
+	private interface FragmentQuery<T> {
+		T query(IIndexFragment fragment, IProgressMonitor monitor) throws CoreException;
+	}
+
+	/**
+	 * Monitor for a query running on behalf of another thread, it only forwards cancellation.
+	 */
+	private static final class QueryMonitor extends NullProgressMonitor {
+		private final IProgressMonitor fCaller;
+
+		QueryMonitor(IProgressMonitor caller) {
+			fCaller = caller;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return fCaller != null && fCaller.isCanceled();
+		}
+	}
 
 	/**
 	 * Creates an index consisting of one or more fragments.
@@ -79,6 +119,38 @@ public class CIndex implements IIndex {
 	 */
 	public CIndex(IIndexFragment[] fragments) {
 		fFragments = fragments;
+		fFragmentQueryTimes = new AtomicLongArray(fragments.length);
+		fQueryExecutor = getDefaultQueryExecutor();
+	}
+
+	private static synchronized ExecutorService getDefaultQueryExecutor() {
+		if (sQueryExecutor == null) {
+			int threads = Integer.getInteger(QUERY_THREADS_PROPERTY, 0);
+			if (threads <= 0)
+				return null;
+			sQueryExecutor = Executors.newFixedThreadPool(threads, r -> {
+				Thread thread = new Thread(r, "Index Fragment Query"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return sQueryExecutor;
+	}
+
+	/**
+	 * Sets the executor used to query the fragments of this index concurrently, or {@code null}
+	 * to query them one after the other. The fragments are queried on behalf of the thread holding
+	 * the read lock, the index filters passed to the queries must therefore be thread-safe.
+	 */
+	public void setQueryExecutor(Executor executor) {
+		fQueryExecutor = executor;
+	}
+
+	/**
+	 * Returns the time in milliseconds spent in queries of the fragment with the given index.
+	 */
+	public long getFragmentQueryTime(int fragmentIndex) {
+		return fFragmentQueryTimes.get(fragmentIndex) / 1000000;
 	}
 
 	@Override
@@ -116,18 +188,9 @@ public class CIndex implements IIndex {
 			ILinkage[] linkages = Linkage.getIndexerLinkages();
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findBindings(patterns, isFullyQualified,
-									retargetFilter(linkage, filter), monitor);
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					IIndexFragmentBinding[][] fragmentBindings = queryFragmentBindings((fragment,
+							m) -> fragment.findBindings(patterns, isFullyQualified, retargetFilter(linkage, filter), m),
+							monitor, null);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
@@ -146,18 +209,9 @@ public class CIndex implements IIndex {
 			ILinkage[] linkages = Linkage.getIndexerLinkages();
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findMacroContainers(pattern,
-									retargetFilter(linkage, filter), monitor);
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					IIndexFragmentBinding[][] fragmentBindings = queryFragmentBindings(
+							(fragment, m) -> fragment.findMacroContainers(pattern, retargetFilter(linkage, filter), m),
+							monitor, null);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
@@ -249,21 +303,22 @@ public class CIndex implements IIndex {
 		// Read only fragments can be superseded by what the indexer writes into
 		// a writable fragment. Therefore names from a read-only fragment are
 		// ignored if there is a match in a writable fragment.
+		final IBinding target = binding;
+		IIndexFragmentName[][] fragmentNames = queryFragments(new IIndexFragmentName[fFragments.length][],
+				(fragment, m) -> fragment.findNames(target, flags), null, null, null);
 		HashSet<NameKey> encounteredNames = new HashSet<>();
-		for (IIndexFragment fragment : fFragments) {
-			if (fragment instanceof IWritableIndexFragment) {
-				final IIndexFragmentName[] names = fragment.findNames(binding, flags);
-				for (IIndexFragmentName name : names) {
+		for (int i = 0; i < fFragments.length; i++) {
+			if (fFragments[i] instanceof IWritableIndexFragment) {
+				for (IIndexFragmentName name : fragmentNames[i]) {
 					if (encounteredNames.add(new NameKey(name, true))) {
 						result.add(name);
 					}
 				}
 			}
 		}
-		for (IIndexFragment fragment : fFragments) {
-			if (!(fragment instanceof IWritableIndexFragment)) {
-				final IIndexFragmentName[] names = fragment.findNames(binding, flags);
-				for (IIndexFragmentName name : names) {
+		for (int i = 0; i < fFragments.length; i++) {
+			if (!(fFragments[i] instanceof IWritableIndexFragment)) {
+				for (IIndexFragmentName name : fragmentNames[i]) {
 					if (encounteredNames.add(new NameKey(name, false))) {
 						result.add(name);
 					}
@@ -535,18 +590,9 @@ public class CIndex implements IIndex {
 					fFragments.length * linkages.length);
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findBindings(names, retargetFilter(linkage, filter),
-									loopMonitor.newChild(1));
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					IIndexFragmentBinding[][] fragmentBindings = queryFragmentBindings(
+							(fragment, m) -> fragment.findBindings(names, retargetFilter(linkage, filter), m), monitor,
+							loopMonitor);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
@@ -616,6 +662,107 @@ public class CIndex implements IIndex {
 		return result.toArray(new IIndexFragmentBinding[result.size()]);
 	}
 
+	private IIndexFragmentBinding[][] queryFragmentBindings(final FragmentQuery<IBinding[]> query,
+			IProgressMonitor monitor, SubMonitor loopMonitor) throws CoreException {
+		return queryFragments(new IIndexFragmentBinding[fFragments.length][], (fragment, m) -> {
+			IBinding[] part = query.query(fragment, m);
+			IIndexFragmentBinding[] bindings = new IIndexFragmentBinding[part.length];
+			System.arraycopy(part, 0, bindings, 0, part.length);
+			return bindings;
+		}, IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY, monitor, loopMonitor);
+	}
+
+	/**
+	 * Performs the query on all fragments and stores the results in the given array, in the order
+	 * of the fragments. With a query executor the fragments are queried concurrently, the calling
+	 * thread takes part and waits for all queries to complete.
+	 *
+	 * @param onError the result for a fragment that fails with a {@link CoreException}, which is
+	 *     logged. If {@code null}, the first exception is rethrown.
+	 * @param monitor the monitor passed to the queries, may be {@code null}.
+	 * @param loopMonitor if not {@code null}, each query is passed a child of it instead.
+	 */
+	private <T> T[] queryFragments(T[] results, FragmentQuery<T> query, T onError, IProgressMonitor monitor,
+			SubMonitor loopMonitor) throws CoreException {
+		final Executor executor = fQueryExecutor;
+		if (executor == null || fFragments.length < 2) {
+			for (int i = 0; i < fFragments.length; i++) {
+				results[i] = queryFragment(i, query, onError, loopMonitor != null ? loopMonitor.newChild(1) : monitor);
+			}
+			return results;
+		}
+
+		final IProgressMonitor queryMonitor = new QueryMonitor(loopMonitor != null ? loopMonitor : monitor);
+		List<FutureTask<T>> tasks = new ArrayList<>(fFragments.length - 1);
+		for (int i = 1; i < fFragments.length; i++) {
+			final int fragmentIndex = i;
+			FutureTask<T> task = new FutureTask<>(() -> queryFragment(fragmentIndex, query, onError, queryMonitor));
+			tasks.add(task);
+			executor.execute(task);
+		}
+		// The queries read on behalf of this thread, do not return before all of them are done.
+		Throwable failure = null;
+		try {
+			results[0] = queryFragment(0, query, onError, queryMonitor);
+		} catch (Throwable e) {
+			failure = e;
+		}
+		if (loopMonitor != null) {
+			loopMonitor.worked(1);
+		}
+		boolean interrupted = false;
+		for (int i = 0; i < tasks.size(); i++) {
+			FutureTask<T> task = tasks.get(i);
+			while (true) {
+				try {
+					results[i + 1] = task.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause();
+					}
+					break;
+				}
+			}
+			if (loopMonitor != null) {
+				loopMonitor.worked(1);
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure instanceof CoreException) {
+			throw (CoreException) failure;
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new OperationCanceledException(failure.getMessage());
+		}
+		return results;
+	}
+
+	private <T> T queryFragment(int fragmentIndex, FragmentQuery<T> query, T onError, IProgressMonitor monitor)
+			throws CoreException {
+		long start = System.nanoTime();
+		try {
+			return query.query(fFragments[fragmentIndex], monitor);
+		} catch (CoreException e) {
+			if (onError == null)
+				throw e;
+			CCorePlugin.log(e);
+			return onError;
+		} finally {
+			fFragmentQueryTimes.addAndGet(fragmentIndex, System.nanoTime() - start);
+		}
+	}
+
 	private ICompositesFactory getCompositesFactory(int linkageID) {
 		switch (linkageID) {
 		case ILinkage.CPP_LINKAGE_ID:
@@ -665,18 +812,9 @@ public class CIndex implements IIndex {
 			ILinkage[] linkages = Linkage.getIndexerLinkages();
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findBindingsForPrefix(prefix, filescope,
-									retargetFilter(linkage, filter), monitor);
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					IIndexFragmentBinding[][] fragmentBindings = queryFragmentBindings((fragment,
+							m) -> fragment.findBindingsForPrefix(prefix, filescope, retargetFilter(linkage, filter), m),
+							monitor, null);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
@@ -695,18 +833,10 @@ public class CIndex implements IIndex {
 			ILinkage[] linkages = Linkage.getIndexerLinkages();
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findBindingsForContentAssist(prefix, filescope,
-									retargetFilter(linkage, filter), monitor);
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					IIndexFragmentBinding[][] fragmentBindings = queryFragmentBindings(
+							(fragment, m) -> fragment.findBindingsForContentAssist(prefix, filescope,
+									retargetFilter(linkage, filter), m),
+							monitor, null);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
@@ -739,18 +869,9 @@ public class CIndex implements IIndex {
 			return new IIndexFragmentBinding[0][];
 		}
 
-		IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-		for (int i = 0; i < fFragments.length; i++) {
-			try {
-				IBinding[] part = fFragments[i].findBindings(name, filescope, retargetFilter(linkage, filter), monitor);
-				fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-				System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-			} catch (CoreException e) {
-				CCorePlugin.log(e);
-				fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-			}
-		}
-		return fragmentBindings;
+		return queryFragmentBindings(
+				(fragment, m) -> fragment.findBindings(name, filescope, retargetFilter(linkage, filter), m), monitor,
+				null);
 	}
 
 	@Override
@@ -774,11 +895,12 @@ public class CIndex implements IIndex {
 		List<IIndexMacro> result = new ArrayList<>();
 		HashSet<IIndexFileLocation> handledIFLs = new HashSet<>();
 		SubMonitor loopMonitor = SubMonitor.convert(monitor, Messages.CIndex_FindBindingsTask_label, fFragments.length);
-		for (IIndexFragment fragment : fFragments) {
+		IIndexMacro[][] fragmentMacros = queryFragments(new IIndexMacro[fFragments.length][],
+				(fragment, m) -> fragment.findMacros(name, isPrefix, caseSensitive, filter, m),
+				IIndexMacro.EMPTY_INDEX_MACRO_ARRAY, monitor, loopMonitor);
+		for (IIndexMacro[] macros : fragmentMacros) {
 			HashSet<IIndexFile> allowedFiles = new HashSet<>();
 			try {
-				IIndexMacro[] macros = fragment.findMacros(name, isPrefix, caseSensitive, filter,
-						loopMonitor.newChild(1));
 				for (IIndexMacro indexMacro : macros) {
 					IIndexFile file = indexMacro.getFile();
 					if (!allowedFiles.contains(file)) {
@@ -814,9 +936,26 @@ public class CIndex implements IIndex {
 		return result;
 	}
 
-	public void resetCacheCounters() {
+	public long getLockWaitCount() {
+		long result = 0;
 		for (IIndexFragment fragment : fFragments) {
-			fragment.resetCacheCounters();
+			result += fragment.getLockWaitCount();
+		}
+		return result;
+	}
+
+	public long getLockWaitTime() {
+		long result = 0;
+		for (IIndexFragment fragment : fFragments) {
+			result += fragment.getLockWaitTime();
+		}
+		return result;
+	}
+
+	public void resetCacheCounters() {
+		for (int i = 0; i < fFragments.length; i++) {
+			fFragments[i].resetCacheCounters();
+			fFragmentQueryTimes.set(i, 0);
 		}
 	}
 
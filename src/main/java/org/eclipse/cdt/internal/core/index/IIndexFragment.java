@@ -299,7 +299,7 @@ public interface IIndexFragment {
 	public String getProperty(String propertyName) throws CoreException;
 
 	/**
-	 * Resets the counters for cache-hits and cache-misses.
+	 * Resets the counters for cache-hits, cache-misses and lock waits.
 	 */
 	void resetCacheCounters();
 
@@ -313,6 +313,17 @@ public interface IIndexFragment {
 	 */
 	long getCacheMisses();
 
+	/**
+	 * Returns the number of read and write lock acquisitions that had to wait for another thread
+	 * since last reset of counters.
+	 */
+	long getLockWaitCount();
+
+	/**
+	 * Returns the time in milliseconds spent waiting for read and write locks since last reset of counters.
+	 */
+	long getLockWaitTime();
+
 	/**
 	 * Creates an empty file set for this fragment
 	 * @since 5.0
@@ -157,6 +157,17 @@ public interface IWritableIndex extends IIndex {
 	 */
 	long getCacheMisses();
 
+	/**
+	 * Returns the number of lock acquisitions that had to wait for another thread since last reset
+	 * of counters.
+	 */
+	long getLockWaitCount();
+
+	/**
+	 * Returns the time in milliseconds spent waiting for locks since last reset of counters.
+	 */
+	long getLockWaitTime();
+
 	/**
 	 * Returns the primary writable fragment, or <code>null</code> if there is
 	 * no writable fragment.
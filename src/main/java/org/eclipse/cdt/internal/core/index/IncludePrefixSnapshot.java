@@ -0,0 +1,154 @@
+/**
+ * ****************************************************************************
+ *  Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * *****************************************************************************
+ */
+package org.eclipse.cdt.internal.core.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.cdt.core.dom.ast.IFileNomination;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPUsingDirective;
+import org.eclipse.cdt.core.index.IIndexFile;
+import org.eclipse.cdt.core.index.IIndexFileLocation;
+import org.eclipse.cdt.core.index.IIndexMacro;
+import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
+import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent.FileVersion;
+
+/**
+ * The content the preprocessor obtains from the index for an inclusion at the start of a translation
+ * unit: the macros, using directives, included files and files with pragma once semantics of the
+ * included file and everything it includes. Translation units that start with the same inclusions
+ * reuse the snapshot instead of collecting the content from the index again, much like a
+ * precompiled header.
+ * <p>
+ * What is collected for an inclusion depends on the files with pragma once semantics included
+ * before. Therefore a snapshot is specific to the snapshot of the preceding inclusion, its parent.
+ * The snapshots of the first inclusions of all translation units form a tree.
+ */
+public final class IncludePrefixSnapshot {
+
+    private final IIndexFile fFile;
+
+    private final List<IIndexFile> fFiles;
+
+    private final List<IIndexFileLocation> fFileLocations;
+
+    private final Set<IIndexFile> fFileSet;
+
+    private final List<IIndexMacro> fMacros;
+
+    private final List<ICPPUsingDirective> fUsingDirectives;
+
+    private final List<FileVersion> fNonPragmaOnceVersions;
+
+    private final Map<IIndexFileLocation, IFileNomination> fPragmaOnce;
+
+    private final Map<IIndexFile, IncludePrefixSnapshot> fChildren = new HashMap<>();
+
+    private boolean fInvalid;
+
+    public IncludePrefixSnapshot(IIndexFile file, List<IIndexFile> files, List<IIndexFileLocation> fileLocations, List<IIndexMacro> macros, List<ICPPUsingDirective> usingDirectives, List<FileVersion> nonPragmaOnceVersions, Map<IIndexFileLocation, IFileNomination> pragmaOnce) {
+        fFile = file;
+        fFiles = files;
+        fFileLocations = fileLocations;
+        fFileSet = new HashSet<>(files);
+        fMacros = macros;
+        fUsingDirectives = usingDirectives;
+        fNonPragmaOnceVersions = nonPragmaOnceVersions;
+        fPragmaOnce = pragmaOnce;
+    }
+
+    /**
+     * Returns the files whose content is part of the snapshot.
+     */
+    public List<IIndexFile> getFiles() {
+        return fFiles;
+    }
+
+    /**
+     * Returns the locations of the files returned by {@link #getFiles()}, in the same order.
+     */
+    public List<IIndexFileLocation> getFileLocations() {
+        return fFileLocations;
+    }
+
+    public Map<IIndexFileLocation, IFileNomination> getPragmaOnce() {
+        return fPragmaOnce;
+    }
+
+    /**
+     * Returns the snapshot for the given file included after the inclusion of this snapshot, or null.
+     */
+    public IncludePrefixSnapshot getChild(IIndexFile file) {
+        IncludePrefixSnapshot child = fChildren.get(file);
+        return child == null || child.fInvalid ? null : child;
+    }
+
+    public void addChild(IncludePrefixSnapshot child) {
+        fChildren.put(child.fFile, child);
+    }
+
+    /**
+     * Returns whether the snapshot contains the content of the given file.
+     */
+    public boolean contains(IIndexFile file) {
+        return fFileSet.contains(file);
+    }
+
+    /**
+     * Marks the snapshot and all its descendants as unusable.
+     * @return the number of snapshots that have been invalidated
+     */
+    public int invalidate() {
+        int count = 1;
+        fInvalid = true;
+        for (IncludePrefixSnapshot child : fChildren.values()) {
+            count += child.invalidate();
+        }
+        fChildren.clear();
+        return count;
+    }
+
+    /**
+     * Invalidates the descendants that depend on the given file.
+     * @return the number of snapshots that have been invalidated
+     */
+    public int invalidateChildren(IIndexFile file) {
+        int count = 0;
+        for (Iterator<IncludePrefixSnapshot> it = fChildren.values().iterator(); it.hasNext(); ) {
+            IncludePrefixSnapshot child = it.next();
+            if (child.fFileSet.contains(file)) {
+                count += child.invalidate();
+                it.remove();
+            } else {
+                count += child.invalidateChildren(file);
+            }
+        }
+        return count;
+    }
+
+    public boolean isValid() {
+        return !fInvalid;
+    }
+
+    /**
+     * Creates the content for the inclusion of the snapshot. The preprocessor owns the lists
+     * of the content, they are copied.
+     */
+    public InternalFileContent createContent(String path) {
+        return new InternalFileContent(path, new ArrayList<>(fMacros), new ArrayList<>(fUsingDirectives), new ArrayList<>(fFiles), new ArrayList<>(fNonPragmaOnceVersions));
+    }
+}
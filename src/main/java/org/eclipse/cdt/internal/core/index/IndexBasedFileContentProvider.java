@@ -81,6 +81,11 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 
     private boolean fIndexAllHeaderVersions;
 
+    // Whether the files with pragma once semantics have been obtained from snapshots only.
+    private boolean fAtIncludePrefix = true;
+
+    private IncludePrefixSnapshot fIncludePrefixSnapshot;
+
     public IndexBasedFileContentProvider(IIndex index, ASTFilePathResolver pathResolver, int linkage, IncludeFileContentProvider fallbackFactory) {
         this(index, pathResolver, linkage, fallbackFactory, null);
     }
@@ -109,6 +114,8 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
     public void resetForTranslationUnit() {
         super.resetForTranslationUnit();
         fPragmaOnce.clear();
+        fAtIncludePrefix = true;
+        fIncludePrefixSnapshot = null;
     }
 
     /**
@@ -116,6 +123,7 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
      */
     @Override
     public void reportPragmaOnceSemantics(String filePath, IFileNomination nom) {
+        fAtIncludePrefix = false;
         fPragmaOnce.put(fPathResolver.resolveIncludeFile(filePath), nom);
     }
 
@@ -143,6 +151,15 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
             IIndexFile file = selectIndexFile(macroDictionary, ifl);
             if (file != null) {
                 try {
+                    final boolean useSnapshot = fAtIncludePrefix && fRelatedIndexerTask != null;
+                    if (useSnapshot) {
+                        IncludePrefixSnapshot snapshot = fRelatedIndexerTask.getIncludePrefixSnapshot(fLinkage, fIncludePrefixSnapshot, file);
+                        if (snapshot != null) {
+                            fPragmaOnce.putAll(snapshot.getPragmaOnce());
+                            fIncludePrefixSnapshot = snapshot;
+                            return snapshot.createContent(path);
+                        }
+                    }
                     List<IIndexFile> files = new ArrayList<>();
                     List<IIndexMacro> macros = new ArrayList<>();
                     List<ICPPUsingDirective> directives = new ArrayList<>();
@@ -151,7 +168,12 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
                     collectFileContent(file, null, newPragmaOnce, preLoaded, files, macros, directives, null);
                     // Report pragma once inclusions, only if no exception was thrown.
                     fPragmaOnce.putAll(newPragmaOnce);
-                    return new InternalFileContent(path, macros, directives, files, toList(preLoaded));
+                    List<FileVersion> versions = toList(preLoaded);
+                    if (useSnapshot) {
+                        fIncludePrefixSnapshot = fRelatedIndexerTask.addIncludePrefixSnapshot(fIncludePrefixSnapshot, file, files, macros, directives, versions, newPragmaOnce);
+                        fAtIncludePrefix = fIncludePrefixSnapshot != null;
+                    }
+                    return new InternalFileContent(path, macros, directives, files, versions);
                 } catch (DependsOnOutdatedFileException e) {
                 }
             }
@@ -273,6 +295,7 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
             }
             // Report pragma once inclusions.
             fPragmaOnce.putAll(newPragmaOnce);
+            fAtIncludePrefix = false;
             return new InternalFileContent(GAP, macros, directives, filesIncluded, toList(preLoaded));
         } catch (CoreException e) {
             CCorePlugin.log(e);
@@ -27,6 +27,7 @@ import org.eclipse.cdt.core.parser.IParserLogService;
 import org.eclipse.cdt.core.parser.IScannerInfo;
 import org.eclipse.cdt.internal.core.index.IWritableIndex;
 import org.eclipse.cdt.internal.core.index.IWritableIndexFragment;
+import org.eclipse.cdt.internal.core.parser.scanner.IncludeResolutionCache;
 import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
 import org.eclipse.cdt.internal.core.pdom.PDOMWriter;
 import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
@@ -152,6 +153,21 @@ public abstract class StandaloneIndexer {
 
 	protected int fUpdateOptions = UPDATE_ALL;
 
+	/**
+	 * The number of threads that parse source files concurrently.
+	 */
+	protected int fParserThreadCount = 1;
+
+	/**
+	 * Whether the content of common leading inclusions is reused across translation units.
+	 */
+	protected boolean fUseIncludePrefixSnapshots = false;
+
+	/**
+	 * The resolution of include directives, shared by the translation units of all tasks.
+	 */
+	private final IncludeResolutionCache fIncludeResolutionCache = new IncludeResolutionCache();
+
 	private IndexerProgress fProgress = null;
 	private volatile StandaloneIndexerTask fDelegate;
 
@@ -359,6 +375,22 @@ public abstract class StandaloneIndexer {
 		}
 	}
 
+	/**
+	 * The index is empty after clearing it, let it build its indexes bottom-up.
+	 */
+	private void setBulkLoading(boolean value) throws CoreException, InterruptedException {
+		IWritableIndex index = getIndex();
+		IWritableIndexFragment fragment = index.getWritableFragment();
+		if (fragment instanceof WritablePDOM) {
+			index.acquireWriteLock(null);
+			try {
+				((WritablePDOM) fragment).setBulkLoading(value);
+			} finally {
+				index.releaseWriteLock();
+			}
+		}
+	}
+
 	/**
 	 * Returns the progress information.
 	 */
@@ -382,6 +414,42 @@ public abstract class StandaloneIndexer {
 		fUpdateOptions = options;
 	}
 
+	/**
+	 * Returns the number of threads that parse source files concurrently.
+	 */
+	public int getParserThreadCount() {
+		return fParserThreadCount;
+	}
+
+	/**
+	 * Specifies the number of threads that parse source files concurrently. The parsed
+	 * translation units are still written to the index one at a time and in the same order.
+	 * A value larger than one requires the code reader factory to be thread safe, it has no
+	 * effect on the fast indexer.
+	 * @param count - number of parser threads, values less than one are treated as one
+	 */
+	public void setParserThreadCount(int count) {
+		fParserThreadCount = Math.max(1, count);
+	}
+
+	/**
+	 * Returns whether the content of common leading inclusions is reused across translation units.
+	 */
+	public boolean getUseIncludePrefixSnapshots() {
+		return fUseIncludePrefixSnapshots;
+	}
+
+	/**
+	 * Specifies whether the fast indexer keeps snapshots of the content it obtains from the index
+	 * for the inclusions at the start of a translation unit. Translation units starting with the
+	 * same inclusions, e.g. of a common prefix header, then reuse the snapshots instead of
+	 * collecting the content of the headers from the index again. Has no effect on the full indexer.
+	 * @param useSnapshots
+	 */
+	public void setUseIncludePrefixSnapshots(boolean useSnapshots) {
+		fUseIncludePrefixSnapshots = useSnapshots;
+	}
+
 	/**
 	 * Clears the index and rebuild
 	 * @param tus - directories/files to be added to index
@@ -393,11 +461,17 @@ public abstract class StandaloneIndexer {
 
 		try {
 			clearIndex();
-			fDelegate = createTask(getFilesAdded(tus), NO_TUS, NO_TUS);
-			fDelegate.setUpdateFlags(fUpdateOptions);
+			fIncludeResolutionCache.clear();
+			setBulkLoading(true);
+			try {
+				fDelegate = createTask(getFilesAdded(tus), NO_TUS, NO_TUS);
+				fDelegate.setUpdateFlags(fUpdateOptions);
 
-			if (fDelegate != null) {
-				fDelegate.run(monitor);
+				if (fDelegate != null) {
+					fDelegate.run(monitor);
+				}
+			} finally {
+				setBulkLoading(false);
 			}
 		} catch (CoreException e) {
 			e.printStackTrace();
@@ -417,6 +491,11 @@ public abstract class StandaloneIndexer {
 			throws IOException {
 		fProgress = new IndexerProgress();
 
+		// Added and removed files may change which file an include directive resolves to,
+		// changes to the content of files do not.
+		if (!added.isEmpty() || !removed.isEmpty()) {
+			fIncludeResolutionCache.clear();
+		}
 		fDelegate = createTask(getFilesAdded(added), changed, removed);
 		if (fDelegate != null) {
 			try {
@@ -460,6 +539,13 @@ public abstract class StandaloneIndexer {
 		return added;
 	}
 
+	/**
+	 * Returns the cache for the resolution of include directives used by the indexing tasks.
+	 */
+	public IncludeResolutionCache getIncludeResolutionCache() {
+		return fIncludeResolutionCache;
+	}
+
 	/**
 	 * Creates a delegate standalone indexing task
 	 */
@@ -24,6 +24,7 @@ import java.util.Iterator;
 import org.eclipse.cdt.core.dom.ILinkage;
 import org.eclipse.cdt.core.parser.IParserLogService;
 import org.eclipse.cdt.internal.core.index.IWritableIndex;
+import org.eclipse.cdt.internal.core.parser.scanner.IncludeResolutionCache;
 import org.eclipse.cdt.internal.core.pdom.AbstractIndexerTask;
 import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -56,6 +57,8 @@ public abstract class StandaloneIndexerTask extends AbstractIndexerTask {
         setShowActivity(fIndexer.getShowActivity());
         setShowProblems(fIndexer.getShowProblems());
         setSkipReferences(fIndexer.getSkipReferences());
+        setParserThreadCount(fIndexer.getParserThreadCount());
+        setUseIncludePrefixSnapshots(fIndexer.getUseIncludePrefixSnapshots());
         if (getIndexAllFiles()) {
             setIndexFilesWithoutBuildConfiguration(true);
             setIndexHeadersWithoutContext(UnusedHeaderStrategy.useDefaultLanguage);
@@ -106,6 +109,11 @@ public abstract class StandaloneIndexerTask extends AbstractIndexerTask {
         return fIndexer.getIndex();
     }
 
+    @Override
+    protected IncludeResolutionCache getIncludeResolutionCache() {
+        return fIndexer.getIncludeResolutionCache();
+    }
+
     public final void run(IProgressMonitor monitor) throws InterruptedException {
         long start = System.currentTimeMillis();
         runTask(monitor);
@@ -158,6 +166,16 @@ public abstract class StandaloneIndexerTask extends AbstractIndexerTask {
                 " hits, " + misses + "(" + nf.format(missPct) + //$NON-NLS-1$ //$NON-NLS-2$
                 ") misses.");
             }
+            if (fIndexer.getUseIncludePrefixSnapshots()) {
+                trace(//$NON-NLS-1$
+                name + " Snapshots: " + fStatistics.fIncludePrefixSnapshotHits + //$NON-NLS-1$
+                " inclusions, " + fStatistics.fIncludePrefixSnapshotFiles + //$NON-NLS-1$
+                " files reused.");
+            }
+            trace(//$NON-NLS-1$
+            name + " Locks: " + fStatistics.fLockWaitCount + //$NON-NLS-1$
+            " waits, " + fStatistics.fLockWaitTime + //$NON-NLS-1$
+            " ms waiting.");
         }
     }
 
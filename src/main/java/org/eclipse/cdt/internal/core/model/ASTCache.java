@@ -17,6 +17,10 @@
  */
 package org.eclipse.cdt.internal.core.model;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.index.IIndex;
@@ -35,7 +39,9 @@ import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 
 /**
- * Provides a shared AST of a single translation unit at a time.
+ * Provides a shared AST of a single translation unit at a time. In addition the ASTs of other
+ * translation units are kept in a cache whose size is limited by the estimated memory used by
+ * the ASTs, see {@link #SHARED_CACHE_SIZE_PROPERTY}.
  *
  * @since 4.0
  */
@@ -72,10 +78,30 @@ public class ASTCache {
         IStatus runOnAST(ILanguage lang, IASTTranslationUnit ast) throws CoreException;
     }
 
+    /**
+     * System property with the estimated number of bytes that the ASTs of translation units
+     * other than the active one may use, {@code 0} disables caching them.
+     */
+    //$NON-NLS-1$
+    public static final String SHARED_CACHE_SIZE_PROPERTY = "org.eclipse.cdt.core.model.astCacheSize";
+
+    private static final long DEFAULT_SHARED_CACHE_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Rough estimate of the memory used by an AST per character of the source file. Headers are
+     * skipped in the parse mode used by the cache, so the AST is dominated by the source file.
+     */
+    private static final int AST_BYTES_PER_SOURCE_CHAR = 40;
+
     final public int fParseMode;
 
     final public Object fCacheMutex = new Object();
 
+    /**
+     * The cached ASTs of translation units other than the active one.
+     */
+    private final SharedASTs fSharedASTs;
+
     /**
      * The active translation unit for which to cache the AST
      */
@@ -103,6 +129,137 @@ public class ASTCache {
      */
     public ASTCache() {
         fParseMode = PARSE_MODE;
+        fSharedASTs = new SharedASTs(Long.getLong(SHARED_CACHE_SIZE_PROPERTY, DEFAULT_SHARED_CACHE_SIZE));
+    }
+
+    /**
+     * Key of a cached AST, the translation unit and the hash of the content it was parsed from.
+     */
+    private static final class SharedASTKey {
+
+        final ITranslationUnit fTU;
+
+        final int fContentHash;
+
+        final int fContentLength;
+
+        SharedASTKey(ITranslationUnit tUnit, char[] contents) {
+            fTU = tUnit;
+            fContentHash = Arrays.hashCode(contents);
+            fContentLength = contents.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return fTU.hashCode() * 31 + fContentHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SharedASTKey))
+                return false;
+            SharedASTKey other = (SharedASTKey) obj;
+            return fContentHash == other.fContentHash && fContentLength == other.fContentLength && fTU.equals(other.fTU);
+        }
+    }
+
+    private static final class SharedAST {
+
+        final IASTTranslationUnit fAST;
+
+        final long fLastWriteOnIndex;
+
+        final long fWeight;
+
+        SharedAST(IASTTranslationUnit ast, long lastWriteOnIndex, long weight) {
+            fAST = ast;
+            fLastWriteOnIndex = lastWriteOnIndex;
+            fWeight = weight;
+        }
+    }
+
+    /**
+     * Least recently used ASTs of translation units, evicted when their estimated total size
+     * exceeds the limit. An AST is valid as long as the content of the translation unit does not
+     * change and the index is not written to.
+     */
+    private static final class SharedASTs {
+
+        private final long fLimit;
+
+        private final LinkedHashMap<SharedASTKey, SharedAST> fASTs = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long fWeight;
+
+        final AtomicLong fHits = new AtomicLong();
+
+        final AtomicLong fMisses = new AtomicLong();
+
+        final AtomicLong fEvictions = new AtomicLong();
+
+        SharedASTs(long limit) {
+            fLimit = limit;
+        }
+
+        boolean isEnabled() {
+            return fLimit > 0;
+        }
+
+        synchronized IASTTranslationUnit get(SharedASTKey key, IIndex index) {
+            SharedAST entry = fASTs.get(key);
+            if (entry != null) {
+                if (entry.fLastWriteOnIndex >= index.getLastWriteAccess()) {
+                    fHits.incrementAndGet();
+                    return entry.fAST;
+                }
+                // Invalidated by index write access.
+                remove(key);
+            }
+            fMisses.incrementAndGet();
+            return null;
+        }
+
+        synchronized void put(SharedASTKey key, IASTTranslationUnit ast) {
+            long weight = (long) key.fContentLength * AST_BYTES_PER_SOURCE_CHAR;
+            if (weight > fLimit)
+                return;
+            remove(key);
+            fASTs.put(key, new SharedAST(ast, ast.getIndex().getLastWriteAccess(), weight));
+            fWeight += weight;
+            for (Iterator<SharedAST> it = fASTs.values().iterator(); fWeight > fLimit && it.hasNext(); ) {
+                SharedAST eldest = it.next();
+                it.remove();
+                fWeight -= eldest.fWeight;
+                fEvictions.incrementAndGet();
+            }
+        }
+
+        private void remove(SharedASTKey key) {
+            SharedAST old = fASTs.remove(key);
+            if (old != null) {
+                fWeight -= old.fWeight;
+            }
+        }
+
+        synchronized void clear() {
+            fASTs.clear();
+            fWeight = 0;
+        }
+
+        synchronized int size() {
+            return fASTs.size();
+        }
+
+        synchronized long getWeight() {
+            return fWeight;
+        }
+    }
+
+    private SharedASTKey getSharedASTKey(ITranslationUnit tUnit) {
+        if (!fSharedASTs.isEnabled())
+            return null;
+        char[] contents = tUnit.getContents();
+        return contents == null ? null : new SharedASTKey(tUnit, contents);
     }
 
     /**
@@ -122,12 +279,32 @@ public class ASTCache {
     private IASTTranslationUnit getAST(ITranslationUnit tUnit, IIndex index, boolean wait, IProgressMonitor progressMonitor) {
         if (tUnit == null)
             return null;
+        SharedASTKey sharedKey = null;
         while (true) {
             if (progressMonitor != null && progressMonitor.isCanceled())
                 return null;
             final boolean isActiveElement;
             synchronized (fCacheMutex) {
                 isActiveElement = tUnit.equals(fActiveTU);
+            }
+            if (!isActiveElement) {
+                sharedKey = getSharedASTKey(tUnit);
+                if (sharedKey != null) {
+                    IASTTranslationUnit ast = fSharedASTs.get(sharedKey, index);
+                    if (ast != null) {
+                        if (DEBUG)
+                            System.out.println(//$NON-NLS-1$
+                            DEBUG_PREFIX + getThreadName() + "returning shared AST:" + toString(ast) + " for: " + //$NON-NLS-1$
+                            tUnit.getElementName());
+                        return ast;
+                    }
+                }
+            }
+            synchronized (fCacheMutex) {
+                if (isActiveElement != tUnit.equals(fActiveTU)) {
+                    // The active element has changed, try again.
+                    continue;
+                }
                 if (isActiveElement) {
                     if (fAST != null) {
                         // AST is cached
@@ -201,6 +378,8 @@ public class ASTCache {
                         reconciled(fAST, tUnit);
                     } else
                         reconciled(ast, tUnit);
+                } else if (ast != null && sharedKey != null) {
+                    fSharedASTs.put(sharedKey, ast);
                 }
             }
             return ast;
@@ -343,6 +522,51 @@ public class ASTCache {
         }
     }
 
+    /**
+     * Removes the ASTs of translation units other than the active one from the cache.
+     */
+    public void disposeSharedASTs() {
+        fSharedASTs.clear();
+    }
+
+    /**
+     * Returns the number of requests for the AST of a translation unit other than the active one
+     * that were served from the cache.
+     */
+    public long getSharedASTHits() {
+        return fSharedASTs.fHits.get();
+    }
+
+    /**
+     * Returns the number of requests for the AST of a translation unit other than the active one
+     * that were not found in the cache.
+     */
+    public long getSharedASTMisses() {
+        return fSharedASTs.fMisses.get();
+    }
+
+    /**
+     * Returns the number of ASTs removed from the cache to stay within its size limit.
+     */
+    public long getSharedASTEvictions() {
+        return fSharedASTs.fEvictions.get();
+    }
+
+    /**
+     * Returns the number of cached ASTs of translation units other than the active one.
+     */
+    public int getSharedASTCount() {
+        return fSharedASTs.size();
+    }
+
+    /**
+     * Returns the estimated number of bytes used by the cached ASTs of translation units
+     * other than the active one.
+     */
+    public long getSharedASTWeight() {
+        return fSharedASTs.getWeight();
+    }
+
     /**
      * Creates a new translation unit AST.
      *
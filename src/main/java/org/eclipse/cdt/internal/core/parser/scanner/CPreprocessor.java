@@ -85,6 +85,14 @@ import org.osgi.framework.Version;
 public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 	public static final String PROP_VALUE = "CPreprocessor"; //$NON-NLS-1$
 
+	/**
+	 * System property that disables the interning of identifiers in an {@link IdentifierTable},
+	 * e.g. for debugging.
+	 */
+	public static final String DISABLE_IDENTIFIER_INTERNING_PROPERTY = "org.eclipse.cdt.core.parser.disableIdentifierInterning"; //$NON-NLS-1$
+
+	private static final boolean INTERN_IDENTIFIERS = !Boolean.getBoolean(DISABLE_IDENTIFIER_INTERNING_PROPERTY);
+
 	public static final int tDEFINED = IToken.FIRST_RESERVED_PREPROCESSOR;
 	public static final int tEXPANDED_IDENTIFIER = IToken.FIRST_RESERVED_PREPROCESSOR + 1;
 	public static final int tSCOPE_MARKER = IToken.FIRST_RESERVED_PREPROCESSOR + 2;
@@ -271,6 +279,7 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 	final private InternalFileContentProvider fFileContentProvider;
 
 	private final IIncludeFileResolutionHeuristics fIncludeFileResolutionHeuristics;
+	private final IncludeResolutionCache fIncludeResolutionCache;
 	private final ExpressionEvaluator fExpressionEvaluator;
 	private final MacroDefinitionParser fMacroDefinitionParser;
 	private final MacroExpander fMacroExpander;
@@ -342,11 +351,17 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 		fKeywords = new CharArrayIntMap(40, -1);
 		fPPKeywords = new CharArrayIntMap(40, -1);
 		configureKeywords(language, configuration);
+		if (INTERN_IDENTIFIERS) {
+			// Before the macros are defined, the lexers of their definitions intern the names.
+			fLexOptions.fIdentifiers = createIdentifierTable();
+		}
 
 		fExpressionEvaluator = new ExpressionEvaluator(this);
 		fMacroDefinitionParser = new MacroDefinitionParser();
 		fMacroExpander = new MacroExpander(this, fMacroDictionary, fLocationMap, fLexOptions);
+		fMacroExpander.enableMemo();
 		fIncludeFileResolutionHeuristics = fFileContentProvider.getIncludeHeuristics();
+		fIncludeResolutionCache = fFileContentProvider.getIncludeResolutionCache();
 
 		String contextPath = fFileContentProvider.getContextPath();
 		if (contextPath == null) {
@@ -356,14 +371,14 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 		setupMacroDictionary(configuration, info, language);
 
 		if (fMacroDictionary.containsKey(CPP_CHAR8_T)) {
-			fKeywords.put(Keywords.cCHAR8_T, IToken.t_char8_t);
+			addKeyword(Keywords.cCHAR8_T, IToken.t_char8_t);
 		}
 		if (fMacroDictionary.containsKey(CPP_IMPL_THREE_WAY_COMPARISON)) {
 			fLexOptions.fSupportThreeWayComparisonOperator = true;
 		}
 		if (fMacroDictionary.containsKey(CPP_CONCEPTS_T)) {
-			fKeywords.put(Keywords.cCONCEPT, IToken.t_concept);
-			fKeywords.put(Keywords.cREQUIRES, IToken.t_requires);
+			addKeyword(Keywords.cCONCEPT, IToken.t_concept);
+			addKeyword(Keywords.cREQUIRES, IToken.t_requires);
 		}
 
 		ILocationCtx ctx = fLocationMap.pushTranslationUnit(fRootContent.getFileLocation(), fRootContent.getSource());
@@ -453,6 +468,28 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 		return fAdditionalNumericLiteralSuffixes;
 	}
 
+	/**
+	 * Creates the table for the identifiers of this preprocessor, with the keywords as the images
+	 * of these identifiers.
+	 */
+	private IdentifierTable createIdentifierTable() {
+		IdentifierTable identifiers = new IdentifierTable();
+		for (int i = 0; i < fKeywords.size(); i++) {
+			identifiers.intern(fKeywords.keyAt(i));
+		}
+		for (int i = 0; i < fPPKeywords.size(); i++) {
+			identifiers.intern(fPPKeywords.keyAt(i));
+		}
+		return identifiers;
+	}
+
+	private void addKeyword(char[] keyword, int tokenType) {
+		fKeywords.put(keyword, tokenType);
+		if (fLexOptions.fIdentifiers != null) {
+			fLexOptions.fIdentifiers.intern(keyword);
+		}
+	}
+
 	private void configureKeywords(ParserLanguage language, IScannerExtensionConfiguration configuration) {
 		Keywords.addKeywordsPreprocessor(fPPKeywords);
 		if (language == ParserLanguage.C) {
@@ -1388,20 +1425,53 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 			}
 		}
 
-		for (IncludeSearchPathElement path : fIncludeSearchPath.getElements()) {
-			if (searchAfter != null) {
-				if (searchAfter.equals(path)) {
-					searchAfter = null;
+		final IncludeSearchPathElement[] elements = fIncludeSearchPath.getElements();
+		int startIndex = 0;
+		if (searchAfter != null) {
+			startIndex = elements.length;
+			for (int i = 0; i < elements.length; i++) {
+				if (searchAfter.equals(elements[i])) {
+					startIndex = i + 1;
+					break;
+				}
+			}
+		}
+
+		// The outcome of the search is shared with other translation units using the same search path.
+		final IncludeResolutionCache cache = fIncludeResolutionCache;
+		int foundIndex = IncludeResolutionCache.UNKNOWN;
+		if (cache != null) {
+			foundIndex = cache.get(fIncludeSearchPath, includeDirective, quoteInclude, startIndex);
+			if (foundIndex >= 0) {
+				final IncludeSearchPathElement path = elements[foundIndex];
+				reader = tester.checkFile(path.getLocation(includeDirective), false, path);
+				if (reader != null) {
+					return reader;
 				}
-			} else if (quoteInclude || !path.isForQuoteIncludesOnly()) {
-				String fileLocation = path.getLocation(includeDirective);
-				if (fileLocation != null) {
-					reader = tester.checkFile(fileLocation, false, path);
-					if (reader != null) {
-						return reader;
+				foundIndex = IncludeResolutionCache.UNKNOWN;
+			}
+		}
+
+		if (foundIndex == IncludeResolutionCache.UNKNOWN) {
+			for (int i = startIndex; i < elements.length; i++) {
+				final IncludeSearchPathElement path = elements[i];
+				if (quoteInclude || !path.isForQuoteIncludesOnly()) {
+					String fileLocation = path.getLocation(includeDirective);
+					if (fileLocation != null) {
+						reader = tester.checkFile(fileLocation, false, path);
+						if (reader != null) {
+							if (cache != null) {
+								cache.put(fIncludeSearchPath, includeDirective, quoteInclude, startIndex, i);
+							}
+							return reader;
+						}
 					}
 				}
 			}
+			if (cache != null) {
+				cache.put(fIncludeSearchPath, includeDirective, quoteInclude, startIndex,
+						IncludeResolutionCache.NOT_FOUND);
+			}
 		}
 		if (fIncludeFileResolutionHeuristics != null) {
 			String location = fIncludeFileResolutionHeuristics.findInclusion(includeDirective, currentFile);
@@ -1788,7 +1858,7 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 				ILocationCtx ctx = fLocationMap.pushInclusion(poundOffset, nameOffsets[0], nameOffsets[1],
 						condEndOffset, source, path, headerName, userInclude, isHeuristic, fi.isSource());
 				ScannerContext fctx = new ScannerContext(ctx, fCurrentContext,
-						new Lexer(source, fLexOptions, this, this));
+						HeaderTokenCache.getDefault().createLexer(path, source, fLexOptions, this, this));
 				fctx.setFoundOnPath(fi.getFoundOnPath(), includeDirective);
 				detectIncludeGuard(path, source, fctx);
 				fCurrentContext = fctx;
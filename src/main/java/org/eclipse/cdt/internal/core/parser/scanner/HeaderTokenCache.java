@@ -0,0 +1,418 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.parser.scanner;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.cdt.core.parser.IToken;
+import org.eclipse.cdt.internal.core.parser.scanner.Lexer.LexerOptions;
+
+/**
+ * Cache of the preprocessor tokens of header files, shared across translation units. When a
+ * header with unchanged content is included again, its lexer replays the recorded tokens,
+ * comments and problems instead of scanning the characters once more.
+ * <p>
+ * The tokens of a file depend on whether the preprocessor expects a header-name, which in turn
+ * depends on the macros in effect. The recording keeps that state for every token and a
+ * replaying lexer falls back to scanning as soon as the preprocessor deviates from it. Hence
+ * one recording per content serves all versions of a header, whatever its significant macros.
+ * <p>
+ * The tokens are packed into int arrays. The size of the cache is limited by the system property
+ * {@value #SIZE_PROPERTY} in megabytes, 0 disables the cache.
+ */
+public final class HeaderTokenCache {
+	//$NON-NLS-1$
+	public static final String SIZE_PROPERTY = "org.eclipse.cdt.core.parser.headerTokenCacheSize";
+	private static final long DEFAULT_SIZE_MB = 32;
+
+	private static final HeaderTokenCache DEFAULT = new HeaderTokenCache(
+			Long.getLong(SIZE_PROPERTY, DEFAULT_SIZE_MB) * 1024 * 1024);
+
+	private static final class Key {
+		final String fPath;
+		final long fContentsHash;
+		final int fLength;
+		final int fOptions;
+
+		Key(String path, long contentsHash, int length, int options) {
+			fPath = path;
+			fContentsHash = contentsHash;
+			fLength = length;
+			fOptions = options;
+		}
+
+		@Override
+		public int hashCode() {
+			return fPath.hashCode() * 31 + Long.hashCode(fContentsHash);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return fContentsHash == other.fContentsHash && fLength == other.fLength && fOptions == other.fOptions
+					&& fPath.equals(other.fPath);
+		}
+	}
+
+	/**
+	 * The recorded tokens of a file, immutable once it has been recorded.
+	 */
+	static final class TokenStream {
+		// Per token: kind, offset, end offset, offset to resume scanning at and flags.
+		static final int TOKEN_INTS = 5;
+		static final int INSIDE_INCLUDE_DIRECTIVE = 0x1;
+		static final int DIGRAPH = 0x2;
+		static final int IMAGE = 0x4;
+		// The image differs from the input, the upper bits hold its index.
+		static final int STORED_IMAGE = 0x8;
+		static final int IMAGE_INDEX_SHIFT = 4;
+
+		// Per event: index of the token it precedes, problem id or comment kind, offset and end offset.
+		static final int EVENT_INTS = 4;
+		static final int BLOCK_COMMENT = -1;
+		static final int LINE_COMMENT = -2;
+
+		private final HeaderTokenCache fCache;
+		private final int[] fTokens;
+		private final int fTokenCount;
+		private final char[][] fImages;
+		private final int[] fEvents;
+		private final int fEventCount;
+		private final char[][] fProblemInfos;
+
+		TokenStream(HeaderTokenCache cache, int[] tokens, int tokenCount, char[][] images, int[] events,
+				int eventCount, char[][] problemInfos) {
+			fCache = cache;
+			fTokens = tokens;
+			fTokenCount = tokenCount;
+			fImages = images;
+			fEvents = events;
+			fEventCount = eventCount;
+			fProblemInfos = problemInfos;
+		}
+
+		int getTokenCount() {
+			return fTokenCount;
+		}
+
+		boolean isInsideIncludeDirective(int idx) {
+			return (fTokens[idx * TOKEN_INTS + 4] & INSIDE_INCLUDE_DIRECTIVE) != 0;
+		}
+
+		int getResumeOffset(int idx) {
+			return fTokens[idx * TOKEN_INTS + 3];
+		}
+
+		Token createToken(int idx, Object source, AbstractCharArray input, IdentifierTable identifiers) {
+			final int i = idx * TOKEN_INTS;
+			final int kind = fTokens[i];
+			final int offset = fTokens[i + 1];
+			final int endOffset = fTokens[i + 2];
+			final int flags = fTokens[i + 4];
+			if ((flags & STORED_IMAGE) != 0)
+				return new TokenWithImage(kind, source, offset, endOffset, fImages[flags >>> IMAGE_INDEX_SHIFT].clone());
+			if ((flags & IMAGE) != 0) {
+				if (kind == IToken.tIDENTIFIER && identifiers != null)
+					return new TokenWithImage(kind, source, offset, endOffset,
+							identifiers.intern(input, offset, endOffset - offset));
+				final char[] image = new char[endOffset - offset];
+				input.arraycopy(offset, image, 0, image.length);
+				return new TokenWithImage(kind, source, offset, endOffset, image);
+			}
+			if ((flags & DIGRAPH) != 0)
+				return new TokenForDigraph(kind, source, offset, endOffset);
+			return new Token(kind, source, offset, endOffset);
+		}
+
+		/**
+		 * Reports the comments and problems that have been found before the token with the given index.
+		 */
+		void replayEvents(int idx, ILexerLog log, AbstractCharArray input) {
+			// Events are few, a linear search is good enough.
+			for (int e = 0; e < fEventCount; e++) {
+				final int i = e * EVENT_INTS;
+				final int tokenIdx = fEvents[i];
+				if (tokenIdx > idx)
+					break;
+				if (tokenIdx < idx)
+					continue;
+				final int kind = fEvents[i + 1];
+				if (kind == BLOCK_COMMENT || kind == LINE_COMMENT) {
+					log.handleComment(kind == BLOCK_COMMENT, fEvents[i + 2], fEvents[i + 3], input);
+				} else {
+					log.handleProblem(kind, fProblemInfos[e], fEvents[i + 2], fEvents[i + 3]);
+				}
+			}
+		}
+
+		/**
+		 * Called when a replaying lexer has to continue by scanning.
+		 */
+		void divergent() {
+			fCache.divergent();
+		}
+
+		long getMemorySize() {
+			long size = 64 + fTokenCount * TOKEN_INTS * 4L + fEventCount * EVENT_INTS * 4L;
+			for (char[] image : fImages) {
+				size += 16 + image.length * 2L;
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * Records the tokens of a lexer together with the comments and problems it reports,
+	 * and passes on the comments and problems to the original log.
+	 */
+	static final class Recorder implements ILexerLog {
+		private final HeaderTokenCache fCache;
+		private final Key fKey;
+		private final ILexerLog fDelegate;
+		private int[] fTokens = new int[TokenStream.TOKEN_INTS * 256];
+		private int fTokenCount;
+		private final List<char[]> fImages = new ArrayList<>();
+		private int[] fEvents = new int[TokenStream.EVENT_INTS * 16];
+		private int fEventCount;
+		private final List<char[]> fProblemInfos = new ArrayList<>();
+
+		Recorder(HeaderTokenCache cache, Key key, ILexerLog delegate) {
+			fCache = cache;
+			fKey = key;
+			fDelegate = delegate;
+		}
+
+		void addToken(Token t, boolean insideIncludeDirective, int resumeOffset) {
+			int flags = insideIncludeDirective ? TokenStream.INSIDE_INCLUDE_DIRECTIVE : 0;
+			if (t instanceof TokenWithImage) {
+				final char[] image = t.getCharImage();
+				if (image.length == t.getLength()) {
+					flags |= TokenStream.IMAGE;
+				} else {
+					// trigraphs or line-splices
+					flags |= TokenStream.STORED_IMAGE | (fImages.size() << TokenStream.IMAGE_INDEX_SHIFT);
+					fImages.add(image);
+				}
+			} else if (t instanceof TokenForDigraph) {
+				flags |= TokenStream.DIGRAPH;
+			}
+			int i = fTokenCount * TokenStream.TOKEN_INTS;
+			if (i == fTokens.length) {
+				int[] newTokens = new int[fTokens.length * 2];
+				System.arraycopy(fTokens, 0, newTokens, 0, i);
+				fTokens = newTokens;
+			}
+			fTokens[i] = t.getType();
+			fTokens[i + 1] = t.getOffset();
+			fTokens[i + 2] = t.getEndOffset();
+			fTokens[i + 3] = resumeOffset;
+			fTokens[i + 4] = flags;
+			fTokenCount++;
+		}
+
+		int getTokenCount() {
+			return fTokenCount;
+		}
+
+		/**
+		 * Discards the tokens from the given index on, the lexer is about to scan them again.
+		 */
+		void truncate(int tokenCount) {
+			for (int idx = tokenCount; idx < fTokenCount; idx++) {
+				final int flags = fTokens[idx * TokenStream.TOKEN_INTS + 4];
+				if ((flags & TokenStream.STORED_IMAGE) != 0) {
+					fImages.subList(flags >>> TokenStream.IMAGE_INDEX_SHIFT, fImages.size()).clear();
+					break;
+				}
+			}
+			fTokenCount = Math.min(fTokenCount, tokenCount);
+			while (fEventCount > 0 && fEvents[(fEventCount - 1) * TokenStream.EVENT_INTS] >= tokenCount) {
+				fEventCount--;
+				fProblemInfos.remove(fEventCount);
+			}
+		}
+
+		/**
+		 * Called when the end of input has been reached.
+		 */
+		void finish() {
+			fCache.put(fKey, new TokenStream(fCache, fTokens, fTokenCount, fImages.toArray(new char[fImages.size()][]),
+					fEvents, fEventCount, fProblemInfos.toArray(new char[fProblemInfos.size()][])));
+		}
+
+		private void addEvent(int kind, int offset, int endOffset, char[] info) {
+			int i = fEventCount * TokenStream.EVENT_INTS;
+			if (i == fEvents.length) {
+				int[] newEvents = new int[fEvents.length * 2];
+				System.arraycopy(fEvents, 0, newEvents, 0, i);
+				fEvents = newEvents;
+			}
+			fEvents[i] = fTokenCount;
+			fEvents[i + 1] = kind;
+			fEvents[i + 2] = offset;
+			fEvents[i + 3] = endOffset;
+			fProblemInfos.add(info);
+			fEventCount++;
+		}
+
+		@Override
+		public void handleProblem(int problemID, char[] info, int offset, int endOffset) {
+			addEvent(problemID, offset, endOffset, info);
+			fDelegate.handleProblem(problemID, info, offset, endOffset);
+		}
+
+		@Override
+		public void handleComment(boolean isBlockComment, int offset, int endOffset, AbstractCharArray input) {
+			addEvent(isBlockComment ? TokenStream.BLOCK_COMMENT : TokenStream.LINE_COMMENT, offset, endOffset, null);
+			fDelegate.handleComment(isBlockComment, offset, endOffset, input);
+		}
+	}
+
+	private final long fMaxSize;
+	private final Map<Key, TokenStream> fStreams = new LinkedHashMap<>(16, 0.75f, true);
+	private long fSize;
+	private long fHits;
+	private long fMisses;
+	private long fDivergences;
+	private long fEvictions;
+
+	public static HeaderTokenCache getDefault() {
+		return DEFAULT;
+	}
+
+	public HeaderTokenCache(long maxSize) {
+		fMaxSize = maxSize;
+	}
+
+	/**
+	 * Creates the lexer for the given contents of a header file. The lexer replays the tokens
+	 * recorded for the same contents, or records its tokens for later inclusions.
+	 */
+	public Lexer createLexer(String path, AbstractCharArray input, LexerOptions options, ILexerLog log,
+			Object source) {
+		if (fMaxSize <= 0 || path == null)
+			return new Lexer(input, options, log, source);
+		final long contentsHash = input.getContentsHash();
+		if (input.hasError())
+			return new Lexer(input, options, log, source);
+		Key key = new Key(path, contentsHash, input.getLength(), getOptionsKey(options));
+		TokenStream tokens = get(key);
+		if (tokens != null) {
+			Lexer lexer = new Lexer(input, options, log, source);
+			lexer.startReplay(tokens);
+			return lexer;
+		}
+		Recorder recorder = new Recorder(this, key, log);
+		Lexer lexer = new Lexer(input, options, recorder, source);
+		lexer.startRecording(recorder);
+		return lexer;
+	}
+
+	private static int getOptionsKey(LexerOptions options) {
+		int key = 0;
+		if (options.fSupportDollarInIdentifiers)
+			key |= 0x1;
+		if (options.fSupportAtSignInIdentifiers)
+			key |= 0x2;
+		if (options.fSupportMinAndMax)
+			key |= 0x4;
+		if (options.fCreateImageLocations)
+			key |= 0x8;
+		if (options.fSupportSlashPercentComments)
+			key |= 0x10;
+		if (options.fSupportUTFLiterals)
+			key |= 0x20;
+		if (options.fSupportRawStringLiterals)
+			key |= 0x40;
+		if (options.fSupportUserDefinedLiterals)
+			key |= 0x80;
+		if (options.fSupportDigitSeparators)
+			key |= 0x100;
+		if (options.fSupportThreeWayComparisonOperator)
+			key |= 0x200;
+		return key;
+	}
+
+	private synchronized TokenStream get(Key key) {
+		TokenStream tokens = fStreams.get(key);
+		if (tokens != null) {
+			fHits++;
+		} else {
+			fMisses++;
+		}
+		return tokens;
+	}
+
+	private synchronized void put(Key key, TokenStream tokens) {
+		final long size = tokens.getMemorySize();
+		if (size > fMaxSize / 4)
+			return;
+		TokenStream old = fStreams.put(key, tokens);
+		if (old != null)
+			fSize -= old.getMemorySize();
+		fSize += size;
+		for (Iterator<TokenStream> it = fStreams.values().iterator(); fSize > fMaxSize && it.hasNext();) {
+			fSize -= it.next().getMemorySize();
+			it.remove();
+			fEvictions++;
+		}
+	}
+
+	private synchronized void divergent() {
+		fDivergences++;
+	}
+
+	/**
+	 * Removes all recorded tokens, the statistics are kept.
+	 */
+	public synchronized void clear() {
+		fStreams.clear();
+		fSize = 0;
+	}
+
+	public synchronized long getHits() {
+		return fHits;
+	}
+
+	public synchronized long getMisses() {
+		return fMisses;
+	}
+
+	/**
+	 * Returns how often a replay had to continue by scanning, because the preprocessor
+	 * deviated from the recording.
+	 */
+	public synchronized long getDivergences() {
+		return fDivergences;
+	}
+
+	public synchronized long getEvictions() {
+		return fEvictions;
+	}
+
+	public synchronized long getMemorySize() {
+		return fSize;
+	}
+
+	@Override
+	public synchronized String toString() {
+		//$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		return "HeaderTokenCache: " + fStreams.size() + " files, " + fSize / 1024 + "kB, " + fHits + " hits, "
+		//$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ fMisses + " misses, " + fDivergences + " divergences, " + fEvictions + " evictions";
+	}
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.parser.scanner;
+
+import org.eclipse.cdt.core.parser.util.CharArrayUtils;
+
+/**
+ * Symbol table for the images of identifiers, shared by the lexers of one preprocessor.
+ * Every distinct identifier is copied out of the input once, all of its tokens share that
+ * array. Maps keyed by character arrays, like the macro dictionary, the keyword tables and the
+ * bindings of scopes, then find equal keys by identity, see
+ * {@link CharArrayUtils#equals(char[], int, int, char[])}.
+ * <p>
+ * The hash of each image is kept in the table, probes compare the hashes before the characters.
+ * The table is not thread-safe, it is used by the thread running the preprocessor.
+ */
+public final class IdentifierTable {
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private char[][] fImages;
+	private int[] fHashes;
+	private int fSize;
+
+	public IdentifierTable() {
+		fImages = new char[INITIAL_CAPACITY][];
+		fHashes = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Makes the given array the image of the identifier it contains, unless the table has
+	 * one already. Used for keywords, such that keyword lookups find them by identity.
+	 * @return the image of the identifier.
+	 */
+	public char[] intern(char[] image) {
+		final int hash = CharArrayUtils.hash(image);
+		final int mask = fImages.length - 1;
+		int i = spread(hash) & mask;
+		char[] candidate;
+		while ((candidate = fImages[i]) != null) {
+			if (fHashes[i] == hash && CharArrayUtils.equals(image, candidate))
+				return candidate;
+			i = (i + 1) & mask;
+		}
+		add(i, image, hash);
+		return image;
+	}
+
+	/**
+	 * Returns the image of the identifier found at the given offset of the input, copying it
+	 * into a new array only when it is not in the table, yet.
+	 */
+	public char[] intern(AbstractCharArray input, int offset, int length) {
+		int hash = 0;
+		for (int j = offset; j < offset + length; j++) {
+			hash = 31 * hash + input.get(j);
+		}
+		final int mask = fImages.length - 1;
+		int i = spread(hash) & mask;
+		char[] candidate;
+		while ((candidate = fImages[i]) != null) {
+			if (fHashes[i] == hash && matches(candidate, input, offset, length))
+				return candidate;
+			i = (i + 1) & mask;
+		}
+		final char[] image = new char[length];
+		input.arraycopy(offset, image, 0, length);
+		add(i, image, hash);
+		return image;
+	}
+
+	public int size() {
+		return fSize;
+	}
+
+	// The table size is a power of two, mix the high bits of the hash into the index.
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean matches(char[] candidate, AbstractCharArray input, int offset, int length) {
+		if (candidate.length != length)
+			return false;
+		for (int j = 0; j < length; j++) {
+			if (candidate[j] != input.get(offset + j))
+				return false;
+		}
+		return true;
+	}
+
+	private void add(int i, char[] image, int hash) {
+		fImages[i] = image;
+		fHashes[i] = hash;
+		// Keep the load factor at or below one half.
+		if (++fSize * 2 > fImages.length) {
+			rehash();
+		}
+	}
+
+	private void rehash() {
+		final char[][] images = fImages;
+		final int[] hashes = fHashes;
+		fImages = new char[images.length * 2][];
+		fHashes = new int[images.length * 2];
+		final int mask = fImages.length - 1;
+		for (int j = 0; j < images.length; j++) {
+			if (images[j] != null) {
+				int i = spread(hashes[j]) & mask;
+				while (fImages[i] != null) {
+					i = (i + 1) & mask;
+				}
+				fImages[i] = images[j];
+				fHashes[i] = hashes[j];
+			}
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.parser.scanner;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the outcome of searching the include search path for an include directive, shared
+ * by the translation units of an indexer run. For a search path, a directive, the kind of the
+ * include and the element the search starts with, it stores the index of the element the file
+ * was found on, or that the file exists on none of the elements.
+ * <p>
+ * The lookup in the directory of the current file and the heuristic resolution are not cached.
+ * A cached element is verified by checking the single file it denotes, a cached miss is trusted
+ * until the cache is cleared. Hence the cache has to be cleared whenever files are added to or
+ * removed from the file system.
+ * <p>
+ * The number of entries is limited by the system property {@value #LIMIT_PROPERTY}.
+ */
+public final class IncludeResolutionCache {
+	//$NON-NLS-1$
+	public static final String LIMIT_PROPERTY = "org.eclipse.cdt.core.parser.includeResolutionCacheLimit";
+	private static final int DEFAULT_LIMIT = 200000;
+
+	/** The result for a directive that is not cached */
+	public static final int UNKNOWN = -2;
+	/** The result for a directive that cannot be found on the include search path */
+	public static final int NOT_FOUND = -1;
+
+	private static final class Key {
+		final IncludeSearchPath fSearchPath;
+		final String fDirective;
+		final boolean fQuoteInclude;
+		final int fStartIndex;
+
+		Key(IncludeSearchPath searchPath, String directive, boolean quoteInclude, int startIndex) {
+			fSearchPath = searchPath;
+			fDirective = directive;
+			fQuoteInclude = quoteInclude;
+			fStartIndex = startIndex;
+		}
+
+		@Override
+		public int hashCode() {
+			return (fSearchPath.hashCode() * 31 + fDirective.hashCode()) * 31 + fStartIndex * 2
+					+ (fQuoteInclude ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return fStartIndex == other.fStartIndex && fQuoteInclude == other.fQuoteInclude
+					&& fDirective.equals(other.fDirective) && fSearchPath.equals(other.fSearchPath);
+		}
+	}
+
+	private final int fLimit;
+	private final Map<Key, Integer> fResults = new ConcurrentHashMap<>();
+	private final AtomicLong fHits = new AtomicLong();
+	private final AtomicLong fMisses = new AtomicLong();
+
+	public IncludeResolutionCache() {
+		this(Integer.getInteger(LIMIT_PROPERTY, DEFAULT_LIMIT));
+	}
+
+	public IncludeResolutionCache(int limit) {
+		fLimit = limit;
+	}
+
+	/**
+	 * Returns the index of the element of the search path the directive was found on,
+	 * {@link #NOT_FOUND} or {@link #UNKNOWN}.
+	 * @param startIndex the index of the first element searched, non-zero for include_next.
+	 */
+	public int get(IncludeSearchPath searchPath, String directive, boolean quoteInclude, int startIndex) {
+		Integer result = fResults.get(new Key(searchPath, directive, quoteInclude, startIndex));
+		if (result == null) {
+			fMisses.incrementAndGet();
+			return UNKNOWN;
+		}
+		fHits.incrementAndGet();
+		return result.intValue();
+	}
+
+	/**
+	 * Stores the index of the element of the search path the directive was found on,
+	 * or {@link #NOT_FOUND}.
+	 */
+	public void put(IncludeSearchPath searchPath, String directive, boolean quoteInclude, int startIndex,
+			int foundIndex) {
+		if (fLimit <= 0)
+			return;
+		if (fResults.size() >= fLimit) {
+			// Directives are not used in any particular order, just start over.
+			fResults.clear();
+		}
+		fResults.put(new Key(searchPath, directive, quoteInclude, startIndex), foundIndex);
+	}
+
+	/**
+	 * Removes all results, the statistics are kept.
+	 */
+	public void clear() {
+		fResults.clear();
+	}
+
+	public long getHits() {
+		return fHits.get();
+	}
+
+	public long getMisses() {
+		return fMisses.get();
+	}
+
+	@Override
+	public String toString() {
+		//$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return "IncludeResolutionCache: " + fResults.size() + " entries, " + fHits + " hits, " + fMisses
+		//$NON-NLS-1$
+				+ " misses";
+	}
+}
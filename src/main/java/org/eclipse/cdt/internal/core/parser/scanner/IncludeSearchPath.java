@@ -26,6 +26,8 @@ public final class IncludeSearchPath {
 
     final public IncludeSearchPathElement[] fElements;
 
+    private int fHashCode;
+
     IncludeSearchPath(List<IncludeSearchPathElement> elements, boolean inhibitUseOfCurrentFileDirectory) {
         fElements = elements.toArray(new IncludeSearchPathElement[elements.size()]);
         fInhibitUseOfCurrentFileDirectory = inhibitUseOfCurrentFileDirectory;
@@ -44,4 +46,39 @@ public final class IncludeSearchPath {
     public boolean isInhibitUseOfCurrentFileDirectory() {
         return fInhibitUseOfCurrentFileDirectory;
     }
+
+    /**
+     * Two include search paths are equal when they search the same directories
+     * for the same kinds of includes.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this)
+            return true;
+        if (!(obj instanceof IncludeSearchPath))
+            return false;
+        IncludeSearchPath other = (IncludeSearchPath) obj;
+        if (fInhibitUseOfCurrentFileDirectory != other.fInhibitUseOfCurrentFileDirectory || fElements.length != other.fElements.length || hashCode() != other.hashCode())
+            return false;
+        for (int i = 0; i < fElements.length; i++) {
+            IncludeSearchPathElement e1 = fElements[i];
+            IncludeSearchPathElement e2 = other.fElements[i];
+            if (e1.isForQuoteIncludesOnly() != e2.isForQuoteIncludesOnly() || !e1.fPath.equals(e2.fPath))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = fHashCode;
+        if (hash == 0) {
+            hash = fInhibitUseOfCurrentFileDirectory ? 1 : 0;
+            for (IncludeSearchPathElement element : fElements) {
+                hash = hash * 31 + element.fPath.hashCode() * 2 + (element.isForQuoteIncludesOnly() ? 1 : 0);
+            }
+            fHashCode = hash;
+        }
+        return hash;
+    }
 }
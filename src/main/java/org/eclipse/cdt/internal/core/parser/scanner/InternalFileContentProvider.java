@@ -57,6 +57,8 @@ public abstract class InternalFileContentProvider extends IncludeFileContentProv
 
     public IIncludeFileResolutionHeuristics fIncludeResolutionHeuristics;
 
+    public IncludeResolutionCache fIncludeResolutionCache;
+
     final public Map<String, IFileNomination> fPragmaOnce = new HashMap<>();
 
     final public Map<String, List<ISignificantMacros>> fLoadedVersions = new HashMap<>();
@@ -137,6 +139,18 @@ public abstract class InternalFileContentProvider extends IncludeFileContentProv
         fIncludeResolutionHeuristics = heuristics;
     }
 
+    /**
+     * Returns the cache for searching the include search path, shared with the providers of
+     * other translation units, or {@code null} if the search shall not be cached.
+     */
+    public final IncludeResolutionCache getIncludeResolutionCache() {
+        return fIncludeResolutionCache;
+    }
+
+    public final void setIncludeResolutionCache(IncludeResolutionCache cache) {
+        fIncludeResolutionCache = cache;
+    }
+
     public List<ISignificantMacros> getLoadedVersions(String path) {
         List<ISignificantMacros> result = fLoadedVersions.get(path);
         return result == null ? Collections.<ISignificantMacros>emptyList() : result;
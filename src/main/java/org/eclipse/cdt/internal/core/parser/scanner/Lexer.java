@@ -65,6 +65,11 @@ final public class Lexer implements ITokenSequence {
 		public boolean fSupportDigitSeparators = false;
 		public boolean fSupportThreeWayComparisonOperator = false;
 		public IncludeExportPatterns fIncludeExportPatterns;
+		/**
+		 * The table interning the images of identifiers, or {@code null} to copy every image.
+		 * Clones of the options share the table.
+		 */
+		public IdentifierTable fIdentifiers;
 
 		@Override
 		public Object clone() {
@@ -112,6 +117,14 @@ final public class Lexer implements ITokenSequence {
 	private Token fMarkToken;
 	private Token fMarkLastToken;
 
+	// Tokens replayed from or recorded for the HeaderTokenCache.
+	private HeaderTokenCache.TokenStream fReplay;
+	private int fReplayIndex;
+	private HeaderTokenCache.Recorder fRecorder;
+	private HeaderTokenCache.TokenStream fMarkReplay;
+	private int fMarkReplayIndex;
+	private int fMarkRecordedTokens;
+
 	public Lexer(char[] input, LexerOptions options, ILexerLog log, Object source) {
 		this(new CharArray(input), 0, input.length, options, log, source);
 	}
@@ -150,6 +163,8 @@ final public class Lexer implements ITokenSequence {
 	 */
 	public void setContentAssistMode(int offset) {
 		fSupportContentAssist = true;
+		fReplay = null;
+		fRecorder = null;
 		if (isValidOffset(offset)) {
 			fLimit = offset;
 		}
@@ -261,10 +276,74 @@ final public class Lexer implements ITokenSequence {
 		return fToken = t1;
 	}
 
+	/**
+	 * Makes the lexer return the given tokens instead of scanning the input, as long as
+	 * the preprocessor uses the tokens the same way as during their recording.
+	 */
+	void startReplay(HeaderTokenCache.TokenStream tokens) {
+		fReplay = tokens;
+		fReplayIndex = 0;
+	}
+
+	/**
+	 * Makes the lexer record its tokens until the end of input is reached.
+	 */
+	void startRecording(HeaderTokenCache.Recorder recorder) {
+		fRecorder = recorder;
+	}
+
 	/**
 	 * Computes the next token.
 	 */
 	private Token fetchToken() throws OffsetLimitReachedException {
+		if (fReplay != null) {
+			Token t = replayToken();
+			if (t != null)
+				return t;
+		}
+		if (fRecorder != null) {
+			final boolean insideIncludeDirective = fInsideIncludeDirective;
+			Token t = scanToken();
+			fRecorder.addToken(t, insideIncludeDirective, fOffset);
+			if (t.getType() == IToken.tEND_OF_INPUT) {
+				fRecorder.finish();
+				fRecorder = null;
+			}
+			return t;
+		}
+		return scanToken();
+	}
+
+	/**
+	 * Returns the next recorded token, or {@code null} if the lexer has to continue by scanning.
+	 */
+	private Token replayToken() {
+		final HeaderTokenCache.TokenStream tokens = fReplay;
+		final int idx = fReplayIndex;
+		if (idx == tokens.getTokenCount()) {
+			// Repeated request for the end of input.
+			return tokens.createToken(idx - 1, fSource, fInput, fOptions.fIdentifiers);
+		}
+		if (tokens.isInsideIncludeDirective(idx) != fInsideIncludeDirective) {
+			// The preprocessor takes another path than during the recording.
+			tokens.divergent();
+			fReplay = null;
+			fEndOffset = idx == 0 ? fStart : tokens.getResumeOffset(idx - 1);
+			nextCharPhase3();
+			return null;
+		}
+		tokens.replayEvents(idx, fLog, fInput);
+		fReplayIndex++;
+		final Token t = tokens.createToken(idx, fSource, fInput, fOptions.fIdentifiers);
+		if (t.getType() == tNEWLINE)
+			fInsideIncludeDirective = false;
+		return t;
+	}
+
+	/**
+	 * Scans the input for the next token.
+	 */
+	private Token scanToken() throws OffsetLimitReachedException {
 		while (true) {
 			final int start = fOffset;
 			final int c = fCharPhase3;
@@ -741,6 +820,18 @@ final public class Lexer implements ITokenSequence {
 		return new TokenWithImage(kind, fSource, offset, endOffset, image);
 	}
 
+	private Token newIdentifierToken(final int offset, final int imageLength) {
+		final int endOffset = fOffset;
+		final IdentifierTable identifiers = fOptions.fIdentifiers;
+		char[] image;
+		if (endOffset - offset != imageLength) {
+			image = identifiers.intern(getCharImage(offset, endOffset, imageLength));
+		} else {
+			image = identifiers.intern(fInput, offset, imageLength);
+		}
+		return new TokenWithImage(IToken.tIDENTIFIER, fSource, offset, endOffset, image);
+	}
+
 	private void handleProblem(int problemID, char[] arg, int offset) {
 		fLog.handleProblem(problemID, arg, offset, fOffset);
 	}
@@ -1118,6 +1209,8 @@ final public class Lexer implements ITokenSequence {
 			c = nextCharPhase3();
 		}
 
+		if (tokenKind == IToken.tIDENTIFIER && fOptions.fIdentifiers != null)
+			return newIdentifierToken(start, length);
 		return newToken(tokenKind, start, length);
 	}
 
@@ -1476,6 +1569,10 @@ final public class Lexer implements ITokenSequence {
 		fMarkInsideIncludeDirective = fInsideIncludeDirective;
 		fMarkToken = fToken;
 		fMarkLastToken = fLastToken;
+		fMarkReplay = fReplay;
+		fMarkReplayIndex = fReplayIndex;
+		if (fRecorder != null)
+			fMarkRecordedTokens = fRecorder.getTokenCount();
 	}
 
 	public void restoreState() {
@@ -1485,5 +1582,9 @@ final public class Lexer implements ITokenSequence {
 		fInsideIncludeDirective = fMarkInsideIncludeDirective;
 		fToken = fMarkToken;
 		fLastToken = fMarkLastToken;
+		fReplay = fMarkReplay;
+		fReplayIndex = fMarkReplayIndex;
+		if (fRecorder != null)
+			fRecorder.truncate(fMarkRecordedTokens);
 	}
 }
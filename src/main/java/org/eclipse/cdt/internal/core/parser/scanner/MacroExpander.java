@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.parser.IProblem;
 import org.eclipse.cdt.core.parser.IToken;
@@ -95,6 +97,7 @@ public class MacroExpander {
         public Token fetchFirst() throws OffsetLimitReachedException {
             Token t = removeFirst();
             if (t == null && fLexer != null) {
+                cannotMemoize();
                 t = fLexer.currentToken();
                 if (t.getType() != IToken.tEND_OF_INPUT) {
                     fEndOffset = t.getEndOffset();
@@ -121,6 +124,7 @@ public class MacroExpander {
                 t = (Token) t.getNext();
             }
             if (fLexer != null) {
+                cannotMemoize();
                 t = fLexer.currentToken();
                 while (t.getType() == Lexer.tNEWLINE) {
                     t = fLexer.nextToken();
@@ -131,6 +135,101 @@ public class MacroExpander {
         }
     }
 
+    /**
+     * Identifies a macro expansion by the macro and the tokens of its arguments, including their
+     * positions relative to the name of the macro.
+     */
+    private static final class MemoKey {
+
+        private final PreprocessorMacro fMacro;
+
+        private final int fOptions;
+
+        private final int[] fLayout;
+
+        private final char[][] fImages;
+
+        private final int fHash;
+
+        MemoKey(PreprocessorMacro macro, int options, Token identifier, TokenList arguments) {
+            int count = 0;
+            for (Token t = arguments.first(); t != null; t = (Token) t.getNext()) {
+                count++;
+            }
+            final int offset = identifier.getOffset();
+            fMacro = macro;
+            fOptions = options;
+            fLayout = new int[count * 3];
+            fImages = new char[count][];
+            int i = 0;
+            for (Token t = arguments.first(); t != null; t = (Token) t.getNext(), i++) {
+                fLayout[3 * i] = t.getType();
+                fLayout[3 * i + 1] = t.getOffset() - offset;
+                fLayout[3 * i + 2] = t.getEndOffset() - offset;
+                fImages[i] = t.getCharImage();
+            }
+            fHash = (System.identityHashCode(macro) * 31 + Arrays.hashCode(fLayout)) * 31 + Arrays.deepHashCode(fImages);
+        }
+
+        @Override
+        public int hashCode() {
+            return fHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof MemoKey))
+                return false;
+            MemoKey other = (MemoKey) obj;
+            return fMacro == other.fMacro && fOptions == other.fOptions && fHash == other.fHash && Arrays.equals(fLayout, other.fLayout) && Arrays.deepEquals(fImages, other.fImages);
+        }
+    }
+
+    /**
+     * The result of a macro expansion together with everything needed to replay it.
+     */
+    private static final class MemoEntry {
+
+        // The names looked up in the macro dictionary and the macros found for them.
+        final ArrayList<char[]> fLookupNames = new ArrayList<>();
+
+        final ArrayList<PreprocessorMacro> fLookupResults = new ArrayList<>();
+
+        // Macros or names of undefined macros reported as significant.
+        final ArrayList<Object> fSignificantMacros = new ArrayList<>();
+
+        final ArrayList<PreprocessorMacro> fImplicitMacros = new ArrayList<>();
+
+        final ArrayList<ImageLocationInfo> fImplicitMacroInfos = new ArrayList<>();
+
+        ImageLocationInfo[] fImageLocationInfos;
+
+        // Sequence number of the expanded name, if image locations refer to the arguments.
+        int fSequenceNumber = -1;
+
+        TokenList fResult;
+
+        boolean isValid(CharArrayMap<PreprocessorMacro> dictionary) {
+            for (int i = 0; i < fLookupNames.size(); i++) {
+                if (dictionary.get(fLookupNames.get(i)) != fLookupResults.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * System property with the number of macro expansions remembered per preprocessor,
+     * 0 disables the reuse of expansions.
+     */
+    //$NON-NLS-1$
+    public static final String MEMO_SIZE_PROPERTY = "org.eclipse.cdt.core.parser.macroExpansionMemoSize";
+
+    private static final int MEMO_SIZE = Integer.getInteger(MEMO_SIZE_PROPERTY, 512);
+
+    private static final int MAX_MEMO_RESULT_LENGTH = 10000;
+
     final public ILexerLog fLog;
 
     final public MacroDefinitionParser fDefinitionParser;
@@ -162,6 +261,13 @@ public class MacroExpander {
 
     private boolean fReportUndefined;
 
+    private Map<MemoKey, MemoEntry> fMemo;
+
+    // The entry recorded for the current expansion, or null.
+    private MemoEntry fRecording;
+
+    private long fMemoHits;
+
     public MacroExpander(ILexerLog log, CharArrayMap<PreprocessorMacro> macroDictionary, LocationMap locationMap, LexerOptions lexOptions) {
         fDictionary = macroDictionary;
         fLocationMap = locationMap;
@@ -170,6 +276,30 @@ public class MacroExpander {
         fLog = log;
     }
 
+    /**
+     * Makes the expander remember the results of expansions, such that an expansion of the same
+     * macro with the same arguments is not computed again as long as the macros involved are
+     * unchanged.
+     */
+    void enableMemo() {
+        if (MEMO_SIZE > 0 && fMemo == null) {
+            fMemo = new LinkedHashMap<MemoKey, MemoEntry>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<MemoKey, MemoEntry> eldest) {
+                    return size() > MEMO_SIZE;
+                }
+            };
+        }
+    }
+
+    /**
+     * Returns how often the result of an expansion has been reused.
+     */
+    public long getMemoHits() {
+        return fMemoHits;
+    }
+
     /**
      * Expects that the identifier has been consumed, stores the result in the list provided.
      * @param scannerContext
@@ -190,8 +320,30 @@ public class MacroExpander {
         IdentityHashMap<PreprocessorMacro, PreprocessorMacro> forbidden = new IdentityHashMap<>();
         // setup input sequence
         TokenSource input = new TokenSource(lexer);
+        MemoKey memoKey = null;
+        if (fMemo != null && !completionMode && identifier.fSource != null) {
+            // The arguments are read up front, they are part of the key.
+            TokenList arguments = macro.isFunctionStyle() ? readArguments(lexer, (FunctionStyleMacro) macro) : EMPTY_TOKEN_LIST;
+            if (isFromSource(arguments, identifier.fSource)) {
+                memoKey = new MemoKey(macro, ppOptions, identifier, arguments);
+                MemoEntry entry = fMemo.get(memoKey);
+                if (entry != null && entry.isValid(fDictionary)) {
+                    TokenList result = replay(entry, identifier);
+                    if (result != null) {
+                        fReportMacros = null;
+                        return result;
+                    }
+                }
+                fRecording = new MemoEntry();
+                if (fLocationMap != null && fLexOptions.fCreateImageLocations) {
+                    fRecording.fSequenceNumber = getSequenceNumberOfArguments(identifier, arguments);
+                }
+            }
+            input.prepend(arguments);
+        }
         TokenList firstExpansion = new TokenList();
         TokenList result;
+        MemoEntry recording;
         try {
             firstExpansion.append(new ExpansionBoundary(macro, true));
             expandOne(identifier, macro, forbidden, input, firstExpansion, null);
@@ -205,12 +357,184 @@ public class MacroExpander {
             // For a better solution one would have to perform the expansion with artificial
             // parameters and then check where the completion token ends up in the expansion.
             result = e.getParameterTokens().cloneTokens();
+        } finally {
+            fReportMacros = null;
+            recording = fRecording;
+            fRecording = null;
         }
         postProcessTokens(result);
-        fReportMacros = null;
+        if (recording != null && memoKey != null) {
+            storeMemo(memoKey, recording, result);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the tokens of the arguments of a function-style macro, exactly the tokens
+     * {@link #parseArguments} consumes from the lexer.
+     */
+    private TokenList readArguments(ITokenSequence lexer, FunctionStyleMacro macro) throws OffsetLimitReachedException {
+        final int argCount = macro.getParameterPlaceholderList().length;
+        final boolean hasVarargs = macro.hasVarArgs() != FunctionStyleMacro.NO_VAARGS;
+        final TokenList result = new TokenList();
+        int idx = 0;
+        int nesting = -1;
+        loop: while (true) {
+            final Token t = lexer.currentToken();
+            switch(t.getType()) {
+                case IToken.tEND_OF_INPUT:
+                case IToken.tCOMPLETION:
+                    // Left to parseArguments.
+                    break loop;
+            }
+            fEndOffset = t.getEndOffset();
+            lexer.nextToken();
+            result.append(t);
+            switch(t.getType()) {
+                case Lexer.tNEWLINE:
+                    continue loop;
+                case IToken.tLPAREN:
+                    if (++nesting == 0) {
+                        continue loop;
+                    }
+                    break;
+                case IToken.tRPAREN:
+                    if (--nesting < 0) {
+                        break loop;
+                    }
+                    break;
+                case IToken.tCOMMA:
+                    if (nesting == 0) {
+                        if (idx < argCount - 1) {
+                            idx++;
+                            continue loop;
+                        } else if (!hasVarargs) {
+                            break loop;
+                        }
+                    }
+                    break;
+            }
+            if (argCount == 0) {
+                break loop;
+            }
+        }
         return result;
     }
 
+    private static boolean isFromSource(TokenList tokens, Object source) {
+        for (Token t = tokens.first(); t != null; t = (Token) t.getNext()) {
+            if (t.fSource != source) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the sequence number of the given identifier, or -1 if the arguments are not mapped
+     * contiguously by the location map.
+     */
+    private int getSequenceNumberOfArguments(Token identifier, TokenList arguments) {
+        final int offset = identifier.getOffset();
+        final int endOffset = arguments.last() != null ? arguments.last().getEndOffset() : identifier.getEndOffset();
+        final int sequenceNumber = fLocationMap.getSequenceNumberForOffset(offset);
+        if (fLocationMap.getSequenceNumberForOffset(endOffset) - sequenceNumber != endOffset - offset) {
+            return -1;
+        }
+        return sequenceNumber;
+    }
+
+    private void storeMemo(MemoKey key, MemoEntry entry, TokenList result) {
+        int length = 0;
+        for (Token t = result.first(); t != null; t = (Token) t.getNext()) {
+            if (++length > MAX_MEMO_RESULT_LENGTH) {
+                return;
+            }
+        }
+        entry.fImageLocationInfos = fImageLocationInfos.toArray(new ImageLocationInfo[fImageLocationInfos.size()]);
+        if (entry.fSequenceNumber < 0) {
+            for (ImageLocationInfo info : entry.fImageLocationInfos) {
+                if (info instanceof ParameterImageLocationInfo) {
+                    return;
+                }
+            }
+            for (ImageLocationInfo info : entry.fImplicitMacroInfos) {
+                if (info instanceof ParameterImageLocationInfo) {
+                    return;
+                }
+            }
+        }
+        // The parser modifies the tokens it gets.
+        entry.fResult = result.cloneTokens();
+        fMemo.put(key, entry);
+    }
+
+    /**
+     * Reproduces a remembered expansion, returns null if it cannot be reused for the given identifier.
+     */
+    private TokenList replay(MemoEntry entry, Token identifier) {
+        int sequenceShift = 0;
+        if (entry.fSequenceNumber >= 0) {
+            // The arguments have the same layout, such that the location map maps them contiguously as well.
+            final int sequenceNumber = fLocationMap.getSequenceNumberForOffset(identifier.getOffset());
+            final int endSequenceNumber = fLocationMap.getSequenceNumberForOffset(fEndOffset);
+            if (endSequenceNumber - sequenceNumber != fEndOffset - identifier.getOffset()) {
+                return null;
+            }
+            sequenceShift = sequenceNumber - entry.fSequenceNumber;
+        }
+        if (fReportMacros != null) {
+            for (Object macro : entry.fSignificantMacros) {
+                if (macro instanceof PreprocessorMacro) {
+                    fReportMacros.significantMacro((PreprocessorMacro) macro);
+                } else {
+                    fReportMacros.significantMacroUndefined((char[]) macro);
+                }
+            }
+        }
+        for (int i = 0; i < entry.fImplicitMacros.size(); i++) {
+            ImageLocationInfo info = shift(entry.fImplicitMacroInfos.get(i), sequenceShift);
+            fImplicitMacroExpansions.add(fLocationMap.encounterImplicitMacroExpansion(entry.fImplicitMacros.get(i), info));
+        }
+        for (ImageLocationInfo info : entry.fImageLocationInfos) {
+            fImageLocationInfos.add(shift(info, sequenceShift));
+        }
+        fMemoHits++;
+        return entry.fResult.cloneTokens();
+    }
+
+    private static ImageLocationInfo shift(ImageLocationInfo info, int sequenceShift) {
+        if (info instanceof ParameterImageLocationInfo) {
+            ParameterImageLocationInfo pli = (ParameterImageLocationInfo) info;
+            ParameterImageLocationInfo result = new ParameterImageLocationInfo(pli.fSequenceNumber + sequenceShift, pli.fSequenceEndNumber + sequenceShift);
+            result.fTokenOffsetInExpansion = pli.fTokenOffsetInExpansion;
+            return result;
+        }
+        // Other infos are independent of the location of the expansion and are not modified.
+        return info;
+    }
+
+    /**
+     * Called when the current expansion depends on more than its arguments and the macros involved.
+     */
+    private void cannotMemoize() {
+        fRecording = null;
+    }
+
+    private void reportSignificantMacro(PreprocessorMacro macro) {
+        fReportMacros.significantMacro(macro);
+        if (fRecording != null) {
+            fRecording.fSignificantMacros.add(macro);
+        }
+    }
+
+    private void reportSignificantMacroUndefined(char[] name) {
+        fReportMacros.significantMacroUndefined(name);
+        if (fRecording != null) {
+            fRecording.fSignificantMacros.add(name);
+        }
+    }
+
     /**
      * Method for tracking macro expansions.
      * @since 5.0
@@ -262,7 +586,10 @@ public class MacroExpander {
      */
     private Token expandOne(Token lastConsumed, PreprocessorMacro macro, IdentityHashMap<PreprocessorMacro, PreprocessorMacro> forbidden, TokenSource input, TokenList result, MacroExpansionTracker tracker) throws OffsetLimitReachedException {
         if (fReportMacros != null)
-            fReportMacros.significantMacro(macro);
+            reportSignificantMacro(macro);
+        if (macro.isDynamic()) {
+            cannotMemoize();
+        }
         if (macro.isFunctionStyle()) {
             final int paramCount = macro.getParameterPlaceholderList().length;
             final TokenSource[] argInputs = new TokenSource[paramCount];
@@ -363,6 +690,10 @@ public class MacroExpander {
                 case IToken.tIDENTIFIER:
                     final char[] image = t.getCharImage();
                     PreprocessorMacro macro = fDictionary.get(image);
+                    if (fRecording != null) {
+                        fRecording.fLookupNames.add(image);
+                        fRecording.fLookupResults.add(macro);
+                    }
                     if (protect || (tracker != null && tracker.isDone())) {
                         result.append(t);
                     } else if (protectIntrinsics && Arrays.equals(image, Keywords.cDEFINED)) {
@@ -383,9 +714,9 @@ public class MacroExpander {
                         // Tricky: Don't mark function-style macros if you don't find the left parenthesis
                         if (fReportMacros != null) {
                             if (macro != null) {
-                                fReportMacros.significantMacro(macro);
+                                reportSignificantMacro(macro);
                             } else if (fReportUndefined) {
-                                fReportMacros.significantMacroUndefined(image);
+                                reportSignificantMacroUndefined(image);
                             }
                         }
                         result.append(t);
@@ -400,6 +731,10 @@ public class MacroExpander {
                                 info = createImageLocationInfo(t);
                             }
                             fImplicitMacroExpansions.add(fLocationMap.encounterImplicitMacroExpansion(macro, info));
+                            if (fRecording != null) {
+                                fRecording.fImplicitMacros.add(macro);
+                                fRecording.fImplicitMacroInfos.add(info);
+                            }
                         }
                         TokenList replacement = new TokenList();
                         // start expansion
@@ -588,11 +923,12 @@ public class MacroExpander {
     }
 
     private void handleProblem(int problemID, char[] arg) {
+        cannotMemoize();
         fLog.handleProblem(problemID, arg, fStartOffset, fEndOffset);
     }
 
     private void replaceArgs(PreprocessorMacro macro, TokenList[] args, TokenList[] expandedArgs, TokenList result) {
-        TokenList replacement = clone(macro.getTokens(fDefinitionParser, fLexOptions, this));
+        TokenList replacement = macro.getTokens(fDefinitionParser, fLexOptions, this);
         Token l = null;
         Token n;
         Token pasteArg1 = null;
@@ -764,38 +1100,35 @@ public class MacroExpander {
 
     private BitSet getParamUsage(PreprocessorMacro macro) {
         final BitSet result = new BitSet();
-        final TokenList replacement = macro.getTokens(fDefinitionParser, fLexOptions, this);
-        Token l = null;
-        Token n;
-        for (Token t = replacement.first(); t != null; l = t, t = n) {
-            n = (Token) t.getNext();
-            switch(t.getType()) {
+        // Inspect the packed replacement list, there is no need to create the tokens.
+        final PackedTokenBuffer replacement = ((ObjectStyleMacro) macro).getPackedTokens(fDefinitionParser, fLexOptions);
+        final int count = replacement.size();
+        for (int i = 0; i < count; i++) {
+            switch(replacement.getType(i)) {
                 case CPreprocessor.tMACRO_PARAMETER:
-                    int idx = 2 * ((TokenParameterReference) t).getIndex();
-                    if (!isKind(n, IToken.tPOUNDPOUND)) {
+                    int idx = 2 * replacement.getParameterIndex(i);
+                    if (!isKind(replacement, i + 1, IToken.tPOUNDPOUND)) {
                         idx++;
                     }
                     result.set(idx);
                     break;
                 case IToken.tPOUND:
-                    if (isKind(n, CPreprocessor.tMACRO_PARAMETER)) {
-                        idx = ((TokenParameterReference) n).getIndex();
+                    if (isKind(replacement, i + 1, CPreprocessor.tMACRO_PARAMETER)) {
+                        idx = replacement.getParameterIndex(i + 1);
                         result.set(2 * idx);
-                        t = n;
-                        n = (Token) n.getNext();
+                        i++;
                     }
                     break;
                 case IToken.tPOUNDPOUND:
-                    if (isKind(n, CPreprocessor.tMACRO_PARAMETER)) {
-                        idx = ((TokenParameterReference) n).getIndex();
+                    if (isKind(replacement, i + 1, CPreprocessor.tMACRO_PARAMETER)) {
+                        idx = replacement.getParameterIndex(i + 1);
                         // gcc-extension
-                        if (isKind(l, IToken.tCOMMA) && macro.hasVarArgs() != FunctionStyleMacro.NO_VAARGS && idx == macro.getParameterPlaceholderList().length - 1 && !isKind(n.getNext(), IToken.tPOUNDPOUND)) {
+                        if (isKind(replacement, i - 1, IToken.tCOMMA) && macro.hasVarArgs() != FunctionStyleMacro.NO_VAARGS && idx == macro.getParameterPlaceholderList().length - 1 && !isKind(replacement, i + 2, IToken.tPOUNDPOUND)) {
                             result.set(2 * idx + 1);
                         } else {
                             result.set(2 * idx);
                         }
-                        t = n;
-                        n = (Token) n.getNext();
+                        i++;
                     }
                     break;
             }
@@ -803,8 +1136,12 @@ public class MacroExpander {
         return result;
     }
 
+    private boolean isKind(final PackedTokenBuffer tokens, final int idx, final int kind) {
+        return idx >= 0 && idx < tokens.size() && tokens.getType(idx) == kind;
+    }
+
     private void objStyleTokenPaste(PreprocessorMacro macro, TokenList result) {
-        TokenList replacement = clone(macro.getTokens(fDefinitionParser, fLexOptions, this));
+        TokenList replacement = macro.getTokens(fDefinitionParser, fLexOptions, this);
         Token l = null;
         Token n;
         Token pasteArg1 = null;
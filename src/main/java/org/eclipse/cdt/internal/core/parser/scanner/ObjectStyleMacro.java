@@ -27,7 +27,7 @@ public class ObjectStyleMacro extends PreprocessorMacro {
 
     final public int fEndOffset;
 
-    public TokenList fExpansionTokens;
+    private PackedTokenBuffer fExpansionTokens;
 
     public ObjectStyleMacro(char[] name, char[] expansion) {
         this(name, 0, expansion.length, null, new CharArray(expansion));
@@ -38,9 +38,9 @@ public class ObjectStyleMacro extends PreprocessorMacro {
         fExpansionOffset = expansionOffset;
         fEndOffset = endOffset;
         fExpansion = source;
-        fExpansionTokens = expansion;
         if (expansion != null) {
             setSource(expansion.first());
+            fExpansionTokens = PackedTokenBuffer.create(expansion, this, source, expansionOffset);
         }
     }
 
@@ -76,15 +76,23 @@ public class ObjectStyleMacro extends PreprocessorMacro {
 
     @Override
     public TokenList getTokens(MacroDefinitionParser mdp, LexerOptions lexOptions, MacroExpander expander) {
+        return getPackedTokens(mdp, lexOptions).toTokenList();
+    }
+
+    /**
+     * Returns the tokens of the replacement list without creating token objects for them.
+     */
+    PackedTokenBuffer getPackedTokens(MacroDefinitionParser mdp, LexerOptions lexOptions) {
         if (fExpansionTokens == null) {
-            fExpansionTokens = new TokenList();
+            TokenList tokens = new TokenList();
             Lexer lex = new Lexer(fExpansion, fExpansionOffset, fEndOffset, lexOptions, ILexerLog.NULL, this);
             try {
                 // consume the start token
                 lex.nextToken();
-                mdp.parseExpansion(lex, ILexerLog.NULL, getNameCharArray(), getParameterPlaceholderList(), fExpansionTokens);
+                mdp.parseExpansion(lex, ILexerLog.NULL, getNameCharArray(), getParameterPlaceholderList(), tokens);
             } catch (OffsetLimitReachedException e) {
             }
+            fExpansionTokens = PackedTokenBuffer.create(tokens, this, fExpansion, 0);
         }
         return fExpansionTokens;
     }
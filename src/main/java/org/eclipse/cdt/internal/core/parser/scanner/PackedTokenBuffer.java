@@ -0,0 +1,211 @@
+/**
+ * ****************************************************************************
+ *  Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * *****************************************************************************
+ */
+package org.eclipse.cdt.internal.core.parser.scanner;
+
+import org.eclipse.cdt.internal.core.parser.scanner.MacroDefinitionParser.TokenParameterReference;
+
+/**
+ * A sequence of tokens stored in parallel int arrays rather than as linked {@link Token} objects.
+ * The image of an identifier or literal is referenced by its range in the input the tokens have
+ * been lexed from and is copied only when the image is requested for the first time.
+ * <p>
+ * The preprocessor keeps the replacement lists of macros in this form, {@link Token} objects are
+ * created via {@link #toTokenList()} when a macro is expanded.
+ */
+public final class PackedTokenBuffer {
+
+    public static final PackedTokenBuffer EMPTY = new PackedTokenBuffer(null, null, 0, 0);
+
+    // The image is the range of the input.
+    private static final int IMAGE = 0x1;
+
+    // The image differs from the input, it is stored in fImages.
+    private static final int STORED_IMAGE = 0x2;
+
+    private static final int DIGRAPH = 0x4;
+
+    // A macro parameter, the upper bits hold its index.
+    private static final int PARAMETER = 0x8;
+
+    private static final int PARAMETER_INDEX_SHIFT = 4;
+
+    private final Object fSource;
+
+    private final AbstractCharArray fInput;
+
+    private final int fInputShift;
+
+    private int[] fKinds;
+
+    private int[] fOffsets;
+
+    private int[] fEndOffsets;
+
+    private int[] fFlags;
+
+    private char[][] fImages;
+
+    private int fCount;
+
+    /**
+     * @param source the source for the tokens created by this buffer
+     * @param input the input the tokens have been lexed from
+     * @param inputShift the difference between the offsets in the input and the offsets of the tokens
+     * @param capacity the initial number of tokens that can be stored
+     */
+    public PackedTokenBuffer(Object source, AbstractCharArray input, int inputShift, int capacity) {
+        fSource = source;
+        fInput = input;
+        fInputShift = inputShift;
+        fKinds = new int[capacity];
+        fOffsets = new int[capacity];
+        fEndOffsets = new int[capacity];
+        fFlags = new int[capacity];
+        fImages = new char[capacity][];
+    }
+
+    /**
+     * Packs the tokens of the given list, the list is not modified.
+     */
+    public static PackedTokenBuffer create(TokenList tokens, Object source, AbstractCharArray input, int inputShift) {
+        int count = 0;
+        for (Token t = tokens.first(); t != null; t = (Token) t.getNext()) {
+            count++;
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        PackedTokenBuffer result = new PackedTokenBuffer(source, input, inputShift, count);
+        for (Token t = tokens.first(); t != null; t = (Token) t.getNext()) {
+            result.append(t);
+        }
+        return result;
+    }
+
+    /**
+     * Appends the given token, its offsets are stored as they are.
+     */
+    public void append(Token t) {
+        int flags = 0;
+        char[] image = null;
+        if (t instanceof TokenParameterReference) {
+            flags = PARAMETER | (((TokenParameterReference) t).getIndex() << PARAMETER_INDEX_SHIFT);
+            image = t.getCharImage();
+        } else if (t instanceof TokenWithImage) {
+            image = t.getCharImage();
+            if (fInput != null && image.length == t.getLength()) {
+                // The image is copied again from the input when it is needed.
+                flags = IMAGE;
+                image = null;
+            } else {
+                // trigraphs or line-splices
+                flags = STORED_IMAGE;
+            }
+        } else if (t instanceof TokenForDigraph) {
+            flags = DIGRAPH;
+        }
+        if (fCount == fKinds.length) {
+            grow();
+        }
+        fKinds[fCount] = t.getType();
+        fOffsets[fCount] = t.getOffset();
+        fEndOffsets[fCount] = t.getEndOffset();
+        fFlags[fCount] = flags;
+        fImages[fCount] = image;
+        fCount++;
+    }
+
+    private void grow() {
+        final int capacity = Math.max(8, fCount * 2);
+        int[] kinds = new int[capacity];
+        int[] offsets = new int[capacity];
+        int[] endOffsets = new int[capacity];
+        int[] flags = new int[capacity];
+        char[][] images = new char[capacity][];
+        System.arraycopy(fKinds, 0, kinds, 0, fCount);
+        System.arraycopy(fOffsets, 0, offsets, 0, fCount);
+        System.arraycopy(fEndOffsets, 0, endOffsets, 0, fCount);
+        System.arraycopy(fFlags, 0, flags, 0, fCount);
+        System.arraycopy(fImages, 0, images, 0, fCount);
+        fKinds = kinds;
+        fOffsets = offsets;
+        fEndOffsets = endOffsets;
+        fFlags = flags;
+        fImages = images;
+    }
+
+    public int size() {
+        return fCount;
+    }
+
+    public int getType(int idx) {
+        return fKinds[idx];
+    }
+
+    public int getOffset(int idx) {
+        return fOffsets[idx];
+    }
+
+    public int getEndOffset(int idx) {
+        return fEndOffsets[idx];
+    }
+
+    /**
+     * Returns the index of the macro parameter at the given position, or -1 if the token
+     * at the position does not reference a parameter.
+     */
+    public int getParameterIndex(int idx) {
+        final int flags = fFlags[idx];
+        return (flags & PARAMETER) != 0 ? flags >>> PARAMETER_INDEX_SHIFT : -1;
+    }
+
+    private char[] getImage(int idx) {
+        char[] image = fImages[idx];
+        if (image == null) {
+            final int offset = fOffsets[idx];
+            image = new char[fEndOffsets[idx] - offset];
+            fInput.arraycopy(offset + fInputShift, image, 0, image.length);
+            // The images are shared by the created tokens, the same way clones of a token share it.
+            fImages[idx] = image;
+        }
+        return image;
+    }
+
+    /**
+     * Creates the token at the given position.
+     */
+    public Token createToken(int idx) {
+        final int kind = fKinds[idx];
+        final int offset = fOffsets[idx];
+        final int endOffset = fEndOffsets[idx];
+        final int flags = fFlags[idx];
+        if ((flags & PARAMETER) != 0)
+            return new TokenParameterReference(kind, flags >>> PARAMETER_INDEX_SHIFT, fSource, offset, endOffset, fImages[idx]);
+        if ((flags & (IMAGE | STORED_IMAGE)) != 0)
+            return new TokenWithImage(kind, fSource, offset, endOffset, getImage(idx));
+        if ((flags & DIGRAPH) != 0)
+            return new TokenForDigraph(kind, fSource, offset, endOffset);
+        return new Token(kind, fSource, offset, endOffset);
+    }
+
+    /**
+     * Creates a new list with all tokens of this buffer.
+     */
+    public TokenList toTokenList() {
+        TokenList result = new TokenList();
+        for (int i = 0; i < fCount; i++) {
+            result.append(createToken(i));
+        }
+        return result;
+    }
+}
@@ -106,5 +106,8 @@ public abstract class PreprocessorMacro implements IMacroBinding {
         return buf.toString();
     }
 
+    /**
+     * Returns the tokens of the replacement list. The list and its tokens are owned by the caller.
+     */
     public abstract TokenList getTokens(MacroDefinitionParser parser, LexerOptions lexOptions, MacroExpander expander);
 }
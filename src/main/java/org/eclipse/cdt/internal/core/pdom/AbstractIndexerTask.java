@@ -35,6 +35,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.eclipse.cdt.core.CCorePlugin;
@@ -46,6 +54,7 @@ import org.eclipse.cdt.core.dom.ast.IASTPreprocessorIncludeStatement;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit.IDependencyTree;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit.IDependencyTree.IASTInclusionNode;
+import org.eclipse.cdt.core.dom.ast.IFileNomination;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPUsingDirective;
 import org.eclipse.cdt.core.index.IIndexFile;
 import org.eclipse.cdt.core.index.IIndexFileLocation;
@@ -69,11 +78,14 @@ import org.eclipse.cdt.internal.core.index.FileContentKey;
 import org.eclipse.cdt.internal.core.index.IIndexFragment;
 import org.eclipse.cdt.internal.core.index.IIndexFragmentFile;
 import org.eclipse.cdt.internal.core.index.IWritableIndex;
+import org.eclipse.cdt.internal.core.index.IncludePrefixSnapshot;
 import org.eclipse.cdt.internal.core.index.IndexBasedFileContentProvider;
 import org.eclipse.cdt.internal.core.model.DebugLogConstants;
 import org.eclipse.cdt.internal.core.parser.IMacroDictionary;
 import org.eclipse.cdt.internal.core.parser.ParserLogService;
 import org.eclipse.cdt.internal.core.parser.ParserSettings2;
+import org.eclipse.cdt.internal.core.parser.scanner.IncludeResolutionCache;
+import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent.FileVersion;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider.DependsOnOutdatedFileException;
 import org.eclipse.cdt.internal.core.parser.util.LRUCache;
@@ -319,6 +331,38 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
         }
     }
 
+    /**
+     * A required source that is parsed by one of the parser threads and written to the index
+     * by the thread running the task.
+     */
+    private static class ParsedSource {
+
+        final Object fTu;
+
+        final IIndexFileLocation fLocation;
+
+        final AbstractLanguage fLanguage;
+
+        final IScannerInfo fScannerInfo;
+
+        FileContent fCodeReader;
+
+        IASTTranslationUnit fAST;
+
+        long fParsingTime;
+
+        Throwable fError;
+
+        Future<?> fFuture;
+
+        ParsedSource(Object tu, IIndexFileLocation ifl, AbstractLanguage language, IScannerInfo scannerInfo) {
+            fTu = tu;
+            fLocation = ifl;
+            fLanguage = language;
+            fScannerInfo = scannerInfo;
+        }
+    }
+
     protected enum MessageKind {
 
         parsingFileTask, errorWhileParsing, tooManyIndexProblems
@@ -342,6 +386,15 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 
     private Map<IIndexFileLocation, IIndexFragmentFile[]> fIndexFilesCache = new LRUCache<>(5000);
 
+    private static final int MAX_INCLUDE_PREFIX_SNAPSHOTS = 1000;
+
+    private boolean fUseIncludePrefixSnapshots;
+
+    // The snapshots for the first inclusions of translation units.
+    private Map<IIndexFile, IncludePrefixSnapshot> fIncludePrefixSnapshots = new HashMap<>();
+
+    private int fIncludePrefixSnapshotCount;
+
     private Map<IIndexFileLocation, LocationTask> fOneLinkageTasks = new HashMap<>();
 
     private Object[] fFilesToUpdate;
@@ -366,6 +419,8 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 
     private int fSwallowOutOfMemoryError = 5;
 
+    private int fParserThreadCount = 1;
+
     /**
      * A queue of urgent indexing tasks that contribute additional files to this task.
      * The files from the urgent tasks are indexed before all not yet processed files.
@@ -426,6 +481,39 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
         fPragmaPrivatePattern = pattern;
     }
 
+    /**
+     * Sets whether the fast indexer remembers the content it obtains from the index for the
+     * inclusions at the start of a translation unit, such that translation units starting with
+     * the same inclusions reuse it.
+     */
+    public void setUseIncludePrefixSnapshots(boolean use) {
+        fUseIncludePrefixSnapshots = use;
+        if (!use) {
+            clearIncludePrefixSnapshots();
+        }
+    }
+
+    /**
+     * Sets the number of threads used to create the ASTs of the required sources. With more than
+     * one thread the sources of a linkage are parsed concurrently, each thread using its own file
+     * content provider, while the thread running the task writes the ASTs to the index in the same
+     * order as the sequential indexer. The parser threads create the ASTs with the index, they are
+     * suspended while an AST is written. A source may be parsed before the preceding sources are
+     * written, such that its AST does not see their contributions to the index. The fast indexer
+     * always parses sequentially, because it takes the content of headers from the index.
+     */
+    public void setParserThreadCount(int count) {
+        fParserThreadCount = Math.max(1, count);
+    }
+
+    public int getParserThreadCount() {
+        return fParserThreadCount;
+    }
+
+    private boolean useParallelParsing() {
+        return fParserThreadCount > 1 && !fIsFastIndexer;
+    }
+
     /**
      * @see IPDOMIndexerTask#acceptUrgentTask(IPDOMIndexerTask)
      */
@@ -464,6 +552,14 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 
     protected abstract IncludeFileContentProvider createReaderFactory();
 
+    /**
+     * Returns the cache for the resolution of include directives, shared by the translation units
+     * of this task, or {@code null} if include directives shall be resolved without caching.
+     */
+    protected IncludeResolutionCache getIncludeResolutionCache() {
+        return null;
+    }
+
     protected ITodoTaskUpdater createTodoTaskUpdater() {
         return null;
     }
@@ -592,6 +688,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
                                 }
                                 fIndexContentCache.clear();
                                 fIndexFilesCache.clear();
+                                clearIncludePrefixSnapshots();
                             }
                             if (hasUrgentTasks())
                                 break;
@@ -636,6 +733,8 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
                     setResume(false, progress.split(1));
                 } finally {
                     fIndex.flush();
+                    fStatistics.fLockWaitCount = fIndex.getLockWaitCount();
+                    fStatistics.fLockWaitTime = fIndex.getLockWaitTime();
                 }
             } catch (CoreException e) {
                 logException(e);
@@ -823,6 +922,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
         }
         fIndexContentCache.remove(ifile);
         fIndexFilesCache.remove(file.fileContentKey.getLocation());
+        invalidateIncludePrefixSnapshots(ifile);
         LocationTask task = fOneLinkageTasks.remove(location);
         if (task != null && task != locTask) {
             if (task.fKind == UpdateKind.ONE_LINKAGE_HEADER && !task.isCompleted()) {
@@ -894,17 +994,22 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
             if (filesAtPriority == null)
                 continue;
             // First parse the required sources.
-            for (Iterator<IIndexFileLocation> it = filesAtPriority.iterator(); it.hasNext(); ) {
-                IIndexFileLocation ifl = it.next();
-                LocationTask locTask = map.find(ifl);
-                if (locTask == null || locTask.isCompleted()) {
-                    it.remove();
-                } else if (locTask.fKind == UpdateKind.REQUIRED_SOURCE) {
-                    if (hasUrgentTasks())
-                        return;
-                    final Object tu = locTask.fTu;
-                    final IScannerInfo scannerInfo = getScannerInfo(linkageID, tu);
-                    parseFile(tu, getLanguage(tu, linkageID), ifl, scannerInfo, null, progress.split(1));
+            if (useParallelParsing()) {
+                if (!parseRequiredSourcesInParallel(linkageID, map, filesAtPriority, progress))
+                    return;
+            } else {
+                for (Iterator<IIndexFileLocation> it = filesAtPriority.iterator(); it.hasNext(); ) {
+                    IIndexFileLocation ifl = it.next();
+                    LocationTask locTask = map.find(ifl);
+                    if (locTask == null || locTask.isCompleted()) {
+                        it.remove();
+                    } else if (locTask.fKind == UpdateKind.REQUIRED_SOURCE) {
+                        if (hasUrgentTasks())
+                            return;
+                        final Object tu = locTask.fTu;
+                        final IScannerInfo scannerInfo = getScannerInfo(linkageID, tu);
+                        parseFile(tu, getLanguage(tu, linkageID), ifl, scannerInfo, null, progress.split(1));
+                    }
                 }
             }
             // Files with context.
@@ -960,6 +1065,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
                                     locTask.removeVersionTask(it);
                                     fIndexContentCache.remove(v.fIndexFile);
                                     fIndexFilesCache.remove(ifl);
+                                    invalidateIncludePrefixSnapshots(v.fIndexFile);
                                 }
                             }
                         }
@@ -1120,6 +1226,157 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
         return null;
     }
 
+    /**
+     * Parses the required sources among the given files using {@link #getParserThreadCount()}
+     * threads. The ASTs are written to the index by the calling thread in the order of the files.
+     *
+     * @return {@code false} if parsing was interrupted because of urgent tasks.
+     */
+    private boolean parseRequiredSourcesInParallel(int linkageID, LinkageTask map, List<IIndexFileLocation> files, SubMonitor progress) throws CoreException, InterruptedException {
+        final ThreadLocal<InternalFileContentProvider> contentProviders = new ThreadLocal<>();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(fParserThreadCount, r -> {
+            //$NON-NLS-1$
+            Thread thread = new Thread(r, "Indexer Parser Thread #" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Deque<ParsedSource> pending = new ArrayDeque<>();
+        final int maxPending = 2 * fParserThreadCount;
+        // The parser threads read the index under the read lock of the task, which is given up
+        // while the index is written.
+        final ReadWriteLock parseLock = new ReentrantReadWriteLock(true);
+        try {
+            Iterator<IIndexFileLocation> it = files.iterator();
+            while (true) {
+                while (pending.size() < maxPending && it.hasNext()) {
+                    IIndexFileLocation ifl = it.next();
+                    LocationTask locTask = map.find(ifl);
+                    if (locTask == null || locTask.isCompleted()) {
+                        it.remove();
+                    } else if (locTask.fKind == UpdateKind.REQUIRED_SOURCE) {
+                        if (hasUrgentTasks())
+                            return false;
+                        final Object tu = locTask.fTu;
+                        final ParsedSource source = new ParsedSource(tu, ifl, getLanguage(tu, linkageID), getScannerInfo(linkageID, tu));
+                        source.fFuture = executor.submit(() -> parseSource(source, contentProviders, parseLock));
+                        pending.add(source);
+                    }
+                }
+                ParsedSource source = pending.poll();
+                if (source == null)
+                    return true;
+                try {
+                    source.fFuture.get();
+                } catch (ExecutionException e) {
+                    source.fError = e.getCause();
+                }
+                if (hasUrgentTasks())
+                    return false;
+                LocationTask locTask = map.find(source.fLocation);
+                if (locTask == null || locTask.isCompleted()) {
+                    // The source was stored while it was parsed, drop the AST.
+                    progress.split(1);
+                    continue;
+                }
+                parseLock.writeLock().lock();
+                try {
+                    writeParsedSource(source, progress.split(1));
+                } finally {
+                    parseLock.writeLock().unlock();
+                }
+            }
+        } finally {
+            for (ParsedSource source : pending) {
+                source.fFuture.cancel(false);
+            }
+            executor.shutdown();
+            // Do not leave parser threads behind when the task completes.
+            while (!executor.awaitTermination(PDOM.CANCELLATION_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+                // Keep waiting.
+            }
+        }
+    }
+
+    /**
+     * Creates the AST for a required source, called from a parser thread. The index is accessed
+     * while holding the read lock of the given lock, the index must not be written to meanwhile.
+     */
+    private void parseSource(ParsedSource source, ThreadLocal<InternalFileContentProvider> contentProviders, ReadWriteLock parseLock) {
+        parseLock.readLock().lock();
+        try {
+            InternalFileContentProvider fileContentProvider = contentProviders.get();
+            if (fileContentProvider == null) {
+                fileContentProvider = createInternalFileContentProvider();
+                fileContentProvider.setIncludeResolutionHeuristics(createIncludeHeuristics());
+                fileContentProvider.setIncludeResolutionCache(getIncludeResolutionCache());
+                contentProviders.set(fileContentProvider);
+            }
+            if (fShowActivity) {
+                //$NON-NLS-1$
+                trace("Indexer: parsing " + getLabel(source.fLocation).toOSString());
+            }
+            source.fCodeReader = fResolver.getCodeReader(source.fTu);
+            long start = System.currentTimeMillis();
+            if (source.fCodeReader != null && !exceedsTranslationUnitSizeLimit(source.fCodeReader)) {
+                source.fAST = source.fLanguage.getASTTranslationUnit(source.fCodeReader, source.fScannerInfo, fileContentProvider, fIndex, fASTOptions, getLogService());
+            }
+            source.fParsingTime = System.currentTimeMillis() - start;
+        } catch (OperationCanceledException e) {
+        } catch (RuntimeException | StackOverflowError | CoreException | AssertionError | OutOfMemoryError e) {
+            source.fError = e;
+        } finally {
+            parseLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the AST of a required source to the index, the counterpart of
+     * {@link #parseFile(Object, AbstractLanguage, IIndexFileLocation, IScannerInfo, FileContext, IProgressMonitor)}
+     * for sources parsed by a parser thread.
+     */
+    private void writeParsedSource(ParsedSource source, IProgressMonitor monitor) throws CoreException, InterruptedException {
+        SubMonitor progress = SubMonitor.convert(monitor, 11);
+        boolean resultCacheCleared = false;
+        IPath path = getLabel(source.fLocation);
+        Throwable th = source.fError;
+        if (th == null) {
+            try {
+                progress.subTask(getMessage(MessageKind.parsingFileTask, path.lastSegment(), path.removeLastSegments(1).toString()));
+                long start = System.currentTimeMillis();
+                fStatistics.fParsingTime += source.fParsingTime;
+                if (source.fAST == null) {
+                    ++fStatistics.fTooManyTokensCount;
+                } else {
+                    writeToIndex(source.fLanguage.getLinkageID(), source.fAST, source.fCodeReader, null, progress.split(10));
+                    // The cache was cleared while writing to the index.
+                    resultCacheCleared = true;
+                }
+                if (fShowActivity) {
+                    long time = source.fParsingTime + System.currentTimeMillis() - start;
+                    //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                    trace("Indexer: processed " + path.toOSString() + " [" + time + " ms]");
+                }
+            } catch (OperationCanceledException e) {
+            } catch (RuntimeException | StackOverflowError | CoreException | AssertionError | OutOfMemoryError e) {
+                th = e;
+            }
+        }
+        if (th instanceof OutOfMemoryError && --fSwallowOutOfMemoryError < 0)
+            throw (OutOfMemoryError) th;
+        if (th != null) {
+            swallowError(path, th);
+        }
+        if (!resultCacheCleared) {
+            fIndex.acquireWriteLock(progress.split(1));
+            try {
+                fIndex.clearResultCache();
+            } finally {
+                fIndex.releaseWriteLock();
+            }
+        }
+    }
+
     private AbstractLanguage getLanguage(Object tu, int linkageID) {
         for (AbstractLanguage language : fResolver.getLanguages(tu, UnusedHeaderStrategy.useBoth)) {
             if (language.getLinkageID() == linkageID) {
@@ -1190,11 +1447,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
         if (codeReader == null) {
             return null;
         }
-        if (fTranslationUnitSizeLimit > 0 && fResolver.getFileSize(codeReader.getFileLocation()) > fTranslationUnitSizeLimit) {
-            if (fShowActivity) {
-                //$NON-NLS-1$
-                trace("Indexer: Skipping large file " + codeReader.getFileLocation());
-            }
+        if (exceedsTranslationUnitSizeLimit(codeReader)) {
             return null;
         }
         final IIndexFile[] ctx2header = ctx == null ? null : new IIndexFile[] { ctx.fContext, ctx.fOldFile };
@@ -1211,6 +1464,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
                 fCodeReaderFactory = fileContentProvider;
             }
             fCodeReaderFactory.setIncludeResolutionHeuristics(createIncludeHeuristics());
+            fCodeReaderFactory.setIncludeResolutionCache(getIncludeResolutionCache());
         } else if (fIsFastIndexer) {
             final IndexBasedFileContentProvider ibfcp = (IndexBasedFileContentProvider) fCodeReaderFactory;
             ibfcp.setContextToHeaderGap(ctx2header);
@@ -1223,6 +1477,17 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
         return ast;
     }
 
+    private boolean exceedsTranslationUnitSizeLimit(FileContent codeReader) {
+        if (fTranslationUnitSizeLimit > 0 && fResolver.getFileSize(codeReader.getFileLocation()) > fTranslationUnitSizeLimit) {
+            if (fShowActivity) {
+                //$NON-NLS-1$
+                trace("Indexer: Skipping large file " + codeReader.getFileLocation());
+            }
+            return true;
+        }
+        return false;
+    }
+
     private InternalFileContentProvider createInternalFileContentProvider() {
         final IncludeFileContentProvider fileContentProvider = createReaderFactory();
         if (fileContentProvider instanceof InternalFileContentProvider)
@@ -1404,6 +1669,16 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
     }
 
     public final IndexFileContent getFileContent(int linkageID, IIndexFileLocation ifl, IIndexFile file) throws CoreException, DependsOnOutdatedFileException {
+        checkOutdated(linkageID, ifl, file);
+        IndexFileContent fc = fIndexContentCache.get(file);
+        if (fc == null) {
+            fc = new IndexFileContent(file);
+            fIndexContentCache.put(file, fc);
+        }
+        return fc;
+    }
+
+    private void checkOutdated(int linkageID, IIndexFileLocation ifl, IIndexFile file) throws DependsOnOutdatedFileException {
         LinkageTask map = findRequestMap(linkageID);
         if (map != null) {
             LocationTask request = map.find(ifl);
@@ -1413,12 +1688,81 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
                     throw new DependsOnOutdatedFileException(request.fTu, task.fIndexFile);
             }
         }
-        IndexFileContent fc = fIndexContentCache.get(file);
-        if (fc == null) {
-            fc = new IndexFileContent(file);
-            fIndexContentCache.put(file, fc);
+    }
+
+    /**
+     * Returns the snapshot for the inclusion of the given file after the inclusions of the
+     * parent snapshot, or {@code null}.
+     * @param parent the snapshot of the preceding inclusion or {@code null} for the first inclusion
+     *     of a translation unit
+     */
+    public IncludePrefixSnapshot getIncludePrefixSnapshot(int linkageID, IncludePrefixSnapshot parent, IIndexFile file) throws DependsOnOutdatedFileException {
+        if (!fUseIncludePrefixSnapshots)
+            return null;
+        IncludePrefixSnapshot snapshot;
+        if (parent == null) {
+            snapshot = fIncludePrefixSnapshots.get(file);
+        } else {
+            snapshot = parent.isValid() ? parent.getChild(file) : null;
         }
-        return fc;
+        if (snapshot == null)
+            return null;
+        final List<IIndexFile> files = snapshot.getFiles();
+        final List<IIndexFileLocation> locations = snapshot.getFileLocations();
+        for (int i = 0; i < files.size(); i++) {
+            checkOutdated(linkageID, locations.get(i), files.get(i));
+        }
+        fStatistics.fIncludePrefixSnapshotHits++;
+        fStatistics.fIncludePrefixSnapshotFiles += files.size();
+        return snapshot;
+    }
+
+    /**
+     * Stores a snapshot for the inclusion of the given file after the inclusions of the parent
+     * snapshot. The lists are copied.
+     * @param parent the snapshot of the preceding inclusion or {@code null} for the first inclusion
+     *     of a translation unit
+     * @return the new snapshot, or {@code null} if no snapshot is stored.
+     */
+    public IncludePrefixSnapshot addIncludePrefixSnapshot(IncludePrefixSnapshot parent, IIndexFile file, List<IIndexFile> files, List<IIndexMacro> macros, List<ICPPUsingDirective> usingDirectives, List<FileVersion> nonPragmaOnceVersions, Map<IIndexFileLocation, IFileNomination> pragmaOnce) throws CoreException {
+        if (!fUseIncludePrefixSnapshots)
+            return null;
+        if (fIncludePrefixSnapshotCount >= MAX_INCLUDE_PREFIX_SNAPSHOTS)
+            clearIncludePrefixSnapshots();
+        if (parent != null && !parent.isValid())
+            return null;
+        List<IIndexFileLocation> locations = new ArrayList<>(files.size());
+        for (IIndexFile f : files) {
+            locations.add(f.getLocation());
+        }
+        IncludePrefixSnapshot snapshot = new IncludePrefixSnapshot(file, new ArrayList<>(files), locations, new ArrayList<>(macros), new ArrayList<>(usingDirectives), new ArrayList<>(nonPragmaOnceVersions), new HashMap<>(pragmaOnce));
+        if (parent == null) {
+            fIncludePrefixSnapshots.put(file, snapshot);
+        } else {
+            parent.addChild(snapshot);
+        }
+        fIncludePrefixSnapshotCount++;
+        return snapshot;
+    }
+
+    private void invalidateIncludePrefixSnapshots(IIndexFile file) {
+        for (Iterator<IncludePrefixSnapshot> it = fIncludePrefixSnapshots.values().iterator(); it.hasNext(); ) {
+            IncludePrefixSnapshot snapshot = it.next();
+            if (snapshot.contains(file)) {
+                fIncludePrefixSnapshotCount -= snapshot.invalidate();
+                it.remove();
+            } else {
+                fIncludePrefixSnapshotCount -= snapshot.invalidateChildren(file);
+            }
+        }
+    }
+
+    private void clearIncludePrefixSnapshots() {
+        for (IncludePrefixSnapshot snapshot : fIncludePrefixSnapshots.values()) {
+            snapshot.invalidate();
+        }
+        fIncludePrefixSnapshots.clear();
+        fIncludePrefixSnapshotCount = 0;
     }
 
     IIndexFragmentFile selectIndexFile(int linkageID, IIndexFileLocation ifl, ISignificantMacros sigMacros) throws CoreException {
@@ -26,4 +26,11 @@ public class IndexerStatistics {
 	public int fPreprocessorProblemCount = 0;
 	public int fSyntaxProblemsCount = 0;
 	public int fTooManyTokensCount = 0;
+	// Lock acquisitions on the index that had to wait for another thread, and the time spent waiting in ms.
+	public long fLockWaitCount = 0;
+	public long fLockWaitTime = 0;
+	// Inclusions whose content was taken from a snapshot of a preceding translation unit, and the
+	// number of files the content of which did not have to be collected from the index again.
+	public int fIncludePrefixSnapshotHits = 0;
+	public int fIncludePrefixSnapshotFiles = 0;
 }
@@ -22,7 +22,6 @@
 package org.eclipse.cdt.internal.core.pdom;
 
 import java.io.File;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -34,6 +33,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.dom.ILinkage;
@@ -82,6 +84,7 @@ import org.eclipse.cdt.internal.core.pdom.db.DBProperties;
 import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeComparator;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
+import org.eclipse.cdt.internal.core.pdom.db.TrigramIndex;
 import org.eclipse.cdt.internal.core.pdom.dom.BindingCollector;
 import org.eclipse.cdt.internal.core.pdom.dom.CompoundRecordIterator;
 import org.eclipse.cdt.internal.core.pdom.dom.FindBinding;
@@ -319,12 +322,13 @@ public class PDOM extends PlatformObject implements IPDOM {
 	 *
 	 *  CDT 10.4 development
 	 *  220.0 - Changed marshalling of CPPBasicType to store new "from literal" flag, bug 573764
+	 *  221.0 - Added a trigram index of binding names
 	 */
-    private static final int MIN_SUPPORTED_VERSION = version(220, 0);
+    private static final int MIN_SUPPORTED_VERSION = version(221, 0);
 
-    private static final int MAX_SUPPORTED_VERSION = version(220, Short.MAX_VALUE);
+    private static final int MAX_SUPPORTED_VERSION = version(221, Short.MAX_VALUE);
 
-    private static final int DEFAULT_VERSION = version(220, 0);
+    private static final int DEFAULT_VERSION = version(221, 0);
 
     private static int version(int major, int minor) {
         return (major << 16) + minor;
@@ -368,10 +372,12 @@ public class PDOM extends PlatformObject implements IPDOM {
 
     public static final int TAG_INDEX = Database.DATA_AREA + 20;
 
-    public static final int END = Database.DATA_AREA + 24;
+    public static final int NAME_TRIGRAM_INDEX = Database.DATA_AREA + 24;
+
+    public static final int END = Database.DATA_AREA + 28;
 
     static {
-        assert END <= Database.CHUNK_SIZE;
+        assert END <= Database.CHUNKS_USED_OFFSET;
     }
 
     public static class ChangeEvent {
@@ -440,6 +446,8 @@ public class PDOM extends PlatformObject implements IPDOM {
 
     private PDOMTagIndex tagIndex;
 
+    private TrigramIndex nameTrigramIndex;
+
     private BTree indexOfDefectiveFiles;
 
     private BTree indexOfFiledWithUnresolvedIncludes;
@@ -448,13 +456,29 @@ public class PDOM extends PlatformObject implements IPDOM {
 
     private File fPath;
 
+    private final boolean fMemoryMapped;
+
+    private final int fChunkSize;
+
     private final IIndexLocationConverter locationConverter;
 
     private final Map<String, IPDOMLinkageFactory> fPDOMLinkageFactoryCache;
 
     private final HashMap<Object, Object> fResultCache = new HashMap<>();
 
-    private final Map<Long, WeakReference<IValue>> fVariableResultCache = new HashMap<>();
+    /**
+     * Maximum number of types, values and evaluations kept in the decoded object cache.
+     */
+    //$NON-NLS-1$
+    private static final int DECODED_CACHE_LIMIT = Integer.getInteger("org.eclipse.cdt.core.pdom.decodedCacheLimit", 50000);
+
+    // Types, values and evaluations unmarshalled from the database by record offset, cleared when the
+    // write lock is released and not used while it is held.
+    private final Map<Long, Object> fDecodedCache = new ConcurrentHashMap<>();
+
+    private final LongAdder fDecodedCacheHits = new LongAdder();
+
+    private final LongAdder fDecodedCacheMisses = new LongAdder();
 
     private List<IListener> listeners;
 
@@ -465,7 +489,25 @@ public class PDOM extends PlatformObject implements IPDOM {
     }
 
     public PDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache, Map<String, IPDOMLinkageFactory> linkageFactoryMappings) throws CoreException {
+        this(dbPath, locationConverter, cache, false, linkageFactoryMappings);
+    }
+
+    /**
+     * @param memoryMapped whether the database file is mapped into memory rather than read and
+     * written chunk by chunk, see {@link Database#Database(File, ChunkCache, int, boolean, boolean)}.
+     */
+    public PDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache, boolean memoryMapped, Map<String, IPDOMLinkageFactory> linkageFactoryMappings) throws CoreException {
+        this(dbPath, locationConverter, cache, memoryMapped, Database.CHUNK_SIZE, linkageFactoryMappings);
+    }
+
+    /**
+     * @param chunkSize the chunk size used when the database file is created, an existing file keeps
+     * its chunk size, see {@link Database#Database(File, ChunkCache, int, boolean, boolean, int)}.
+     */
+    public PDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache, boolean memoryMapped, int chunkSize, Map<String, IPDOMLinkageFactory> linkageFactoryMappings) throws CoreException {
         fPDOMLinkageFactoryCache = linkageFactoryMappings;
+        fMemoryMapped = memoryMapped;
+        fChunkSize = chunkSize;
         loadDatabase(dbPath, cache);
         this.locationConverter = locationConverter;
         if (sDEBUG_LOCKS) {
@@ -484,16 +526,16 @@ public class PDOM extends PlatformObject implements IPDOM {
 
     private void loadDatabase(File dbPath, ChunkCache cache) throws CoreException {
         fPath = dbPath;
-        final boolean lockDB = db == null || lockCount != 0;
+        final boolean lockDB = db == null || isLocked();
         clearCaches();
-        db = new Database(fPath, cache, getDefaultVersion(), isPermanentlyReadOnly());
+        db = new Database(fPath, cache, getDefaultVersion(), isPermanentlyReadOnly(), fMemoryMapped, fChunkSize);
         db.setLocked(lockDB);
         try {
             if (isSupportedVersion()) {
                 readLinkages();
             }
         } finally {
-            db.setLocked(lockCount != 0);
+            db.setLocked(isLocked());
         }
     }
 
@@ -583,6 +625,16 @@ public class PDOM extends PlatformObject implements IPDOM {
         return tagIndex;
     }
 
+    /**
+     * Returns the index of the trigrams of binding names, used for pattern searches.
+     */
+    public TrigramIndex getNameTrigramIndex() {
+        if (nameTrigramIndex == null) {
+            nameTrigramIndex = new TrigramIndex(db, NAME_TRIGRAM_INDEX);
+        }
+        return nameTrigramIndex;
+    }
+
     /**
      * Returns the index of files that were read with I/O errors.
      */
@@ -689,7 +741,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 
     protected void clear() throws CoreException {
         // needs write-lock.
-        assert lockCount < 0;
+        assert fWriteLocked;
         // Clear out the database, everything is set to zero.
         int vers = getDefaultVersion();
         db.clear(vers);
@@ -699,7 +751,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 
     void reloadFromFile(File file) throws CoreException {
         // must have write lock.
-        assert lockCount < 0;
+        assert fWriteLocked;
         File oldFile = fPath;
         clearCaches();
         try {
@@ -845,6 +897,10 @@ public class PDOM extends PlatformObject implements IPDOM {
                 return findBindingsForPrefix(prefix, isFullyQualified, caseSensitive, filter, monitor);
             }
         }
+        IIndexFragmentBinding[] candidates = findBindingsByTrigrams(patterns, isFullyQualified, filter, monitor);
+        if (candidates != null) {
+            return candidates;
+        }
         BindingFinder finder = new BindingFinder(patterns, isFullyQualified, filter, monitor);
         for (PDOMLinkage linkage : getLinkageList()) {
             if (filter.acceptLinkage(linkage)) {
@@ -915,6 +971,272 @@ public class PDOM extends PlatformObject implements IPDOM {
         return null;
     }
 
+    /**
+     * Searches the bindings using the trigram index of binding names. Returns {@code null} if no
+     * trigram required by the last pattern could be determined, the caller has to visit all
+     * bindings in that case. The result is the same as the one of the {@link BindingFinder},
+     * except that every binding is reported only once.
+     */
+    private IIndexFragmentBinding[] findBindingsByTrigrams(Pattern[] patterns, boolean isFullyQualified, IndexFilter filter, IProgressMonitor monitor) throws CoreException {
+        final Pattern namePattern = patterns[patterns.length - 1];
+        int[] trigrams = extractRequiredTrigrams(namePattern);
+        if (trigrams == null)
+            return null;
+        // Use the posting list of the rarest trigram as the set of candidates.
+        TrigramIndex index = getNameTrigramIndex();
+        int rarest = -1;
+        int minCount = Integer.MAX_VALUE;
+        for (int trigram : trigrams) {
+            int count = index.getCount(trigram);
+            if (count < minCount) {
+                minCount = count;
+                rarest = trigram;
+            }
+        }
+        if (minCount == 0)
+            return IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
+        List<IIndexFragmentBinding> result = new ArrayList<>();
+        for (long record : index.getRecords(rarest)) {
+            if (monitor.isCanceled())
+                return IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
+            PDOMNode node = PDOMNode.load(this, record);
+            if (!(node instanceof PDOMBinding))
+                continue;
+            PDOMBinding binding = (PDOMBinding) node;
+            if (filter.acceptLinkage(binding.getLinkage()) && namePattern.matcher(new String(binding.getNameCharArray())).matches() && filter.acceptBinding(binding) && isReachable(binding, patterns, isFullyQualified)) {
+                result.add(binding);
+            }
+        }
+        return result.toArray(new IIndexFragmentBinding[result.size()]);
+    }
+
+    /**
+     * Checks whether the {@link BindingFinder} would reach the binding with the given patterns.
+     */
+    private static boolean isReachable(PDOMBinding binding, Pattern[] patterns, boolean isFullyQualified) throws CoreException {
+        PDOMNode parent = binding.getParentNode();
+        if (matchesQualifiers(parent, patterns, isFullyQualified))
+            return true;
+        // Enumerators of unscoped enumerations and fields of anonymous composite types are
+        // children of the enclosing scope, too.
+        boolean alsoInEnclosingScope;
+        if (parent instanceof IEnumeration) {
+            alsoInEnclosingScope = !(parent instanceof ICPPEnumeration) || !((ICPPEnumeration) parent).isScoped();
+        } else {
+            alsoInEnclosingScope = binding instanceof IField && parent instanceof ICompositeType && ((ICompositeType) parent).isAnonymous();
+        }
+        return alsoInEnclosingScope && matchesQualifiers(parent.getParentNode(), patterns, isFullyQualified);
+    }
+
+    private static boolean matchesQualifiers(PDOMNode parent, Pattern[] patterns, boolean isFullyQualified) throws CoreException {
+        int i = patterns.length - 2;
+        for (PDOMNode node = parent; node != null; node = node.getParentNode()) {
+            if (!(node instanceof PDOMNamedNode))
+                return false;
+            PDOMNamedNode nnode = (PDOMNamedNode) node;
+            if (!nnode.mayHaveChildren())
+                return false;
+            // The children of unscoped enumerations are not visited when looking for simple names.
+            if (patterns.length == 1 && nnode instanceof ICPPEnumeration && !((ICPPEnumeration) nnode).isScoped())
+                return false;
+            if (i >= 0) {
+                if (!patterns[i].matcher(new String(nnode.getNameCharArray())).matches())
+                    return false;
+                i--;
+            } else if (isFullyQualified) {
+                return false;
+            }
+        }
+        return i < 0;
+    }
+
+    /**
+     * Returns the trigrams every string matching the pattern has to contain, or {@code null} if
+     * there are none. The analysis is conservative, a literal sequence ends at any construct that
+     * is not a plain character, and patterns with alternatives or embedded flags are not analyzed.
+     */
+    private static int[] extractRequiredTrigrams(Pattern pattern) {
+        final String p = pattern.pattern();
+        final int flags = pattern.flags() & ~(Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL | Pattern.UNIX_LINES);
+        if (flags == Pattern.LITERAL) {
+            int[] trigrams = TrigramIndex.getTrigrams(p.toCharArray());
+            return trigrams.length == 0 ? null : trigrams;
+        }
+        if (flags != 0)
+            return null;
+        final int len = p.length();
+        final List<char[]> literals = new ArrayList<>();
+        final StringBuilder run = new StringBuilder();
+        for (int i = 0; i < len; i++) {
+            char c = p.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (++i == len)
+                        return null;
+                    c = p.charAt(i);
+                    if (c == 'Q') {
+                        //$NON-NLS-1$
+                        int end = p.indexOf("\\E", i + 1);
+                        if (end < 0)
+                            end = len;
+                        run.append(p, i + 1, end);
+                        i = end + 1;
+                    } else if (Character.isLetterOrDigit(c)) {
+                        // Predefined character classes and boundaries, escapes with arguments are not analyzed.
+                        //$NON-NLS-1$
+                        if ("dDhHsSvVwWbBAGzZRX".indexOf(c) < 0)
+                            return null;
+                        endLiteral(run, literals);
+                    } else {
+                        run.append(c);
+                    }
+                    break;
+                case '[':
+                    endLiteral(run, literals);
+                    i = skipCharacterClass(p, i);
+                    if (i < 0)
+                        return null;
+                    break;
+                case '(':
+                    endLiteral(run, literals);
+                    i = skipGroup(p, i);
+                    if (i < 0)
+                        return null;
+                    break;
+                case '*':
+                case '?':
+                case '{':
+                    // The quantified character is optional.
+                    if (run.length() > 0)
+                        run.setLength(run.length() - 1);
+                    endLiteral(run, literals);
+                    if (c == '{') {
+                        i = p.indexOf('}', i);
+                        if (i < 0)
+                            return null;
+                    }
+                    i = skipQuantifierMode(p, i);
+                    break;
+                case '+':
+                    endLiteral(run, literals);
+                    i = skipQuantifierMode(p, i);
+                    break;
+                case '.':
+                case '^':
+                case '$':
+                    endLiteral(run, literals);
+                    break;
+                case '|':
+                case ')':
+                    return null;
+                default:
+                    run.append(c);
+                    break;
+            }
+        }
+        endLiteral(run, literals);
+        Set<Integer> trigrams = new HashSet<>();
+        for (char[] literal : literals) {
+            for (int trigram : TrigramIndex.getTrigrams(literal)) {
+                trigrams.add(trigram);
+            }
+        }
+        if (trigrams.isEmpty())
+            return null;
+        int[] result = new int[trigrams.size()];
+        int i = 0;
+        for (int trigram : trigrams) {
+            result[i++] = trigram;
+        }
+        return result;
+    }
+
+    private static void endLiteral(StringBuilder run, List<char[]> literals) {
+        if (run.length() >= 3) {
+            char[] literal = new char[run.length()];
+            run.getChars(0, literal.length, literal, 0);
+            literals.add(literal);
+        }
+        run.setLength(0);
+    }
+
+    private static int skipQuantifierMode(String p, int i) {
+        // Reluctant and possessive quantifiers.
+        if (i + 1 < p.length() && (p.charAt(i + 1) == '?' || p.charAt(i + 1) == '+'))
+            return i + 1;
+        return i;
+    }
+
+    /**
+     * Returns the index of the bracket closing the character class starting at {@code i},
+     * or -1 if it cannot be determined.
+     */
+    private static int skipCharacterClass(String p, int i) {
+        final int len = p.length();
+        int depth = 0;
+        for (; i < len; i++) {
+            char c = p.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < len && p.charAt(i + 1) == 'Q') {
+                    //$NON-NLS-1$
+                    i = p.indexOf("\\E", i + 2);
+                    if (i < 0)
+                        return -1;
+                }
+                i++;
+            } else if (c == '[') {
+                depth++;
+                if (i + 1 < len && p.charAt(i + 1) == '^')
+                    i++;
+                // A closing bracket at the start of a class is a literal.
+                if (i + 1 < len && p.charAt(i + 1) == ']')
+                    i++;
+            } else if (c == ']') {
+                if (--depth == 0)
+                    return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the parenthesis closing the group starting at {@code i}, or -1 if it
+     * cannot be determined or the group may change the flags of the pattern.
+     */
+    private static int skipGroup(String p, int i) {
+        final int len = p.length();
+        int depth = 0;
+        for (; i < len; i++) {
+            char c = p.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 < len && p.charAt(i + 1) == 'Q') {
+                        //$NON-NLS-1$
+                        i = p.indexOf("\\E", i + 2);
+                        if (i < 0)
+                            return -1;
+                    }
+                    i++;
+                    break;
+                case '[':
+                    i = skipCharacterClass(p, i);
+                    if (i < 0)
+                        return -1;
+                    break;
+                case '(':
+                    if (i + 2 < len && p.charAt(i + 1) == '?' && (Character.isLetter(p.charAt(i + 2)) || p.charAt(i + 2) == '-'))
+                        return -1;
+                    depth++;
+                    break;
+                case ')':
+                    if (--depth == 0)
+                        return i;
+                    break;
+            }
+        }
+        return -1;
+    }
+
     @Override
     public IIndexFragmentBinding[] findMacroContainers(Pattern pattern, IndexFilter filter, IProgressMonitor monitor) throws CoreException {
         if (monitor == null) {
@@ -1019,29 +1341,94 @@ public class PDOM extends PlatformObject implements IPDOM {
 
     // Read-write lock rules. Readers don't conflict with other readers,
     // Writers conflict with readers, and everyone conflicts with writers.
+    // Readers increment one of several counters and check fWriteLocked afterwards, whereas a writer sets
+    // fWriteLocked and checks the counters afterwards. Thus readers synchronize on the mutex only when
+    // they encounter a writer. The state of the writer is changed while holding the mutex, only.
     private final Object mutex = new Object();
 
-    private int lockCount;
+    // Each counter is padded to a cache line of its own.
+    private static final int READ_LOCK_COUNTER_SPACING = 16;
+
+    private static final int READ_LOCK_COUNTERS = computeReadLockCounters();
+
+    // Read locks are counted by the counter of the acquiring thread, they may be released by another thread.
+    private final AtomicIntegerArray fReadLockCounters = new AtomicIntegerArray(READ_LOCK_COUNTERS * READ_LOCK_COUNTER_SPACING);
+
+    private volatile boolean fWriteLocked;
+
+    // Read locks the writer gave up when acquiring the write lock, they remain in fReadLockCounters.
+    private int fWriterReadLocks;
+
+    private volatile int waitingWriters;
 
     private int waitingReaders;
 
-    private long lastWriteAccess = 0;
+    private volatile long lastWriteAccess = 0;
 
-    private long lastReadAccess = 0;
+    private volatile long lastReadAccess = 0;
 
     private long timeWriteLockAcquired;
 
+    private final LongAdder fLockWaitCount = new LongAdder();
+
+    private final LongAdder fLockWaitTime = new LongAdder();
+
+    private static int computeReadLockCounters() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        int counters = 1;
+        while (counters < 2 * processors && counters < 64) {
+            counters <<= 1;
+        }
+        return counters;
+    }
+
+    private static int getReadLockCounter() {
+        return ((int) Thread.currentThread().getId() & (READ_LOCK_COUNTERS - 1)) * READ_LOCK_COUNTER_SPACING;
+    }
+
+    private int getReadLockCount() {
+        int count = 0;
+        for (int i = 0; i < READ_LOCK_COUNTERS; i++) {
+            count += fReadLockCounters.get(i * READ_LOCK_COUNTER_SPACING);
+        }
+        return count;
+    }
+
+    private boolean isLocked() {
+        return fWriteLocked || getReadLockCount() != 0;
+    }
+
+    private void recordLockWait(long startNanos) {
+        fLockWaitCount.increment();
+        fLockWaitTime.add(System.nanoTime() - startNanos);
+    }
+
     @Override
     public void acquireReadLock() throws InterruptedException {
+        if (!sDEBUG_LOCKS) {
+            final int counter = getReadLockCounter();
+            fReadLockCounters.incrementAndGet(counter);
+            if (!fWriteLocked) {
+                db.setLocked(true);
+                return;
+            }
+            // A writer holds the lock or is about to acquire it.
+            fReadLockCounters.decrementAndGet(counter);
+        }
         long t = sDEBUG_LOCKS ? System.nanoTime() : 0;
         synchronized (mutex) {
             ++waitingReaders;
             try {
-                while (lockCount < 0) mutex.wait();
+                if (fWriteLocked) {
+                    final long start = System.nanoTime();
+                    while (fWriteLocked) mutex.wait();
+                    recordLockWait(start);
+                }
             } finally {
                 --waitingReaders;
             }
-            ++lockCount;
+            // No writer can intervene while we hold the mutex.
+            fReadLockCounters.incrementAndGet(getReadLockCounter());
             db.setLocked(true);
             if (sDEBUG_LOCKS) {
                 t = (System.nanoTime() - t) / 1000000;
@@ -1056,18 +1443,26 @@ public class PDOM extends PlatformObject implements IPDOM {
 
     @Override
     public void releaseReadLock() {
-        synchronized (mutex) {
-            //$NON-NLS-1$
-            assert lockCount > 0 : "No lock to release";
-            if (sDEBUG_LOCKS) {
+        if (sDEBUG_LOCKS) {
+            synchronized (mutex) {
+                //$NON-NLS-1$
+                assert getReadLockCount() > 0 : "No lock to release";
                 decReadLock(fLockDebugging);
             }
-            lastReadAccess = System.currentTimeMillis();
-            if (lockCount > 0)
-                --lockCount;
-            mutex.notifyAll();
-            db.setLocked(lockCount != 0);
         }
+        final long now = System.currentTimeMillis();
+        if (lastReadAccess != now) {
+            lastReadAccess = now;
+        }
+        fReadLockCounters.decrementAndGet(getReadLockCounter());
+        if (waitingWriters > 0) {
+            synchronized (mutex) {
+                mutex.notifyAll();
+            }
+        }
+        // The database stays marked as locked, the flag cannot be maintained without
+        // synchronizing the readers.
+
         // A lock release probably means that some AST is going away. The result cache has to be
         // cleared since it may contain objects belonging to the AST that is going away. A failure
         // to release an AST object would cause a memory leak since the whole AST would remain
@@ -1100,31 +1495,44 @@ public class PDOM extends PlatformObject implements IPDOM {
             }
             if (giveupReadLocks > 0) {
                 // give up on read locks
+                final int readLocks = getReadLockCount();
                 //$NON-NLS-1$
-                assert lockCount >= giveupReadLocks : "Not enough locks to release";
-                if (lockCount < giveupReadLocks) {
-                    giveupReadLocks = lockCount;
+                assert readLocks >= giveupReadLocks : "Not enough locks to release";
+                if (readLocks < giveupReadLocks) {
+                    giveupReadLocks = readLocks;
                 }
             } else {
                 giveupReadLocks = 0;
             }
             // Let the readers go first
             long start = sDEBUG_LOCKS ? System.currentTimeMillis() : 0;
+            long waitStart = 0;
             int count = 0;
-            while (lockCount > giveupReadLocks || waitingReaders > 0) {
-                mutex.wait(CANCELLATION_CHECK_INTERVAL);
-                if (monitor != null && monitor.isCanceled()) {
-                    throw new OperationCanceledException();
-                }
-                count++;
-                if (monitor != null && count == LONG_WRITE_LOCK_REPORT_THRESHOLD / CANCELLATION_CHECK_INTERVAL) {
-                    monitor.subTask(Messages.PDOM_waitingForWriteLock);
-                }
-                if (sDEBUG_LOCKS) {
-                    start = reportBlockedWriteLock(start, giveupReadLocks);
+            ++waitingWriters;
+            try {
+                while (waitingReaders > 0 || !tryAcquireWriteLock(giveupReadLocks)) {
+                    if (waitStart == 0) {
+                        waitStart = System.nanoTime();
+                    }
+                    mutex.wait(CANCELLATION_CHECK_INTERVAL);
+                    if (monitor != null && monitor.isCanceled()) {
+                        throw new OperationCanceledException();
+                    }
+                    count++;
+                    if (monitor != null && count == LONG_WRITE_LOCK_REPORT_THRESHOLD / CANCELLATION_CHECK_INTERVAL) {
+                        monitor.subTask(Messages.PDOM_waitingForWriteLock);
+                    }
+                    if (sDEBUG_LOCKS) {
+                        start = reportBlockedWriteLock(start, giveupReadLocks);
+                    }
                 }
+            } finally {
+                --waitingWriters;
             }
-            lockCount = -1;
+            if (waitStart != 0) {
+                recordLockWait(waitStart);
+            }
+            fWriterReadLocks = giveupReadLocks;
             if (sDEBUG_LOCKS)
                 timeWriteLockAcquired = System.currentTimeMillis();
             db.setExclusiveLock();
@@ -1134,6 +1542,22 @@ public class PDOM extends PlatformObject implements IPDOM {
             monitor.subTask("");
     }
 
+    /**
+     * Sets fWriteLocked if there are no other readers, must be called while holding the mutex.
+     */
+    private boolean tryAcquireWriteLock(int giveupReadLocks) {
+        if (fWriteLocked) {
+            return false;
+        }
+        fWriteLocked = true;
+        // Readers that have not seen fWriteLocked are visible in the counters.
+        if (getReadLockCount() <= giveupReadLocks) {
+            return true;
+        }
+        fWriteLocked = false;
+        return false;
+    }
+
     final public void releaseWriteLock() {
         releaseWriteLock(0, true);
     }
@@ -1144,12 +1568,14 @@ public class PDOM extends PlatformObject implements IPDOM {
         if (establishReadLocks == 0) {
             clearResultCache();
         }
+        // The decoded objects may be stale after a write, they survive read locks only.
+        fDecodedCache.clear();
         try {
             db.giveUpExclusiveLock(flush);
         } catch (CoreException e) {
             CCorePlugin.log(e);
         }
-        assert lockCount == -1;
+        assert fWriteLocked;
         if (!fEvent.isTrivial())
             lastWriteAccess = System.currentTimeMillis();
         final ChangeEvent event = fEvent;
@@ -1162,10 +1588,13 @@ public class PDOM extends PlatformObject implements IPDOM {
                 }
                 decWriteLock(establishReadLocks);
             }
-            if (lockCount < 0)
-                lockCount = establishReadLocks;
+            if (fWriteLocked) {
+                fReadLockCounters.addAndGet(getReadLockCounter(), establishReadLocks - fWriterReadLocks);
+                fWriterReadLocks = 0;
+                db.setLocked(establishReadLocks != 0);
+                fWriteLocked = false;
+            }
             mutex.notifyAll();
-            db.setLocked(lockCount != 0);
         }
         fireChange(event);
     }
@@ -1177,6 +1606,16 @@ public class PDOM extends PlatformObject implements IPDOM {
         }
     }
 
+    @Override
+    public long getLockWaitCount() {
+        return fLockWaitCount.sum();
+    }
+
+    @Override
+    public long getLockWaitTime() {
+        return fLockWaitTime.sum() / 1000000;
+    }
+
     @Override
     public long getLastWriteAccess() {
         return lastWriteAccess;
@@ -1518,10 +1957,12 @@ public class PDOM extends PlatformObject implements IPDOM {
     private void clearCaches() {
         fileIndex = null;
         tagIndex = null;
+        nameTrigramIndex = null;
         indexOfDefectiveFiles = null;
         indexOfFiledWithUnresolvedIncludes = null;
         fLinkageIDCache.clear();
         clearResultCache();
+        fDecodedCache.clear();
     }
 
     @Override
@@ -1529,24 +1970,26 @@ public class PDOM extends PlatformObject implements IPDOM {
         synchronized (fResultCache) {
             fResultCache.clear();
         }
-        synchronized (fVariableResultCache) {
-            fVariableResultCache.clear();
-        }
     }
 
     @Override
     public long getCacheHits() {
-        return db.getCacheHits();
+        // Chunk cache and decoded object cache.
+        return db.getCacheHits() + fDecodedCacheHits.sum();
     }
 
     @Override
     public long getCacheMisses() {
-        return db.getCacheMisses();
+        return db.getCacheMisses() + fDecodedCacheMisses.sum();
     }
 
     @Override
     public void resetCacheCounters() {
         db.resetCacheCounters();
+        fDecodedCacheHits.reset();
+        fDecodedCacheMisses.reset();
+        fLockWaitCount.reset();
+        fLockWaitTime.reset();
     }
 
     protected void flush() throws CoreException {
@@ -1582,26 +2025,34 @@ public class PDOM extends PlatformObject implements IPDOM {
         }
     }
 
-    public IValue getCachedVariableResult(Long key) {
-        synchronized (fVariableResultCache) {
-            WeakReference<IValue> variableResult = fVariableResultCache.get(key);
-            if (variableResult != null) {
-                return variableResult.get();
-            }
+    /**
+     * Returns the type, value or evaluation that has been unmarshalled from the given record offset,
+     * or <code>null</code> if it is not cached. The cache is not used while the write lock is held.
+     */
+    public Object getCachedDecodedObject(long offset) {
+        if (fWriteLocked)
             return null;
+        Object result = fDecodedCache.get(offset);
+        if (result != null) {
+            fDecodedCacheHits.increment();
+        } else {
+            fDecodedCacheMisses.increment();
         }
+        return result;
     }
 
-    public void removeCachedVariableResult(Long key) {
-        synchronized (fVariableResultCache) {
-            fVariableResultCache.remove(key);
-        }
-    }
-
-    public void putCachedVariableResult(Long key, IValue result) {
-        synchronized (fVariableResultCache) {
-            fVariableResultCache.put(key, new WeakReference<>(result));
+    public void putCachedDecodedObject(long offset, Object result) {
+        if (fWriteLocked || result == null)
+            return;
+        if (fDecodedCache.size() >= DECODED_CACHE_LIMIT) {
+            // Make room by dropping an arbitrary half, recently used objects come back on their next use.
+            int toRemove = DECODED_CACHE_LIMIT / 2;
+            for (Iterator<Long> it = fDecodedCache.keySet().iterator(); toRemove > 0 && it.hasNext(); toRemove--) {
+                it.next();
+                it.remove();
+            }
         }
+        fDecodedCache.put(offset, result);
     }
 
     public String createKeyForCache(long record, char[] name) {
@@ -1890,7 +2341,7 @@ public class PDOM extends PlatformObject implements IPDOM {
         if (now >= start + BLOCKED_WRITE_LOCK_OUTPUT_INTERVAL) {
             System.out.println();
             System.out.println("Blocked writeLock");
-            System.out.println("  lockcount= " + lockCount + ", giveupReadLocks=" + giveupReadLocks + ", waitingReaders=" + waitingReaders);
+            System.out.println("  readlocks= " + getReadLockCount() + ", giveupReadLocks=" + giveupReadLocks + ", waitingReaders=" + waitingReaders);
             outputReadLocks(fLockDebugging);
             start = now;
         }
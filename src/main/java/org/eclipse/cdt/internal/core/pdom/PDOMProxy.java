@@ -159,6 +159,20 @@ public class PDOMProxy implements IPDOM {
         return 0;
     }
 
+    @Override
+    public synchronized long getLockWaitCount() {
+        if (fDelegate != null)
+            return fDelegate.getLockWaitCount();
+        return 0;
+    }
+
+    @Override
+    public synchronized long getLockWaitTime() {
+        if (fDelegate != null)
+            return fDelegate.getLockWaitTime();
+        return 0;
+    }
+
     @Deprecated
     @Override
     public synchronized IIndexFragmentFile getFile(int linkageID, IIndexFileLocation location) throws CoreException {
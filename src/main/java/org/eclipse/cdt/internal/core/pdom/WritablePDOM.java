@@ -64,6 +64,10 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
 
     private FileContentKey uncommittedKey;
 
+    private boolean fMergingDatabases;
+
+    private boolean fBulkLoading;
+
     public WritablePDOM(File dbPath, IIndexLocationConverter locationConverter, Map<String, IPDOMLinkageFactory> linkageFactoryMappings) throws CoreException {
         this(dbPath, locationConverter, ChunkCache.getSharedInstance(), linkageFactoryMappings);
     }
@@ -72,6 +76,14 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
         super(dbPath, locationConverter, cache, linkageFactoryMappings);
     }
 
+    public WritablePDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache, boolean memoryMapped, Map<String, IPDOMLinkageFactory> linkageFactoryMappings) throws CoreException {
+        super(dbPath, locationConverter, cache, memoryMapped, linkageFactoryMappings);
+    }
+
+    public WritablePDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache, boolean memoryMapped, int chunkSize, Map<String, IPDOMLinkageFactory> linkageFactoryMappings) throws CoreException {
+        super(dbPath, locationConverter, cache, memoryMapped, chunkSize, linkageFactoryMappings);
+    }
+
     public void setASTFilePathResolver(ASTFilePathResolver resolver) {
         fPathResolver = resolver;
     }
@@ -164,6 +176,63 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
         }
     }
 
+    /**
+     * Copies the content of a file of another database to an empty file of this database.
+     * The file has to be created via {@link #addFile(int, IIndexFileLocation, ISignificantMacros)}
+     * and must not have content, yet.
+     *
+     * <b>A write-lock must be obtained before calling this method</b>
+     *
+     * @param file the file of this database receiving the content
+     * @param sourceFile the file of the other database, with the same linkage
+     * @throws CoreException
+     * @see #setMergingDatabases(boolean)
+     */
+    public void copyFileContent(IIndexFragmentFile file, IIndexFragmentFile sourceFile) throws CoreException {
+        assert file.getIndexFragment() == this && sourceFile.getIndexFragment() != this;
+        PDOMFile pdomFile = (PDOMFile) file;
+        pdomFile.copyContentsFrom((PDOMFile) sourceFile);
+        if (pdomFile.getTimestamp() == 0)
+            getIndexOfDefectiveFiles().insert(pdomFile.getRecord());
+        if (pdomFile.hasUnresolvedInclude())
+            getIndexOfFilesWithUnresolvedIncludes().insert(pdomFile.getRecord());
+        fEvent.fFilesWritten.add(pdomFile.getLocation());
+    }
+
+    /**
+     * Enables the mode for merging other databases into this one. In this mode bindings local to
+     * a file of another database are adapted to the corresponding file of this database, rather
+     * than being ignored.
+     */
+    public void setMergingDatabases(boolean value) {
+        fMergingDatabases = value;
+    }
+
+    public boolean isMergingDatabases() {
+        return fMergingDatabases;
+    }
+
+    /**
+     * Enables or disables bulk loading of indexes that are empty, typically after the database
+     * has been cleared for a rebuild. While bulk loading, nested bindings are buffered and the
+     * index of nested bindings is built bottom-up when bulk loading is disabled. Until then,
+     * searches for bindings via patterns do not find the buffered bindings.
+     *
+     * <b>A write-lock must be obtained before disabling bulk loading</b>
+     */
+    public void setBulkLoading(boolean value) throws CoreException {
+        fBulkLoading = value;
+        if (!value) {
+            for (PDOMLinkage linkage : getLinkageImpls()) {
+                linkage.finishBulkLoading();
+            }
+        }
+    }
+
+    public boolean isBulkLoading() {
+        return fBulkLoading;
+    }
+
     @Override
     public void clearFile(IIndexFragmentFile file) throws CoreException {
         assert file.getIndexFragment() == this;
@@ -226,15 +295,19 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
         });
         clearFileIndex();
         final List<PDOMFile> notConverted = new ArrayList<>();
+        long[] converted = new long[pdomfiles.size()];
+        int count = 0;
         for (PDOMFile file : pdomfiles) {
             String internalFormat = newConverter.toInternalFormat(file.getLocation());
             if (internalFormat != null) {
                 file.setInternalLocation(internalFormat);
-                getFileIndex().insert(file.getRecord());
+                converted[count++] = file.getRecord();
             } else {
                 notConverted.add(file);
             }
         }
+        // The file index is empty, build it at once.
+        getFileIndex().bulkInsert(converted, count);
         // remove content where converter returns null
         for (PDOMFile file : notConverted) {
             file.convertIncludersToUnresolved();
@@ -40,6 +40,9 @@ public class BTree {
 
     final public long rootPointer;
 
+    // Degree for databases with the default chunk size.
+    private static final int DEFAULT_DEGREE = 8;
+
     protected final int DEGREE;
 
     protected final int MAX_RECORDS;
@@ -55,7 +58,15 @@ public class BTree {
     protected final IBTreeComparator cmp;
 
     public BTree(Database db, long rootPointer, IBTreeComparator cmp) {
-        this(db, rootPointer, 8, cmp);
+        this(db, rootPointer, getDefaultDegree(db), cmp);
+    }
+
+    /**
+     * Returns the degree of B-trees that don't specify one. It grows with the chunk size of the database,
+     * such that larger chunks are filled with fewer, wider nodes.
+     */
+    public static int getDefaultDegree(Database db) {
+        return DEFAULT_DEGREE * (db.getChunkSize() / Database.CHUNK_SIZE);
     }
 
     /**
@@ -204,6 +215,118 @@ public class BTree {
         }
     }
 
+    /**
+     * Returns whether the b-tree contains no records.
+     */
+    public boolean isEmpty() throws CoreException {
+        return getRoot() == 0;
+    }
+
+    /**
+     * Inserts the given records into the b-tree. If the b-tree is empty the records are sorted
+     * and the b-tree is built bottom-up from nodes that are filled almost completely, which is
+     * much cheaper than inserting the records one by one. Otherwise, or if there is just a single
+     * record, they are inserted one by one. Of records that compare equal only the first one is
+     * inserted, as with {@link #insert(long)}.
+     *
+     * @param records array holding the offsets of the records, its content is modified.
+     * @param length the number of records in the array
+     */
+    public void bulkInsert(long[] records, int length) throws CoreException {
+        if (length < 2 || !isEmpty()) {
+            for (int i = 0; i < length; i++) {
+                insert(records[i]);
+            }
+            return;
+        }
+        sort(records, length);
+        // Remove duplicates, keep the first record.
+        int n = 1;
+        for (int i = 1; i < length; i++) {
+            if (cmp.compare(records[n - 1], records[i]) != 0) {
+                records[n++] = records[i];
+            }
+        }
+        // Distribute the records evenly among the minimal number of leaves, each pair of adjacent
+        // leaves is separated by a record moved to the parent level.
+        int nodeCount = (n + MAX_RECORDS + 1) / (MAX_RECORDS + 1);
+        long[] nodes = new long[nodeCount];
+        long[] separators = new long[nodeCount - 1];
+        int keys = n - (nodeCount - 1);
+        int pos = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            int count = keys / nodeCount + (i < keys % nodeCount ? 1 : 0);
+            long node = allocateNode();
+            Chunk chunk = db.getChunk(node);
+            for (int j = 0; j < count; j++) {
+                putRecord(chunk, node, j, records[pos++]);
+            }
+            nodes[i] = node;
+            if (i < nodeCount - 1) {
+                separators[i] = records[pos++];
+            }
+        }
+        // Build the upper levels the same way, up to the root.
+        while (nodeCount > 1) {
+            int parentCount = (nodeCount + MAX_CHILDREN - 1) / MAX_CHILDREN;
+            long[] parents = new long[parentCount];
+            long[] parentSeparators = new long[parentCount - 1];
+            pos = 0;
+            for (int i = 0; i < parentCount; i++) {
+                int count = nodeCount / parentCount + (i < nodeCount % parentCount ? 1 : 0);
+                long node = allocateNode();
+                Chunk chunk = db.getChunk(node);
+                for (int j = 0; j < count; j++) {
+                    putChild(chunk, node, j, nodes[pos + j]);
+                    if (j < count - 1) {
+                        putRecord(chunk, node, j, separators[pos + j]);
+                    }
+                }
+                pos += count;
+                parents[i] = node;
+                if (i < parentCount - 1) {
+                    parentSeparators[i] = separators[pos - 1];
+                }
+            }
+            nodes = parents;
+            separators = parentSeparators;
+            nodeCount = parentCount;
+        }
+        db.putRecPtr(rootPointer, nodes[0]);
+    }
+
+    /**
+     * Stable merge sort of the records using the comparator of the b-tree.
+     */
+    private void sort(long[] records, int length) throws CoreException {
+        long[] src = records;
+        long[] dst = new long[length];
+        for (int width = 1; width < length; width *= 2) {
+            for (int lo = 0; lo < length; lo += 2 * width) {
+                int mid = Math.min(lo + width, length);
+                int hi = Math.min(lo + 2 * width, length);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    dst[k++] = cmp.compare(src[i], src[j]) <= 0 ? src[i++] : src[j++];
+                }
+                while (i < mid) {
+                    dst[k++] = src[i++];
+                }
+                while (j < hi) {
+                    dst[k++] = src[j++];
+                }
+            }
+            long[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != records) {
+            System.arraycopy(src, 0, records, 0, length);
+        }
+    }
+
     private void firstInsert(long record) throws CoreException {
         // Create the node and save it as root.
         long root = allocateNode();
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.cdt.internal.core.pdom.db;
+
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * Buffers the records to be inserted into an empty b-tree, such that the b-tree can be built
+ * bottom-up via {@link BTree#bulkInsert(long[], int)} once all of them are known. Until then the
+ * buffered records are not visible in the b-tree.
+ */
+public class BTreeBulkLoader {
+
+    private final BTree fTree;
+
+    private long[] fRecords = new long[1024];
+
+    private int fCount;
+
+    public BTreeBulkLoader(BTree tree) {
+        fTree = tree;
+    }
+
+    /**
+     * Adds a record to be inserted.
+     */
+    public void add(long record) {
+        if (fCount == fRecords.length) {
+            long[] newRecords = new long[Math.max(1024, fCount * 2)];
+            System.arraycopy(fRecords, 0, newRecords, 0, fCount);
+            fRecords = newRecords;
+        }
+        fRecords[fCount++] = record;
+    }
+
+    /**
+     * Removes a buffered record.
+     * @return whether the record was buffered.
+     */
+    public boolean remove(long record) {
+        // Recently added records are the most likely to be removed.
+        for (int i = fCount - 1; i >= 0; i--) {
+            if (fRecords[i] == record) {
+                System.arraycopy(fRecords, i + 1, fRecords, i, fCount - i - 1);
+                fCount--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of buffered records.
+     */
+    public int size() {
+        return fCount;
+    }
+
+    /**
+     * Inserts the buffered records into the b-tree and clears the buffer.
+     */
+    public void finish() throws CoreException {
+        long[] records = fRecords;
+        int count = fCount;
+        fRecords = new long[0];
+        fCount = 0;
+        fTree.bulkInsert(records, count);
+    }
+}
@@ -15,16 +15,29 @@
  */
 package org.eclipse.cdt.internal.core.pdom.db;
 
+/**
+ * Page table of the chunks of all databases sharing the cache, evicting chunks with the CLOCK
+ * algorithm. Adding and removing chunks is synchronized on the cache, whereas readers mark hits
+ * on chunks that are already in the cache without locking, see {@link Database#getChunk(long)}.
+ * <p>
+ * Databases may use different chunk sizes, the cache limits the total size of the chunks it holds.
+ */
 public final class ChunkCache {
 
     static public ChunkCache sSharedInstance = new ChunkCache();
 
+    // The chunks in the cache are stored at the indices 0 to fCount - 1.
     public Chunk[] fPageTable;
 
-    public boolean fTableIsFull;
+    public int fCount;
 
+    // Position of the clock hand.
     public int fPointer;
 
+    private long fMaxSize;
+
+    private long fSize;
+
     public static ChunkCache getSharedInstance() {
         return sSharedInstance;
     }
@@ -34,6 +47,7 @@ public final class ChunkCache {
     }
 
     public ChunkCache(long maxSize) {
+        fMaxSize = maxSize;
         fPageTable = new Chunk[computeLength(maxSize)];
     }
 
@@ -45,25 +59,17 @@ public final class ChunkCache {
             chunk.fCacheHitFlag = true;
             return;
         }
-        if (fTableIsFull) {
+        final int size = chunk.fDatabase.getChunkSize();
+        while (fCount > 0 && (fCount == fPageTable.length || fSize + size > fMaxSize)) {
             evictChunk();
-            chunk.fCacheIndex = fPointer;
-            fPageTable[fPointer] = chunk;
-        } else {
-            chunk.fCacheIndex = fPointer;
-            fPageTable[fPointer] = chunk;
-            fPointer++;
-            if (fPointer == fPageTable.length) {
-                fPointer = 0;
-                fTableIsFull = true;
-            }
         }
+        chunk.fCacheIndex = fCount;
+        fPageTable[fCount++] = chunk;
+        fSize += size;
     }
 
     /**
      * Evicts a chunk from the page table and the chunk table.
-     * After this method returns, {@link #fPointer}  will contain
-     * the index of the evicted chunk within the page table.
      */
     private void evictChunk() {
         /*
@@ -74,14 +80,16 @@ public final class ChunkCache {
 		 * chunk in the current slot.
 		 */
         while (true) {
+            if (fPointer >= fCount) {
+                fPointer = 0;
+            }
             Chunk chunk = fPageTable[fPointer];
             if (chunk.fCacheHitFlag) {
                 chunk.fCacheHitFlag = false;
-                fPointer = (fPointer + 1) % fPageTable.length;
+                fPointer++;
             } else {
                 chunk.fDatabase.releaseChunk(chunk);
-                chunk.fCacheIndex = -1;
-                fPageTable[fPointer] = null;
+                removeAt(fPointer);
                 return;
             }
         }
@@ -90,55 +98,50 @@ public final class ChunkCache {
     public synchronized void remove(Chunk chunk) {
         final int idx = chunk.fCacheIndex;
         if (idx >= 0) {
-            if (fTableIsFull) {
-                fPointer = fPageTable.length - 1;
-                fTableIsFull = false;
-            } else {
-                fPointer--;
-            }
-            chunk.fCacheIndex = -1;
-            final Chunk move = fPageTable[fPointer];
-            fPageTable[idx] = move;
-            move.fCacheIndex = idx;
-            fPageTable[fPointer] = null;
+            removeAt(idx);
         }
     }
 
+    /**
+     * Removes the chunk at the given index by moving the last chunk of the page table into its slot.
+     */
+    private void removeAt(int idx) {
+        final Chunk chunk = fPageTable[idx];
+        fCount--;
+        final Chunk move = fPageTable[fCount];
+        fPageTable[idx] = move;
+        move.fCacheIndex = idx;
+        fPageTable[fCount] = null;
+        chunk.fCacheIndex = -1;
+        fSize -= chunk.fDatabase.getChunkSize();
+    }
+
     /**
      * Returns the maximum size of the chunk cache in bytes.
      */
     public synchronized long getMaxSize() {
-        return (long) fPageTable.length * Database.CHUNK_SIZE;
+        return fMaxSize;
     }
 
     /**
-     * Clears the page table and changes it to hold chunks with
-     * maximum total memory of <code>maxSize</code>.
+     * Changes the page table to hold chunks with maximum total memory of <code>maxSize</code>,
+     * evicting chunks as necessary.
      * @param maxSize the total size of the chunks in bytes.
      */
     public synchronized void setMaxSize(long maxSize) {
+        fMaxSize = maxSize;
         final int newLength = computeLength(maxSize);
-        final int oldLength = fTableIsFull ? fPageTable.length : fPointer;
-        if (newLength > oldLength) {
-            Chunk[] newTable = new Chunk[newLength];
-            System.arraycopy(fPageTable, 0, newTable, 0, oldLength);
-            fTableIsFull = false;
-            fPointer = oldLength;
-            fPageTable = newTable;
-        } else {
-            for (int i = newLength; i < oldLength; i++) {
-                final Chunk chunk = fPageTable[i];
-                chunk.fDatabase.releaseChunk(chunk);
-                chunk.fCacheIndex = -1;
-            }
-            Chunk[] newTable = new Chunk[newLength];
-            System.arraycopy(fPageTable, 0, newTable, 0, newLength);
-            fTableIsFull = true;
-            fPointer = 0;
-            fPageTable = newTable;
+        while (fCount > 0 && (fCount > newLength || fSize > maxSize)) {
+            evictChunk();
         }
+        Chunk[] newTable = new Chunk[newLength];
+        System.arraycopy(fPageTable, 0, newTable, 0, fCount);
+        fPageTable = newTable;
     }
 
+    /**
+     * The page table is large enough to hold chunks of the smallest size.
+     */
     private int computeLength(long maxSize) {
         long maxLength = Math.min(maxSize / Database.CHUNK_SIZE, Integer.MAX_VALUE);
         return Math.max(1, (int) maxLength);
@@ -26,13 +26,16 @@ import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -47,9 +50,10 @@ import org.eclipse.osgi.util.NLS;
  * @author Doug Schaefer
  */
 /*
- * The file encapsulated is divided into Chunks of size CHUNK_SIZE, and a table of contents
- * mapping chunk index to chunk address is maintained. Chunk structure exists only conceptually -
- * it is not a structure that appears in the file.
+ * The file encapsulated is divided into Chunks of the chunk size of the database, and a table of
+ * contents mapping chunk index to chunk address is maintained. Chunk structure exists only
+ * conceptually - it is not a structure that appears in the file. The chunk size is one of
+ * CHUNK_SIZE (the default), 4 * CHUNK_SIZE or 16 * CHUNK_SIZE and is fixed when the file is created.
  *
  * ===== The first chunk is used by Database itself for house-keeping purposes and has structure
  *
@@ -60,14 +64,19 @@ import org.eclipse.osgi.util.NLS;
  * ..               | ...
  * INT_SIZE * m (1) | pointer to head of linked list of blocks of size (m + MIN_BLOCK_DELTAS) * BLOCK_SIZE_DELTA
  * DATA_AREA        | undefined (PDOM stores its own house-keeping data in this area)
+ * CHUNKS_USED_OFFSET| number of chunks in use (0 in databases that predate it)
+ * CHUNK_SIZE_OFFSET| chunk size (0 in databases that predate configurable chunk sizes)
+ * CHUNK_SIZE + INT_SIZE * n (2)| pointer to head of linked list of blocks of size (n + MAX_BLOCK_DELTAS + 1) * BLOCK_SIZE_DELTA
  *
  * (1) where 2 <= m <= CHUNK_SIZE / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 1
+ * (2) only for chunk sizes larger than CHUNK_SIZE, where 0 <= n < chunk size / BLOCK_SIZE_DELTA - MAX_BLOCK_DELTAS
  *
  * ===== block structure
  *
  * offset            content
  * 	                 _____________________________
- * 0                | size of block (negative indicates in use, positive unused) (2 bytes)
+ * 0                | size of block (negative indicates in use, positive unused) (2 bytes), in
+ *                  | units of BLOCK_SIZE_DELTA for chunk sizes larger than CHUNK_SIZE
  * PREV_OFFSET      | pointer to previous block (of same size) (only in free blocks)
  * NEXT_OFFSET      | pointer to next block (of same size) (only in free blocks)
  *
@@ -95,12 +104,27 @@ public class Database {
 
 	public static final int VERSION_OFFSET = 0;
 	public static final int DATA_AREA = (CHUNK_SIZE / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 2) * INT_SIZE;
+	public static final int CHUNK_SIZE_OFFSET = CHUNK_SIZE - INT_SIZE;
+	/** A memory mapped file may be longer than the chunks in use when it could not be truncated. */
+	public static final int CHUNKS_USED_OFFSET = CHUNK_SIZE_OFFSET - INT_SIZE;
+	/** The largest supported chunk size, a block of that size still has its size fit into a short. */
+	public static final int MAX_CHUNK_SIZE = CHUNK_SIZE * 16;
 
 	private static final int BLOCK_PREV_OFFSET = BLOCK_HEADER_SIZE;
 	private static final int BLOCK_NEXT_OFFSET = BLOCK_HEADER_SIZE + INT_SIZE;
 
+	/** Size of the regions of the file that are mapped at once when the database is memory mapped. */
+	public static final int MAPPED_SEGMENT_SIZE = 1024 * 1024 * 64;
+
 	private final File fLocation;
 	private final boolean fReadOnly;
+	private final boolean fMemoryMapped;
+	private final int fChunkSize;
+	private final int fChunkSizeBits;
+	private final int fMaxBlockDeltas;
+	private final int fMaxMallocSize;
+	// Block sizes are stored in units of BLOCK_SIZE_DELTA when they do not fit into a short.
+	private final int fBlockSizeShift;
 	private RandomAccessFile fFile;
 	private boolean fExclusiveLock; // Necessary for any write operation.
 	private boolean fLocked; // Necessary for any operation.
@@ -108,15 +132,18 @@ public class Database {
 
 	private int fVersion;
 	private final Chunk fHeaderChunk;
-	private Chunk[] fChunks;
+	// Replaced under the lock of fCache, read without the lock by getChunk().
+	private volatile Chunk[] fChunks;
 	private int fChunksUsed;
 	private int fChunksAllocated;
 	private ChunkCache fCache;
+	// Regions of the file mapped into memory, protected by fCache.
+	private MappedByteBuffer[] fSegments = new MappedByteBuffer[0];
 
 	private long malloced;
 	private long freed;
-	private long cacheHits;
-	private long cacheMisses;
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
 
 	/** Soft reference wrapper to keep track of the record for disposed strings. */
 	private static class SoftStringRef extends SoftReference<IString> {
@@ -145,30 +172,105 @@ public class Database {
 	 * @throws CoreException
 	 */
 	public Database(File location, ChunkCache cache, int version, boolean openReadOnly) throws CoreException {
+		this(location, cache, version, openReadOnly, false);
+	}
+
+	/**
+	 * Construct a new Database object, creating a backing file if necessary.
+	 * <p>
+	 * When the database is memory mapped, chunks are views on regions of the file that are mapped
+	 * into memory rather than copies that are read and written with explicit I/O operations. The
+	 * chunk cache still limits the number of chunks that are kept, but evicting and reloading a
+	 * chunk becomes almost free and the operating system decides about paging.
+	 * @param location the local file path for the database
+	 * @param cache the cache to be used optimization
+	 * @param version the version number to store in the database (only applicable for new databases)
+	 * @param openReadOnly whether this Database object will ever need writing to
+	 * @param memoryMapped whether to map the file into memory
+	 * @throws CoreException
+	 */
+	public Database(File location, ChunkCache cache, int version, boolean openReadOnly, boolean memoryMapped)
+			throws CoreException {
+		this(location, cache, version, openReadOnly, memoryMapped, CHUNK_SIZE);
+	}
+
+	/**
+	 * Construct a new Database object, creating a backing file if necessary.
+	 * <p>
+	 * Larger chunks allow for larger blocks to be allocated and reduce the number of chunks a large
+	 * database is divided into, at the expense of memory spent on chunks that are used sparsely.
+	 * @param location the local file path for the database
+	 * @param cache the cache to be used optimization
+	 * @param version the version number to store in the database (only applicable for new databases)
+	 * @param openReadOnly whether this Database object will ever need writing to
+	 * @param memoryMapped whether to map the file into memory
+	 * @param chunkSize the chunk size for a new database, one of CHUNK_SIZE, 4 * CHUNK_SIZE or
+	 *     MAX_CHUNK_SIZE. An existing database keeps the chunk size it was created with.
+	 * @throws CoreException
+	 */
+	public Database(File location, ChunkCache cache, int version, boolean openReadOnly, boolean memoryMapped,
+			int chunkSize) throws CoreException {
+		if (!isSupportedChunkSize(chunkSize)) {
+			throw new IllegalArgumentException("Unsupported chunk size: " + chunkSize); //$NON-NLS-1$
+		}
 		try {
 			fLocation = location;
 			fReadOnly = openReadOnly;
+			fMemoryMapped = memoryMapped;
 			fCache = cache;
 			openFile();
 
-			int nChunksOnDisk = (int) (fFile.length() / CHUNK_SIZE);
+			final long length = fFile.length();
+			if (length >= CHUNK_SIZE) {
+				chunkSize = readChunkSize();
+			}
+			fChunkSize = chunkSize;
+			fChunkSizeBits = Integer.numberOfTrailingZeros(chunkSize);
+			fMaxBlockDeltas = chunkSize / BLOCK_SIZE_DELTA;
+			fMaxMallocSize = fMaxBlockDeltas * BLOCK_SIZE_DELTA - BLOCK_HEADER_SIZE;
+			fBlockSizeShift = chunkSize > Short.MAX_VALUE ? BLOCK_SIZE_DELTA_BITS : 0;
+
+			int nChunksOnDisk = (int) (length / fChunkSize);
 			fHeaderChunk = new Chunk(this, 0);
 			fHeaderChunk.fLocked = true; // Never makes it into the cache, needed to satisfy assertions.
 			if (nChunksOnDisk <= 0) {
 				fVersion = version;
+				fHeaderChunk.putInt(CHUNK_SIZE_OFFSET, fChunkSize);
 				fChunks = new Chunk[1];
 				fChunksUsed = fChunksAllocated = fChunks.length;
 			} else {
 				fHeaderChunk.read();
 				fVersion = fHeaderChunk.getInt(VERSION_OFFSET);
 				fChunks = new Chunk[nChunksOnDisk]; // chunk[0] is unused.
-				fChunksUsed = fChunksAllocated = nChunksOnDisk;
+				fChunksAllocated = nChunksOnDisk;
+				final int chunksUsed = fHeaderChunk.getInt(CHUNKS_USED_OFFSET);
+				fChunksUsed = chunksUsed > 0 && chunksUsed < nChunksOnDisk ? chunksUsed : nChunksOnDisk;
 			}
 		} catch (IOException e) {
 			throw new CoreException(new DBStatus(e));
 		}
 	}
 
+	private static boolean isSupportedChunkSize(int chunkSize) {
+		return chunkSize == CHUNK_SIZE || chunkSize == 4 * CHUNK_SIZE || chunkSize == MAX_CHUNK_SIZE;
+	}
+
+	/**
+	 * Reads the chunk size from the header of an existing database.
+	 */
+	private int readChunkSize() throws IOException, CoreException {
+		final ByteBuffer buf = ByteBuffer.allocate(INT_SIZE);
+		read(buf, CHUNK_SIZE_OFFSET);
+		final int chunkSize = buf.getInt(0);
+		if (chunkSize == 0) {
+			return CHUNK_SIZE;
+		}
+		if (!isSupportedChunkSize(chunkSize)) {
+			databaseCorruptionDetected();
+		}
+		return chunkSize;
+	}
+
 	private void openFile() throws FileNotFoundException {
 		fFile = new RandomAccessFile(fLocation, fReadOnly ? "r" : "rw"); //$NON-NLS-1$ //$NON-NLS-2$
 	}
@@ -199,6 +301,68 @@ public class Database {
 		}
 	}
 
+	/**
+	 * Returns a view on the content of the chunk with the given index, mapping the region of the file
+	 * that contains it if necessary. Must be called while holding the lock of the cache.
+	 */
+	private ByteBuffer mapChunk(int index) throws IOException {
+		assert Thread.holdsLock(fCache);
+		final int chunksPerSegment = MAPPED_SEGMENT_SIZE / fChunkSize;
+		final int segmentIndex = index / chunksPerSegment;
+		if (segmentIndex >= fSegments.length) {
+			MappedByteBuffer[] newSegments = new MappedByteBuffer[segmentIndex + 1];
+			System.arraycopy(fSegments, 0, newSegments, 0, fSegments.length);
+			fSegments = newSegments;
+		}
+		MappedByteBuffer segment = fSegments[segmentIndex];
+		if (segment == null) {
+			final long position = (long) segmentIndex * MAPPED_SEGMENT_SIZE;
+			final FileChannel channel = fFile.getChannel();
+			if (fReadOnly) {
+				// A read-only mapping must not exceed the file.
+				final long size = Math.min(MAPPED_SEGMENT_SIZE, channel.size() - position);
+				segment = channel.map(MapMode.READ_ONLY, position, size);
+			} else {
+				// Grows the file as needed, close() truncates it to the chunks that are in use.
+				segment = channel.map(MapMode.READ_WRITE, position, MAPPED_SEGMENT_SIZE);
+			}
+			fSegments[segmentIndex] = segment;
+		}
+		return segment.slice((index % chunksPerSegment) * fChunkSize, fChunkSize);
+	}
+
+	private Chunk newChunk(int index) throws CoreException {
+		if (!fMemoryMapped) {
+			return new Chunk(this, index);
+		}
+		try {
+			return new Chunk(this, index, mapChunk(index));
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
+		}
+	}
+
+	/**
+	 * Drops the mapped regions of the file, they are unmapped once they are garbage collected.
+	 */
+	private void unmapSegments() {
+		synchronized (fCache) {
+			fSegments = new MappedByteBuffer[0];
+		}
+	}
+
+	private void forceSegments() {
+		final MappedByteBuffer[] segments;
+		synchronized (fCache) {
+			segments = fSegments;
+		}
+		for (MappedByteBuffer segment : segments) {
+			if (segment != null) {
+				segment.force();
+			}
+		}
+	}
+
 	private void reopen(ClosedChannelException e, int attempt) throws ClosedChannelException, FileNotFoundException {
 		// Only if the current thread was not interrupted we try to reopen the file.
 		if (e instanceof ClosedByInterruptException || attempt >= 20) {
@@ -213,6 +377,10 @@ public class Database {
 		long nRead = 0;
 		long position = 0;
 		long size = from.size();
+		if (fMemoryMapped) {
+			// The mapped regions may extend the file beyond the chunks in use.
+			size = Math.min(size, (long) fChunksUsed * fChunkSize);
+		}
 		while (position < size) {
 			nRead = from.transferTo(position, 4096 * 16, target);
 			if (nRead == 0) {
@@ -227,6 +395,21 @@ public class Database {
 		return fVersion;
 	}
 
+	/**
+	 * Returns the size of the chunks of this database in bytes.
+	 */
+	public int getChunkSize() {
+		return fChunkSize;
+	}
+
+	/**
+	 * Returns the largest size that can be passed to {@link #malloc(int)}, which is at least
+	 * {@link #MAX_MALLOC_SIZE}.
+	 */
+	public int getMaxMallocSize() {
+		return fMaxMallocSize;
+	}
+
 	public void setVersion(int version) throws CoreException {
 		assert fExclusiveLock;
 		fHeaderChunk.putInt(VERSION_OFFSET, version);
@@ -243,13 +426,15 @@ public class Database {
 
 		fVersion = version;
 		// Clear the first chunk.
-		fHeaderChunk.clear(0, CHUNK_SIZE);
+		fHeaderChunk.clear(0, fChunkSize);
+		fHeaderChunk.putInt(CHUNK_SIZE_OFFSET, fChunkSize);
 		// Chunks have been removed from the cache, so we may just reset the array of chunks.
 		fChunks = new Chunk[] { null };
 		fChunksUsed = fChunksAllocated = fChunks.length;
+		unmapSegments();
 		try {
 			fHeaderChunk.flush(); // Zero out header chunk.
-			fFile.getChannel().truncate(CHUNK_SIZE); // Truncate database.
+			fFile.getChannel().truncate(fChunkSize); // Truncate database.
 		} catch (IOException e) {
 			CCorePlugin.log(e);
 		}
@@ -290,27 +475,67 @@ public class Database {
 	 * @throws CoreException
 	 */
 	public Chunk getChunk(long offset) throws CoreException {
-		if (offset < CHUNK_SIZE) {
+		if (offset < fChunkSize) {
 			return fHeaderChunk;
 		}
-		long long_index = offset / CHUNK_SIZE;
+		long long_index = offset >>> fChunkSizeBits;
 		assert long_index < Integer.MAX_VALUE;
+		assert fLocked;
+		final int index = (int) long_index;
+
+		if (!fExclusiveLock) {
+			// Readers don't need to synchronize on the cache for chunks that are in the cache, a
+			// concurrent eviction leaves the content of an unlocked chunk intact.
+			final Chunk[] chunks = fChunks;
+			if (index >= 0 && index < chunks.length) {
+				final Chunk chunk = chunks[index];
+				// Reading fCacheIndex makes the content read by the thread that added the chunk visible.
+				if (chunk != null && chunk.fCacheIndex >= 0) {
+					if (!chunk.fCacheHitFlag) {
+						chunk.fCacheHitFlag = true;
+					}
+					cacheHits.increment();
+					return chunk;
+				}
+			}
+		}
 
 		synchronized (fCache) {
-			assert fLocked;
-			final int index = (int) long_index;
 			if (index < 0 || index >= fChunks.length) {
 				databaseCorruptionDetected();
 			}
-			Chunk chunk = fChunks[index];
-			if (chunk == null) {
-				cacheMisses++;
-				chunk = new Chunk(this, index);
-				chunk.read();
+			final Chunk chunk = fChunks[index];
+			if (chunk != null) {
+				if (fMemoryMapped) {
+					prepareMappedWrite();
+				}
+				cacheHits.increment();
+				fCache.add(chunk, fExclusiveLock);
+				return chunk;
+			}
+			if (fMemoryMapped) {
+				// Nothing to read, the chunk is a view on the mapped file.
+				prepareMappedWrite();
+				final Chunk mapped = newChunk(index);
+				cacheMisses.increment();
+				fChunks[index] = mapped;
+				fCache.add(mapped, fExclusiveLock);
+				return mapped;
+			}
+		}
+
+		// Read the chunk without holding the lock of the cache, such that other readers may proceed.
+		Chunk chunk = new Chunk(this, index);
+		chunk.read();
+		cacheMisses.increment();
+		synchronized (fCache) {
+			final Chunk other = fChunks[index];
+			if (other != null) {
+				// Another reader was faster.
+				chunk = other;
+			} else {
 				// Put the chunk in fChunks after it was read successfully.
 				fChunks[index] = chunk;
-			} else {
-				cacheHits++;
 			}
 			fCache.add(chunk, fExclusiveLock);
 			return chunk;
@@ -328,7 +553,7 @@ public class Database {
 	 */
 	public long malloc(final int datasize) throws CoreException {
 		assert fExclusiveLock;
-		assert datasize >= 0 && datasize <= MAX_MALLOC_SIZE;
+		assert datasize >= 0 && datasize <= fMaxMallocSize;
 
 		int needDeltas = (datasize + BLOCK_HEADER_SIZE + BLOCK_SIZE_DELTA - 1) / BLOCK_SIZE_DELTA;
 		if (needDeltas < MIN_BLOCK_DELTAS) {
@@ -338,7 +563,7 @@ public class Database {
 		// Which block size.
 		long freeblock = 0;
 		int useDeltas;
-		for (useDeltas = needDeltas; useDeltas <= MAX_BLOCK_DELTAS; useDeltas++) {
+		for (useDeltas = needDeltas; useDeltas <= fMaxBlockDeltas; useDeltas++) {
 			freeblock = getFirstBlock(useDeltas * BLOCK_SIZE_DELTA);
 			if (freeblock != 0)
 				break;
@@ -349,7 +574,7 @@ public class Database {
 		if (freeblock == 0) {
 			// Allocate a new chunk.
 			freeblock = createNewChunk();
-			useDeltas = MAX_BLOCK_DELTAS;
+			useDeltas = fMaxBlockDeltas;
 			chunk = getChunk(freeblock);
 		} else {
 			chunk = getChunk(freeblock);
@@ -365,7 +590,7 @@ public class Database {
 
 		// Make our size negative to show in use.
 		final int usedSize = useDeltas * BLOCK_SIZE_DELTA;
-		chunk.putShort(freeblock, (short) -usedSize);
+		putBlockSize(chunk, freeblock, -usedSize);
 
 		// Clear out the block, lots of people are expecting this.
 		chunk.clear(freeblock + BLOCK_HEADER_SIZE, usedSize - BLOCK_HEADER_SIZE);
@@ -379,7 +604,8 @@ public class Database {
 		synchronized (fCache) {
 			final int newChunkIndex = fChunksUsed; // fChunks.length;
 
-			final Chunk chunk = new Chunk(this, newChunkIndex);
+			prepareMappedWrite();
+			final Chunk chunk = newChunk(newChunkIndex);
 			chunk.fDirty = true;
 
 			if (newChunkIndex >= fChunksAllocated) {
@@ -392,9 +618,14 @@ public class Database {
 			}
 			fChunksUsed += 1;
 			fChunks[newChunkIndex] = chunk;
+			fHeaderChunk.putInt(CHUNKS_USED_OFFSET, fChunksUsed);
 
 			fCache.add(chunk, true);
-			long address = (long) newChunkIndex * CHUNK_SIZE;
+			if (fMemoryMapped) {
+				// The mapped region may contain left-overs of an earlier, larger database.
+				chunk.clear(0, fChunkSize);
+			}
+			long address = (long) newChunkIndex * fChunkSize;
 
 			/*
 			 * Non-dense pointers are at most 31 bits dense pointers are at most 35 bits Check the sizes here
@@ -424,25 +655,50 @@ public class Database {
 			for (int i = oldLen; i < oldLen + numChunks; i++) {
 				newchunks[i] = null;
 			}
-			final Chunk chunk = new Chunk(this, oldLen + numChunks - 1);
+			final Chunk chunk = newChunk(oldLen + numChunks - 1);
 			chunk.fDirty = true;
 			newchunks[oldLen + numChunks - 1] = chunk;
 			fChunks = newchunks;
 			fCache.add(chunk, true);
 			fChunksAllocated = oldLen + numChunks;
 			fChunksUsed = oldLen + numChunks;
-			return (long) (oldLen + numChunks - 1) * CHUNK_SIZE;
+			fHeaderChunk.putInt(CHUNKS_USED_OFFSET, fChunksUsed);
+			return (long) (oldLen + numChunks - 1) * fChunkSize;
 		}
 	}
 
+	/**
+	 * Returns the offset of the head of the list of free blocks with the given size in the header chunk.
+	 * Lists for blocks larger than CHUNK_SIZE follow the first CHUNK_SIZE bytes of the header chunk, such
+	 * that the layout of the house-keeping data does not depend on the chunk size.
+	 */
+	private static int getFreeListOffset(int blocksize) {
+		final int deltas = blocksize / BLOCK_SIZE_DELTA;
+		if (deltas <= MAX_BLOCK_DELTAS) {
+			return (deltas - MIN_BLOCK_DELTAS + 1) * INT_SIZE;
+		}
+		return CHUNK_SIZE + (deltas - MAX_BLOCK_DELTAS - 1) * INT_SIZE;
+	}
+
 	private long getFirstBlock(int blocksize) throws CoreException {
 		assert fLocked;
-		return fHeaderChunk.getFreeRecPtr((blocksize / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 1) * INT_SIZE);
+		return fHeaderChunk.getFreeRecPtr(getFreeListOffset(blocksize));
 	}
 
 	private void setFirstBlock(int blocksize, long block) throws CoreException {
 		assert fExclusiveLock;
-		fHeaderChunk.putFreeRecPtr((blocksize / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 1) * INT_SIZE, block);
+		fHeaderChunk.putFreeRecPtr(getFreeListOffset(blocksize), block);
+	}
+
+	/**
+	 * Stores the size of a block, negative for blocks that are in use.
+	 */
+	private void putBlockSize(Chunk chunk, long block, int blocksize) {
+		chunk.putShort(block, (short) (blocksize >> fBlockSizeShift));
+	}
+
+	private int getBlockSize(Chunk chunk, long block) {
+		return chunk.getShort(block) << fBlockSizeShift;
 	}
 
 	private void removeBlock(Chunk chunk, int blocksize, long block) throws CoreException {
@@ -462,7 +718,7 @@ public class Database {
 	private void addBlock(Chunk chunk, int blocksize, long block) throws CoreException {
 		assert fExclusiveLock;
 		// Mark our size
-		chunk.putShort(block, (short) blocksize);
+		putBlockSize(chunk, block, blocksize);
 
 		// Add us to the head of the list.
 		long prevfirst = getFirstBlock(blocksize);
@@ -483,7 +739,7 @@ public class Database {
 		// TODO Look for opportunities to merge blocks
 		long block = offset - BLOCK_HEADER_SIZE;
 		Chunk chunk = getChunk(block);
-		int blocksize = -chunk.getShort(block);
+		int blocksize = -getBlockSize(chunk, block);
 		if (blocksize < 0) {
 			// Already freed.
 			throw new CoreException(new Status(IStatus.ERROR, CCorePlugin.PLUGIN_ID, 0,
@@ -592,7 +848,7 @@ public class Database {
 			bytelen = 2 * len;
 		}
 
-		if (bytelen > ShortString.MAX_BYTE_LENGTH) {
+		if (bytelen > ShortString.getMaxByteLength(this)) {
 			return addStringToCache(new LongString(this, chars, useBytes));
 		} else {
 			return addStringToCache(new ShortString(this, chars, useBytes));
@@ -617,7 +873,7 @@ public class Database {
 		}
 		final int l = getInt(offset);
 		int bytelen = l < 0 ? -l : 2 * l;
-		if (bytelen > ShortString.MAX_BYTE_LENGTH) {
+		if (bytelen > ShortString.getMaxByteLength(this)) {
 			return addStringToCache(new LongString(this, offset));
 		}
 		return addStringToCache(new ShortString(this, offset));
@@ -641,21 +897,52 @@ public class Database {
 	 * For debugging purposes, only.
 	 */
 	public void reportFreeBlocks() throws CoreException {
-		System.out.println("Allocated size: " + fChunksUsed * CHUNK_SIZE); //$NON-NLS-1$
+		System.out.println("Allocated size: " + (long) fChunksUsed * fChunkSize); //$NON-NLS-1$
 		System.out.println("malloc'ed: " + malloced); //$NON-NLS-1$
 		System.out.println("free'd: " + freed); //$NON-NLS-1$
-		System.out.println("wasted: " + (fChunksUsed * CHUNK_SIZE - (malloced - freed))); //$NON-NLS-1$
+		System.out.println("wasted: " + ((long) fChunksUsed * fChunkSize - (malloced - freed))); //$NON-NLS-1$
 		System.out.println("Free blocks"); //$NON-NLS-1$
-		for (int bs = MIN_BLOCK_DELTAS * BLOCK_SIZE_DELTA; bs <= CHUNK_SIZE; bs += BLOCK_SIZE_DELTA) {
-			int count = 0;
-			long block = getFirstBlock(bs);
-			while (block != 0) {
-				++count;
-				block = getFreeRecPtr(block + BLOCK_NEXT_OFFSET);
-			}
+		for (int bs = MIN_BLOCK_DELTAS * BLOCK_SIZE_DELTA; bs <= fChunkSize; bs += BLOCK_SIZE_DELTA) {
+			int count = countFreeBlocks(bs);
 			if (count != 0)
 				System.out.println("Block size: " + bs + "=" + count); //$NON-NLS-1$ //$NON-NLS-2$
 		}
+		System.out.println("Fragmentation: " + getFragmentation()); //$NON-NLS-1$
+	}
+
+	private int countFreeBlocks(int blocksize) throws CoreException {
+		int count = 0;
+		long block = getFirstBlock(blocksize);
+		while (block != 0) {
+			++count;
+			block = getFreeRecPtr(block + BLOCK_NEXT_OFFSET);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of bytes in free blocks, as recorded in the lists of free blocks of the file.
+	 * Unlike the counters printed by {@link #reportFreeBlocks()} this includes the blocks freed
+	 * before the database was opened. The free lists are walked, the database has to be locked.
+	 */
+	public long getFreeBytes() throws CoreException {
+		long result = 0;
+		for (int bs = MIN_BLOCK_DELTAS * BLOCK_SIZE_DELTA; bs <= fChunkSize; bs += BLOCK_SIZE_DELTA) {
+			result += (long) countFreeBlocks(bs) * bs;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the fraction of the chunks in use that is occupied by free blocks, a value between
+	 * 0 and 1. Free blocks are reused only for records of the same or a smaller size and are never
+	 * merged, such that the fraction grows with incremental updates of the database.
+	 */
+	public double getFragmentation() throws CoreException {
+		long size = (long) (fChunksUsed - 1) * fChunkSize;
+		if (size <= 0)
+			return 0;
+		return (double) getFreeBytes() / size;
 	}
 
 	/**
@@ -670,8 +957,21 @@ public class Database {
 		removeChunksFromCache();
 
 		// Chunks have been removed from the cache, so we are fine.
-		fHeaderChunk.clear(0, CHUNK_SIZE);
+		fHeaderChunk.clear(0, fChunkSize);
 		fHeaderChunk.fDirty = false;
+		if (fMemoryMapped) {
+			unmapSegments();
+			if (!fReadOnly) {
+				try {
+					// Remove the part of the last mapped region that is not in use.
+					fFile.getChannel().truncate((long) fChunksUsed * fChunkSize);
+				} catch (IOException e) {
+					// The platform may not allow to truncate a file that is still mapped, the header
+					// keeps the number of chunks in use for the next time the file is opened.
+					CCorePlugin.log(e);
+				}
+			}
+		}
 		fChunks = new Chunk[] { null };
 		fChunksUsed = fChunksAllocated = fChunks.length;
 		try {
@@ -690,7 +990,8 @@ public class Database {
 	}
 
 	/**
-	 * Called from any thread via the cache, protected by {@link #fCache}.
+	 * Called from any thread via the cache, protected by {@link #fCache}. Readers may still
+	 * use the chunk after it has been released, see {@link #getChunk(long)}.
 	 */
 	void releaseChunk(final Chunk chunk) {
 		if (!chunk.fLocked) {
@@ -716,7 +1017,10 @@ public class Database {
 	}
 
 	public void setLocked(boolean val) {
-		fLocked = val;
+		// Called by every reader, avoid writing the shared field when it does not change.
+		if (fLocked != val) {
+			fLocked = val;
+		}
 	}
 
 	public void giveUpExclusiveLock(final boolean flush) throws CoreException {
@@ -807,6 +1111,10 @@ public class Database {
 					}
 				}
 
+				if (fMemoryMapped) {
+					forceSegments();
+				}
+
 				// Only after the chunks are flushed we may unlock and release them.
 				synchronized (fCache) {
 					for (Chunk chunk : dirtyChunks) {
@@ -828,6 +1136,16 @@ public class Database {
 		}
 	}
 
+	/**
+	 * Changes to a mapped chunk may reach the file at any time, therefore the file is marked incomplete
+	 * before the first chunk is handed out to a writer.
+	 */
+	private void prepareMappedWrite() throws CoreException {
+		if (fMemoryMapped && fExclusiveLock) {
+			markFileIncomplete();
+		}
+	}
+
 	private void markFileIncomplete() throws CoreException {
 		if (!fIsMarkedIncomplete) {
 			fIsMarkedIncomplete = true;
@@ -841,19 +1159,23 @@ public class Database {
 	}
 
 	public void resetCacheCounters() {
-		cacheHits = cacheMisses = 0;
+		cacheHits.reset();
+		cacheMisses.reset();
 	}
 
 	public long getCacheHits() {
-		return cacheHits;
+		return cacheHits.sum();
 	}
 
 	public long getCacheMisses() {
-		return cacheMisses;
+		return cacheMisses.sum();
 	}
 
 	public long getSizeBytes() {
 		try {
+			if (fMemoryMapped) {
+				return Math.min(fFile.length(), (long) fChunksUsed * fChunkSize);
+			}
 			return fFile.length();
 		} catch (IOException e) {
 		}
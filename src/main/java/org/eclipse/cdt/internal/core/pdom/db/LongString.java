@@ -46,25 +46,30 @@ public class LongString implements IString {
 
     private static final int CHARS1 = 8;
 
-    private static final int NUM_CHARS1 = (Database.MAX_MALLOC_SIZE - CHARS1) / 2;
+    // Depends on the chunk size of the database.
+    private final int NUM_CHARS1;
 
     // Additional fields of subsequent records.
     private static final int NEXTN = 0;
 
     private static final int CHARSN = 4;
 
-    private static final int NUM_CHARSN = (Database.MAX_MALLOC_SIZE - CHARSN) / 2;
+    private final int NUM_CHARSN;
 
     public LongString(Database db, long record) {
         this.db = db;
         this.record = record;
+        this.NUM_CHARS1 = (db.getMaxMallocSize() - CHARS1) / 2;
+        this.NUM_CHARSN = (db.getMaxMallocSize() - CHARSN) / 2;
     }
 
     public LongString(Database db, final char[] chars, boolean useBytes) throws CoreException {
+        this.NUM_CHARS1 = (db.getMaxMallocSize() - CHARS1) / 2;
+        this.NUM_CHARSN = (db.getMaxMallocSize() - CHARSN) / 2;
         final int numChars1 = useBytes ? NUM_CHARS1 * 2 : NUM_CHARS1;
         final int numCharsn = useBytes ? NUM_CHARSN * 2 : NUM_CHARSN;
         this.db = db;
-        this.record = db.malloc(Database.MAX_MALLOC_SIZE);
+        this.record = db.malloc(db.getMaxMallocSize());
         // Write the first record.
         final int length = chars.length;
         db.putInt(this.record, useBytes ? -length : length);
@@ -78,7 +83,7 @@ public class LongString implements IString {
         long lastNext = this.record + NEXT1;
         int start = numChars1;
         while (length - start > numCharsn) {
-            long nextRecord = db.malloc(Database.MAX_MALLOC_SIZE);
+            long nextRecord = db.malloc(db.getMaxMallocSize());
             db.putRecPtr(lastNext, nextRecord);
             chunk = db.getChunk(nextRecord);
             if (useBytes) {
@@ -43,6 +43,14 @@ public class ShortString implements IString {
 
     public static final int MAX_BYTE_LENGTH = Database.MAX_MALLOC_SIZE - CHARS;
 
+    /**
+     * Returns the maximum length in bytes of a short string in the given database, which depends
+     * on its chunk size and is at least {@link #MAX_BYTE_LENGTH}.
+     */
+    static int getMaxByteLength(Database db) {
+        return db.getMaxMallocSize() - CHARS;
+    }
+
     public ShortString(Database db, long offset) {
         this.db = db;
         this.record = offset;
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.cdt.internal.core.pdom.db;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * A persistent index from the trigrams (sequences of three consecutive characters) of names to
+ * the records carrying these names. It allows to narrow down the candidates for a pattern match
+ * to the records containing every literal character sequence the pattern requires.
+ * <p>
+ * Trigrams are built from ASCII characters only and are case-folded, so that the index answers
+ * case-sensitive and case-insensitive queries alike. A name is indexed under each of its distinct
+ * trigrams; names shorter than three characters are not indexed at all.
+ * <p>
+ * The trigrams are kept in a BTree of entries. Each entry stores the trigram, the number of
+ * records it has been added for and the head of a linked list of blocks holding the records.
+ * A record has to be removed before it is freed, otherwise its location may be reused for
+ * arbitrary data. Callers still have to verify that the candidates match.
+ * <p>
+ * Modifications require the write lock on the database, concurrent reads are supported.
+ */
+public class TrigramIndex {
+
+    private static final int ENTRY_TRIGRAM = 0;
+
+    private static final int ENTRY_COUNT = 4;
+
+    private static final int ENTRY_FIRST_BLOCK = 8;
+
+    private static final int ENTRY_SIZE = 8 + Database.PTR_SIZE;
+
+    private static final int BLOCK_NEXT = 0;
+
+    private static final int BLOCK_USED = Database.PTR_SIZE;
+
+    private static final int BLOCK_RECORDS = BLOCK_USED + Database.INT_SIZE;
+
+    private static final int BLOCK_CAPACITY = 30;
+
+    private static final int BLOCK_SIZE = BLOCK_RECORDS + BLOCK_CAPACITY * Database.PTR_SIZE;
+
+    private final Database fDatabase;
+
+    private final BTree fEntries;
+
+    // Entries are never moved or freed, the cache is therefore valid for the lifetime of the database content.
+    private final Map<Integer, Long> fEntryCache = new ConcurrentHashMap<>();
+
+    public TrigramIndex(Database db, long ptr) {
+        fDatabase = db;
+        fEntries = new BTree(db, ptr, new IBTreeComparator() {
+
+            @Override
+            public int compare(long record1, long record2) throws CoreException {
+                return Integer.compare(fDatabase.getInt(record1 + ENTRY_TRIGRAM), fDatabase.getInt(record2 + ENTRY_TRIGRAM));
+            }
+        });
+    }
+
+    /**
+     * Returns the trigram for the given characters, or -1 if one of them is not an ASCII character.
+     */
+    public static int trigram(char c0, char c1, char c2) {
+        if ((c0 | c1 | c2) >= 128)
+            return -1;
+        return (fold(c0) << 14) | (fold(c1) << 7) | fold(c2);
+    }
+
+    private static int fold(char c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /**
+     * Returns the distinct trigrams of the given characters, skipping the ones
+     * that contain characters outside of the ASCII range.
+     */
+    public static int[] getTrigrams(char[] chars) {
+        if (chars.length < 3)
+            return new int[0];
+        int[] result = new int[chars.length - 2];
+        int count = 0;
+        outer: for (int i = 0; i + 2 < chars.length; i++) {
+            int t = trigram(chars[i], chars[i + 1], chars[i + 2]);
+            if (t < 0)
+                continue;
+            for (int j = 0; j < count; j++) {
+                if (result[j] == t)
+                    continue outer;
+            }
+            result[count++] = t;
+        }
+        if (count < result.length) {
+            int[] trimmed = new int[count];
+            System.arraycopy(result, 0, trimmed, 0, count);
+            return trimmed;
+        }
+        return result;
+    }
+
+    /**
+     * Adds the record under each trigram of the given name.
+     */
+    public void add(char[] name, long record) throws CoreException {
+        for (int t : getTrigrams(name)) {
+            addRecord(getEntry(t, true), record);
+        }
+    }
+
+    /**
+     * Removes the record from each trigram of the given name, the name has to be the one
+     * the record was added with.
+     */
+    public void remove(char[] name, long record) throws CoreException {
+        for (int t : getTrigrams(name)) {
+            long entry = getEntry(t, false);
+            if (entry != 0) {
+                removeRecord(entry, record);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of records that have been added for the given trigram.
+     */
+    public int getCount(int trigram) throws CoreException {
+        long entry = getEntry(trigram, false);
+        return entry == 0 ? 0 : fDatabase.getInt(entry + ENTRY_COUNT);
+    }
+
+    /**
+     * Returns the records that have been added for the given trigram, most recent first.
+     */
+    public long[] getRecords(int trigram) throws CoreException {
+        long entry = getEntry(trigram, false);
+        if (entry == 0)
+            return new long[0];
+        final Database db = fDatabase;
+        long[] result = new long[db.getInt(entry + ENTRY_COUNT)];
+        int count = 0;
+        for (long block = db.getRecPtr(entry + ENTRY_FIRST_BLOCK); block != 0 && count < result.length; block = db.getRecPtr(block + BLOCK_NEXT)) {
+            int used = db.getInt(block + BLOCK_USED);
+            for (int i = used - 1; i >= 0 && count < result.length; i--) {
+                result[count++] = db.getRecPtr(block + BLOCK_RECORDS + i * Database.PTR_SIZE);
+            }
+        }
+        return result;
+    }
+
+    private void addRecord(long entry, long record) throws CoreException {
+        final Database db = fDatabase;
+        long block = db.getRecPtr(entry + ENTRY_FIRST_BLOCK);
+        int used = block == 0 ? BLOCK_CAPACITY : db.getInt(block + BLOCK_USED);
+        if (used == BLOCK_CAPACITY) {
+            long newBlock = db.malloc(BLOCK_SIZE);
+            db.putRecPtr(newBlock + BLOCK_NEXT, block);
+            db.putRecPtr(entry + ENTRY_FIRST_BLOCK, newBlock);
+            block = newBlock;
+            used = 0;
+        }
+        db.putRecPtr(block + BLOCK_RECORDS + used * Database.PTR_SIZE, record);
+        db.putInt(block + BLOCK_USED, used + 1);
+        db.putInt(entry + ENTRY_COUNT, db.getInt(entry + ENTRY_COUNT) + 1);
+    }
+
+    private void removeRecord(long entry, long record) throws CoreException {
+        final Database db = fDatabase;
+        final long first = db.getRecPtr(entry + ENTRY_FIRST_BLOCK);
+        for (long block = first; block != 0; block = db.getRecPtr(block + BLOCK_NEXT)) {
+            int used = db.getInt(block + BLOCK_USED);
+            for (int i = 0; i < used; i++) {
+                long slot = block + BLOCK_RECORDS + i * Database.PTR_SIZE;
+                if (db.getRecPtr(slot) == record) {
+                    // Fill the gap with the most recent record, only the first block is partially used.
+                    int firstUsed = db.getInt(first + BLOCK_USED) - 1;
+                    db.putRecPtr(slot, db.getRecPtr(first + BLOCK_RECORDS + firstUsed * Database.PTR_SIZE));
+                    if (firstUsed == 0) {
+                        db.putRecPtr(entry + ENTRY_FIRST_BLOCK, db.getRecPtr(first + BLOCK_NEXT));
+                        db.free(first);
+                    } else {
+                        db.putInt(first + BLOCK_USED, firstUsed);
+                    }
+                    db.putInt(entry + ENTRY_COUNT, db.getInt(entry + ENTRY_COUNT) - 1);
+                    return;
+                }
+            }
+        }
+    }
+
+    private long getEntry(final int trigram, boolean create) throws CoreException {
+        Long cached = fEntryCache.get(trigram);
+        if (cached != null)
+            return cached.longValue();
+        final long[] result = { 0 };
+        fEntries.accept(new IBTreeVisitor() {
+
+            @Override
+            public int compare(long record) throws CoreException {
+                return Integer.compare(fDatabase.getInt(record + ENTRY_TRIGRAM), trigram);
+            }
+
+            @Override
+            public boolean visit(long record) throws CoreException {
+                result[0] = record;
+                return false;
+            }
+        });
+        long entry = result[0];
+        if (entry == 0) {
+            if (!create)
+                return 0;
+            entry = fDatabase.malloc(ENTRY_SIZE);
+            fDatabase.putInt(entry + ENTRY_TRIGRAM, trigram);
+            fEntries.insert(entry);
+        }
+        fEntryCache.put(trigram, entry);
+        return entry;
+    }
+}
@@ -248,6 +248,109 @@ public class PDOMFile implements IIndexFragmentFile {
         sourceFile.delete();
     }
 
+    /**
+     * Copies names, macros and includes from a file of another database to this one. Bindings are
+     * adapted to or added to the linkage of this file, included files are looked up or added by
+     * their location and significant macros. The source file is not modified.
+     * @param sourceFile the file of the other database, with the same linkage.
+     * @throws CoreException
+     */
+    public void copyContentsFrom(PDOMFile sourceFile) throws CoreException {
+        assert getFirstName() == null && getFirstInclude() == null && getFirstMacro() == null;
+        final PDOMLinkage linkage = getLinkage();
+        final IWritableIndexFragment pdom = (IWritableIndexFragment) linkage.getPDOM();
+        // Copy the includes, included files are created as needed.
+        PDOMInclude lastInclude = null;
+        for (PDOMInclude include = sourceFile.getFirstInclude(); include != null; include = include.getNextInIncludes()) {
+            PDOMFile targetFile = null;
+            final PDOMFile sourceTarget = (PDOMFile) include.getIncludes();
+            if (sourceTarget != null) {
+                targetFile = (PDOMFile) pdom.addFile(sourceTarget.getLinkageID(), sourceTarget.getLocation(), sourceTarget.getSignificantMacros());
+            }
+            PDOMInclude pdomInclude = new PDOMInclude(fLinkage, include, this, targetFile);
+            if (targetFile != null) {
+                // The first includer becomes the context of the included file.
+                targetFile.addIncludedBy(pdomInclude, false);
+            }
+            if (lastInclude == null) {
+                setFirstInclude(pdomInclude);
+            } else {
+                lastInclude.setNextInIncludes(pdomInclude);
+            }
+            lastInclude = pdomInclude;
+        }
+        // Copy the macros.
+        PDOMMacro lastMacro = null;
+        for (PDOMMacro macro = sourceFile.getFirstMacro(); macro != null; macro = macro.getNextMacro()) {
+            PDOMMacroContainer container = linkage.getMacroContainer(macro.getNameCharArray());
+            PDOMMacro pdomMacro = new PDOMMacro(fLinkage, container, macro, this);
+            if (lastMacro == null) {
+                setFirstMacro(pdomMacro);
+            } else {
+                lastMacro.setNextMacro(pdomMacro);
+            }
+            lastMacro = pdomMacro;
+        }
+        // Copy the names, the enclosing definition always precedes the names it encloses.
+        HashMap<Long, PDOMName> nameCache = new HashMap<>();
+        PDOMName lastName = null;
+        for (PDOMName name = sourceFile.getFirstName(); name != null; name = name.getNextInFile()) {
+            PDOMName pdomName = copyName(linkage, name, nameCache.get(name.getEnclosingDefinitionRecord()));
+            if (pdomName != null) {
+                nameCache.put(name.getRecord(), pdomName);
+                if (lastName == null) {
+                    setFirstName(pdomName);
+                } else {
+                    lastName.setNextInFile(pdomName);
+                }
+                lastName = pdomName;
+            }
+        }
+        PDOMMacroReferenceName lastMacroName = null;
+        for (PDOMMacroReferenceName mref = sourceFile.getFirstMacroReference(); mref != null; mref = mref.getNextInFile()) {
+            PDOMMacroContainer container = linkage.getMacroContainer(mref.getSimpleID());
+            PDOMName caller = null;
+            IIndexName enclosing = mref.getEnclosingDefinition();
+            if (enclosing instanceof PDOMName) {
+                caller = nameCache.get(((PDOMName) enclosing).getRecord());
+            }
+            PDOMMacroReferenceName macroName = new PDOMMacroReferenceName(fLinkage, mref, this, container, caller);
+            if (lastMacroName == null) {
+                setFirstMacroReference(macroName);
+            } else {
+                lastMacroName.setNextInFile(macroName);
+            }
+            lastMacroName = macroName;
+        }
+        linkage.onCopyFile(sourceFile, this);
+        setTimestamp(sourceFile.getTimestamp());
+        setSourceReadTime(sourceFile.getSourceReadTime());
+        setSizeAndEncodingHashcode(sourceFile.getSizeAndEncodingHashcode());
+        setContentsHash(sourceFile.getContentsHash());
+        Database db = fLinkage.getDB();
+        db.putByte(record + FLAGS, sourceFile.fLinkage.getDB().getByte(sourceFile.record + FLAGS));
+        setReplacementHeader(sourceFile.getReplacementHeader());
+    }
+
+    private PDOMName copyName(PDOMLinkage linkage, PDOMName name, PDOMName caller) throws CoreException {
+        try {
+            PDOMBinding pdomBinding = linkage.copyBinding(name.getBinding(), name.isDefinition());
+            if (pdomBinding != null) {
+                final PDOMName result = new PDOMName(fLinkage, name, this, pdomBinding, caller);
+                linkage.onCopyName(this, name, result);
+                return result;
+            }
+        } catch (CoreException e) {
+            final IStatus status = e.getStatus();
+            if (status != null && status.getCode() == CCorePlugin.STATUS_PDOM_TOO_LARGE) {
+                if (CCorePlugin.PLUGIN_ID.equals(status.getPlugin()))
+                    throw e;
+            }
+            CCorePlugin.log(e);
+        }
+        return null;
+    }
+
     @Override
     public void transferIncluders(IIndexFragmentFile sourceFile) throws CoreException {
         PDOMFile source = (PDOMFile) sourceFile;
@@ -109,6 +109,35 @@ public class PDOMInclude implements IIndexFragmentInclude {
         setIncludedBy(containerFile);
     }
 
+    /**
+     * Creates a copy of an include of another database.
+     * @param targetFile the file of this database corresponding to the included file of the source,
+     *     or {@code null} if the include is unresolved.
+     */
+    public PDOMInclude(PDOMLinkage linkage, PDOMInclude source, PDOMFile containerFile, PDOMFile targetFile) throws CoreException {
+        this.linkage = linkage;
+        final Database db = linkage.getDB();
+        this.record = db.malloc(RECORD_SIZE);
+        db.put3ByteUnsignedInt(record + NODE_OFFSET, source.getNameOffset());
+        db.putShort(record + NODE_LENGTH, (short) source.getNameLength());
+        if (targetFile != null) {
+            db.putRecPtr(record + INCLUDED_FILE, targetFile.getRecord());
+        }
+        char[] nameChars = source.getFullName().toCharArray();
+        boolean deducible_name = isDeducibleName(targetFile, nameChars);
+        if (deducible_name) {
+            db.putInt(record + INCLUDE_NAME_OR_LENGTH, nameChars.length);
+        } else {
+            db.putRecPtr(record + INCLUDE_NAME_OR_LENGTH, db.newString(nameChars).getRecord());
+        }
+        int flags = source.getFlag() & ~FLAG_DEDUCIBLE_NAME;
+        if (deducible_name) {
+            flags |= FLAG_DEDUCIBLE_NAME;
+        }
+        setFlag((byte) flags);
+        setIncludedBy(containerFile);
+    }
+
     private byte encodeFlags(IASTPreprocessorIncludeStatement include, boolean deducible_name) {
         byte flags = 0;
         if (include.isSystemInclude()) {
@@ -55,6 +55,7 @@ import org.eclipse.cdt.internal.core.index.IIndexScope;
 import org.eclipse.cdt.internal.core.pdom.PDOM;
 import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
 import org.eclipse.cdt.internal.core.pdom.db.BTree;
+import org.eclipse.cdt.internal.core.pdom.db.BTreeBulkLoader;
 import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeComparator;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
@@ -93,6 +94,9 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
 
     private final Database fDatabase;
 
+    // Buffers the nested bindings while bulk loading into an empty index.
+    private BTreeBulkLoader fNestedBindingsLoader;
+
     /**
      * The set of types currently being loaded from the index on each thread, represented as record numbers.
      * This is used to guard against infinite recursion while loading types.
@@ -226,7 +230,7 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
         if (inputBinding instanceof PDOMBinding) {
             PDOMBinding pdomBinding = (PDOMBinding) inputBinding;
             if (pdomBinding.getPDOM() != getPDOM() && pdomBinding.isFileLocal()) {
-                return true;
+                return getFileForForeignLocalBinding(pdomBinding) == null;
             }
         }
         return false;
@@ -264,6 +268,12 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
     }
 
     protected PDOMFile getLocalToFile(IBinding binding, PDOMBinding glob) throws CoreException {
+        if (binding instanceof PDOMBinding && ((PDOMBinding) binding).getPDOM() != fPDOM) {
+            PDOMFile file = getFileForForeignLocalBinding((PDOMBinding) binding);
+            if (file != null) {
+                return file;
+            }
+        }
         if (fPDOM instanceof WritablePDOM) {
             final WritablePDOM wpdom = (WritablePDOM) fPDOM;
             if (binding instanceof IField) {
@@ -292,6 +302,39 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
         return null;
     }
 
+    /**
+     * Returns the file of this linkage corresponding to the file a binding of another database is
+     * local to. This is done only while merging databases, otherwise such bindings are not adapted.
+     */
+    private PDOMFile getFileForForeignLocalBinding(PDOMBinding binding) throws CoreException {
+        if (fPDOM instanceof WritablePDOM && ((WritablePDOM) fPDOM).isMergingDatabases()) {
+            PDOMFile file = binding.getLocalToFile();
+            if (file != null) {
+                return fPDOM.getFile(getLinkageID(), file.getLocation(), file.getSignificantMacros());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adapts a binding of another database to this linkage, or adds it if there is no equivalent
+     * binding, yet. Used when merging databases.
+     * @param binding the binding to copy
+     * @param isDefinition whether the binding is copied for a definition, the properties of an
+     *     existing binding without definition are then updated.
+     * @return the binding of this linkage, or {@code null} if the binding cannot be stored.
+     */
+    public PDOMBinding copyBinding(PDOMBinding binding, boolean isDefinition) throws CoreException {
+        PDOMBinding result = adaptBinding(binding);
+        if (result == null) {
+            return addTypeBinding(binding);
+        }
+        if (isDefinition && !result.hasDefinition()) {
+            result.update(this, binding);
+        }
+        return result;
+    }
+
     /**
      * Return an identifier that uniquely identifies the given binding within this linkage.  The
      * value cannot be used for global comparison because it does not include enough information
@@ -339,6 +382,28 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
     public void onDeleteName(PDOMName name) throws CoreException {
     }
 
+    /**
+     * Callback informing the linkage that a name of another database has been copied.
+     * This is the counterpart of {@link #onCreateName(PDOMFile, IASTName, PDOMName)} for
+     * merging databases.
+     * @param file the file the name has been copied to
+     * @param source the name of the other database
+     * @param pdomName the name that was inserted into the linkage
+     * @throws CoreException
+     */
+    public void onCopyName(PDOMFile file, PDOMName source, PDOMName pdomName) throws CoreException {
+    }
+
+    /**
+     * Callback informing the linkage that the content of a file of another database has been
+     * copied. Used to copy additional information stored with the file.
+     * @param sourceFile the file of the other database
+     * @param file the file the content has been copied to
+     * @throws CoreException
+     */
+    public void onCopyFile(PDOMFile sourceFile, PDOMFile file) throws CoreException {
+    }
+
     /**
      * Callback informing the linkage that a binding has been added. Used to index nested bindings.
      * @param pdomBinding
@@ -347,18 +412,61 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
      */
     protected final void insertIntoNestedBindingsIndex(PDOMBinding pdomBinding) throws CoreException {
         if (pdomBinding.getParentNodeRec() != record) {
-            getNestedBindingsIndex().insert(pdomBinding.getRecord());
+            BTreeBulkLoader loader = getNestedBindingsLoader();
+            if (loader != null) {
+                loader.add(pdomBinding.getRecord());
+            } else {
+                getNestedBindingsIndex().insert(pdomBinding.getRecord());
+            }
+        }
+    }
+
+    private BTreeBulkLoader getNestedBindingsLoader() throws CoreException {
+        if (fNestedBindingsLoader == null && fPDOM instanceof WritablePDOM && ((WritablePDOM) fPDOM).isBulkLoading()) {
+            BTree index = getNestedBindingsIndex();
+            if (index.isEmpty()) {
+                fNestedBindingsLoader = new BTreeBulkLoader(index);
+            }
+        }
+        return fNestedBindingsLoader;
+    }
+
+    /**
+     * Inserts the bindings buffered while bulk loading into the index of nested bindings.
+     * <b>A write-lock must be obtained before calling this method</b>
+     * @see WritablePDOM#setBulkLoading(boolean)
+     */
+    public void finishBulkLoading() throws CoreException {
+        if (fNestedBindingsLoader != null) {
+            BTreeBulkLoader loader = fNestedBindingsLoader;
+            fNestedBindingsLoader = null;
+            loader.finish();
         }
     }
 
     /**
-     * Call-back informing the linkage that a binding is about to be removed. Used to index nested bindings.
+     * Callback informing the linkage that a binding has been added. Used to index the trigrams
+     * of binding names for pattern searches.
+     * @param pdomBinding
+     * @throws CoreException
+     */
+    protected final void insertIntoNameIndex(PDOMBinding pdomBinding) throws CoreException {
+        fPDOM.getNameTrigramIndex().add(pdomBinding.getNameCharArray(), pdomBinding.getRecord());
+    }
+
+    /**
+     * Call-back informing the linkage that a binding is about to be removed. Used to update the
+     * index of nested bindings and the trigram index of binding names.
      * @param pdomBinding
      * @throws CoreException
      * @since 4.0.1
      */
     public void beforeRemoveBinding(PDOMBinding pdomBinding) throws CoreException {
+        // The record may be reused once it is freed, it must no longer be found by name.
+        fPDOM.getNameTrigramIndex().remove(pdomBinding.getNameCharArray(), pdomBinding.getRecord());
         if (pdomBinding.getParentNodeRec() != record) {
+            if (fNestedBindingsLoader != null && fNestedBindingsLoader.remove(pdomBinding.getRecord()))
+                return;
             getNestedBindingsIndex().delete(pdomBinding.getRecord());
         }
     }
@@ -579,7 +687,12 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
     }
 
     public IType loadType(long offset) throws CoreException {
+        Object cached = fPDOM.getCachedDecodedObject(offset);
+        if (cached instanceof IType)
+            return (IType) cached;
         Set<Long> recursionProtectionSet = fLoadTypeInProgress.get();
+        // Types loaded while resolving another one may be cut short by the recursion protection.
+        final boolean cacheable = recursionProtectionSet.isEmpty();
         if (!recursionProtectionSet.add(offset)) {
             return ProblemType.NOT_PERSISTED;
         }
@@ -600,7 +713,10 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
                     db.getBytes(offset, data);
                     break;
             }
-            return new TypeMarshalBuffer(this, data).unmarshalType();
+            IType type = new TypeMarshalBuffer(this, data).unmarshalType();
+            if (cacheable)
+                fPDOM.putCachedDecodedObject(offset, type);
+            return type;
         } finally {
             recursionProtectionSet.remove(offset);
         }
@@ -696,21 +812,21 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
     }
 
     private void deleteValue(Database db, long offset) throws CoreException {
-        fPDOM.removeCachedVariableResult(offset);
         deleteSerializedData(db, offset, Database.VALUE_SIZE);
     }
 
     public IValue loadValue(long offset) throws CoreException {
-        Long cacheKey = Long.valueOf(offset);
-        IValue value = fPDOM.getCachedVariableResult(cacheKey);
-        if (value != null)
-            return value;
+        Object cached = fPDOM.getCachedDecodedObject(offset);
+        if (cached instanceof IValue)
+            return (IValue) cached;
+        // Types referenced by the value may be cut short while another type is loaded.
+        final boolean cacheable = fLoadTypeInProgress.get().isEmpty();
         TypeMarshalBuffer buffer = loadBuffer(offset, Database.VALUE_SIZE);
         if (buffer == null)
             return null;
-        value = buffer.unmarshalValue();
-        if (value != null)
-            fPDOM.putCachedVariableResult(cacheKey, value);
+        IValue value = buffer.unmarshalValue();
+        if (cacheable)
+            fPDOM.putCachedDecodedObject(offset, value);
         return value;
     }
 
@@ -733,10 +849,18 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
     }
 
     public ICPPEvaluation loadEvaluation(long offset) throws CoreException {
+        Object cached = fPDOM.getCachedDecodedObject(offset);
+        if (cached instanceof ICPPEvaluation)
+            return (ICPPEvaluation) cached;
+        // Types referenced by the evaluation may be cut short while another type is loaded.
+        final boolean cacheable = fLoadTypeInProgress.get().isEmpty();
         TypeMarshalBuffer buffer = loadBuffer(offset, Database.EVALUATION_SIZE);
         if (buffer == null)
             return null;
-        return buffer.unmarshalEvaluation();
+        ICPPEvaluation eval = buffer.unmarshalEvaluation();
+        if (cacheable)
+            fPDOM.putCachedDecodedObject(offset, eval);
+        return eval;
     }
 
     public void storeExecution(long offset, ICPPExecution exec) throws CoreException {
@@ -114,6 +114,30 @@ public class PDOMMacro implements IIndexMacro, IPDOMBinding {
         this(linkage, container, file, undef.getMacroName());
     }
 
+    /**
+     * Creates a copy of a macro definition or undefinition of another database in the given file.
+     */
+    public PDOMMacro(PDOMLinkage linkage, PDOMMacroContainer container, PDOMMacro source, PDOMFile file) throws CoreException {
+        final Database db = linkage.getDB();
+        final Database sourceDb = source.fLinkage.getDB();
+        fLinkage = linkage;
+        fRecord = db.malloc(RECORD_SIZE);
+        fContainer = container;
+        db.putRecPtr(fRecord + CONTAINER, container.getRecord());
+        db.putRecPtr(fRecord + FILE, file.getRecord());
+        db.putInt(fRecord + NAME_OFFSET, sourceDb.getInt(source.fRecord + NAME_OFFSET));
+        db.putShort(fRecord + NAME_LENGTH, sourceDb.getShort(source.fRecord + NAME_LENGTH));
+        final IString expansion = source.getExpansionInDB();
+        if (expansion != null) {
+            db.putRecPtr(fRecord + EXPANSION, db.newString(expansion.getChars()).getRecord());
+        }
+        final IString params = source.getParamListInDB();
+        if (params != null) {
+            db.putRecPtr(fRecord + PARAMETERS, db.newString(params.getChars()).getRecord());
+        }
+        container.addDefinition(this);
+    }
+
     private PDOMMacro(PDOMLinkage linkage, PDOMMacroContainer container, PDOMFile file, IASTName name) throws CoreException {
         final Database db = linkage.getDB();
         fLinkage = linkage;
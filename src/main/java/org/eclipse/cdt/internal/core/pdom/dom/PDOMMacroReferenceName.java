@@ -76,6 +76,23 @@ public final class PDOMMacroReferenceName implements IIndexFragmentName {
         }
     }
 
+    /**
+     * Creates a copy of a macro reference of another database in the given file.
+     */
+    public PDOMMacroReferenceName(PDOMLinkage linkage, PDOMMacroReferenceName source, PDOMFile file, PDOMMacroContainer container, PDOMName caller) throws CoreException {
+        this.linkage = linkage;
+        Database db = linkage.getDB();
+        record = db.malloc(RECORD_SIZE);
+        db.putRecPtr(record + CONTAINER_REC_OFFSET, container.getRecord());
+        db.putRecPtr(record + FILE_REC_OFFSET, file.getRecord());
+        db.putInt(record + NODE_OFFSET_OFFSET, source.getNodeOffset());
+        db.putShort(record + NODE_LENGTH_OFFSET, (short) source.getNodeLength());
+        container.addReference(this);
+        if (caller != null) {
+            db.putRecPtr(record + CALLER_REC_OFFSET, caller.getRecord());
+        }
+    }
+
     public PDOMMacroReferenceName(PDOMLinkage linkage, long nameRecord) {
         this.linkage = linkage;
         this.record = nameRecord;
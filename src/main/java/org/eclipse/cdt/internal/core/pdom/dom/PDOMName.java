@@ -127,6 +127,38 @@ public final class PDOMName implements IIndexFragmentName {
         db.putShort(record + NODE_LENGTH_OFFSET, (short) fileloc.getNodeLength());
     }
 
+    /**
+     * Creates a copy of a name of another database in the given file.
+     * @param source the name to copy
+     * @param binding the binding of this database corresponding to the one of the source
+     * @param caller the copy of the enclosing definition of the source, or {@code null}
+     */
+    public PDOMName(PDOMLinkage linkage, PDOMName source, PDOMFile file, PDOMBinding binding, PDOMName caller) throws CoreException {
+        this.linkage = linkage;
+        Database db = linkage.getDB();
+        record = db.malloc(RECORD_SIZE);
+        int flags = source.getFlags(0xff);
+        db.putByte(record + FLAGS, (byte) flags);
+        switch(flags & DECL_DEF_REF_MASK) {
+            case IS_DEFINITION:
+                binding.addDefinition(this);
+                break;
+            case IS_DECLARATION:
+                binding.addDeclaration(this);
+                break;
+            case IS_REFERENCE:
+                binding.addReference(this);
+                break;
+        }
+        db.putRecPtr(record + BINDING_REC_OFFSET, binding.getRecord());
+        db.putRecPtr(record + FILE_REC_OFFSET, file.getRecord());
+        if (caller != null) {
+            db.putRecPtr(record + CALLER_REC_OFFSET, caller.getRecord());
+        }
+        db.put3ByteUnsignedInt(record + NODE_OFFSET_OFFSET, source.getNodeOffset());
+        db.putShort(record + NODE_LENGTH_OFFSET, (short) source.getNodeLength());
+    }
+
     private int getRoleOfName(IASTName name) {
         if (name.isDefinition()) {
             return IS_DEFINITION;
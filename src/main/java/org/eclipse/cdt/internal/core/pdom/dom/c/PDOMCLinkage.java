@@ -170,6 +170,7 @@ public class PDOMCLinkage extends PDOMLinkage implements IIndexCBindingConstants
             if (parent != this && insertIntoIndex != this) {
                 insertIntoNestedBindingsIndex(pdomBinding);
             }
+            insertIntoNameIndex(pdomBinding);
         }
         return pdomBinding;
     }
@@ -72,6 +72,7 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPMember;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPMethod;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPNamespace;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPNamespaceAlias;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPNamespaceScope;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPParameter;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPPartialSpecialization;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPSpecialization;
@@ -903,6 +904,7 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 			if (parent != this && parent2 != this) {
 				insertIntoNestedBindingsIndex(pdomBinding);
 			}
+			insertIntoNameIndex(pdomBinding);
 		}
 
 		return pdomBinding;
@@ -1594,6 +1596,83 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 		}
 	}
 
+	@Override
+	public PDOMBinding copyBinding(PDOMBinding binding, boolean isDefinition) throws CoreException {
+		PDOMBinding pdomBinding = super.copyBinding(binding, isDefinition);
+		// There is no name being added, run the post-processes scheduled while storing the binding.
+		handlePostProcesses();
+		if (pdomBinding instanceof IPDOMCPPClassType && binding instanceof IPDOMCPPClassType) {
+			if (!((IPDOMCPPClassType) binding).isVisibleToAdlOnly()) {
+				((IPDOMCPPClassType) pdomBinding).setVisibleToAdlOnly(false);
+			}
+		}
+		return pdomBinding;
+	}
+
+	@Override
+	public void onCopyName(PDOMFile file, PDOMName source, PDOMName pdomName) throws CoreException {
+		super.onCopyName(file, source, pdomName);
+		if (pdomName.isFriendSpecifier()) {
+			PDOMName enclClassName = (PDOMName) pdomName.getEnclosingDefinition();
+			if (enclClassName != null) {
+				PDOMBinding enclClassBinding = enclClassName.getBinding();
+				if (enclClassBinding instanceof PDOMCPPClassType) {
+					((PDOMCPPClassType) enclClassBinding).addFriend(new PDOMCPPFriend(this, pdomName));
+				}
+			}
+		} else if (pdomName.isDefinition()) {
+			PDOMBinding pdomBinding = pdomName.getBinding();
+			if (pdomBinding instanceof PDOMCPPClassType || pdomBinding instanceof PDOMCPPClassSpecialization) {
+				PDOMBinding sourceBinding = source.getBinding();
+				if (sourceBinding instanceof ICPPClassType) {
+					List<ICPPBase> bases = new ArrayList<>();
+					for (ICPPBase base : ((ICPPClassType) sourceBinding).getBases()) {
+						if (base instanceof PDOMCPPBase) {
+							PDOMName defName = ((PDOMCPPBase) base).getClassDefinitionName();
+							if (defName != null && defName.getRecord() == source.getRecord()) {
+								bases.add(base);
+							}
+						}
+					}
+					if (!bases.isEmpty()) {
+						ICPPBase[] baseArray = bases.toArray(new ICPPBase[bases.size()]);
+						if (pdomBinding instanceof PDOMCPPClassType) {
+							((PDOMCPPClassType) pdomBinding).addBases(pdomName, baseArray);
+						} else {
+							((PDOMCPPClassSpecialization) pdomBinding).addBases(pdomName, baseArray);
+						}
+					}
+					addImplicitMethods(pdomBinding, (ICPPClassType) sourceBinding);
+					handlePostProcesses();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onCopyFile(PDOMFile sourceFile, PDOMFile file) throws CoreException {
+		super.onCopyFile(sourceFile, file);
+		for (ICPPUsingDirective ud : sourceFile.getUsingDirectives()) {
+			PDOMCPPNamespace containerNS = null;
+			IScope container = ud.getContainingScope();
+			if (container instanceof PDOMCPPNamespace) {
+				PDOMBinding binding = copyBinding((PDOMCPPNamespace) container, false);
+				if (!(binding instanceof PDOMCPPNamespace))
+					continue;
+				containerNS = (PDOMCPPNamespace) binding;
+			}
+			ICPPNamespaceScope nominatedScope = ud.getNominatedScope();
+			if (nominatedScope instanceof PDOMCPPNamespace) {
+				PDOMBinding nominated = copyBinding((PDOMCPPNamespace) nominatedScope, false);
+				if (nominated != null) {
+					PDOMCPPUsingDirective copy = new PDOMCPPUsingDirective(this, file.getLastUsingDirectiveRec(),
+							containerNS, nominated, ud.getPointOfDeclaration());
+					file.setLastUsingDirective(copy.getRecord());
+				}
+			}
+		}
+	}
+
 	@Override
 	protected PDOMFile getLocalToFile(IBinding binding, PDOMBinding glob) throws CoreException {
 		PDOM pdom = getPDOM();
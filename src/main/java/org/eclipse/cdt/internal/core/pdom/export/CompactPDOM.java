@@ -0,0 +1,130 @@
+/**
+ * ****************************************************************************
+ *  Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * *****************************************************************************
+ */
+package org.eclipse.cdt.internal.core.pdom.export;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.MessageFormat;
+import java.util.Map;
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.index.IIndexLocationConverter;
+import org.eclipse.cdt.internal.core.pdom.PDOM;
+import org.eclipse.cdt.internal.core.pdom.dom.IPDOMLinkageFactory;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Compacts a PDOM that has become fragmented by incremental updates. Records are referenced by their
+ * offsets, so they cannot be moved within the file. Instead the live content is copied into a new
+ * database, file by file such that the records of a file are close to each other, which then
+ * replaces the original file.
+ * <p>
+ * The database must not be opened by anybody else while it is compacted.
+ */
+public class CompactPDOM {
+
+    /**
+     * System property with the fraction of free space in a database above which
+     * {@link #isCompactionRecommended()} returns {@code true}.
+     */
+    //$NON-NLS-1$
+    public static final String THRESHOLD_PROPERTY = "org.eclipse.cdt.core.index.compactionThreshold";
+
+    private static final double DEFAULT_THRESHOLD = 0.4;
+
+    public File location;
+
+    public IIndexLocationConverter locationConverter;
+
+    public Map<String, IPDOMLinkageFactory> linkageFactoryMappings;
+
+    public CompactPDOM(File location, IIndexLocationConverter locationConverter, Map<String, IPDOMLinkageFactory> linkageFactoryMappings) {
+        this.location = location;
+        this.locationConverter = locationConverter;
+        this.linkageFactoryMappings = linkageFactoryMappings;
+    }
+
+    /**
+     * Returns the fraction of the database that is occupied by free blocks.
+     * @see org.eclipse.cdt.internal.core.pdom.db.Database#getFragmentation()
+     */
+    public double getFragmentation() throws CoreException {
+        PDOM pdom = new PDOM(location, locationConverter, linkageFactoryMappings);
+        try {
+            pdom.acquireWriteLock(null);
+            try {
+                return pdom.getDB().getFragmentation();
+            } finally {
+                try {
+                    pdom.close();
+                } finally {
+                    pdom.releaseWriteLock();
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new CoreException(CCorePlugin.createStatus(e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Returns whether the fragmentation of the database exceeds the threshold given by
+     * the system property {@value #THRESHOLD_PROPERTY}.
+     */
+    public boolean isCompactionRecommended() throws CoreException {
+        double threshold = DEFAULT_THRESHOLD;
+        String value = System.getProperty(THRESHOLD_PROPERTY);
+        if (value != null) {
+            try {
+                threshold = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+            }
+        }
+        return getFragmentation() > threshold;
+    }
+
+    /**
+     * Executes the compaction. The database is closed when the method returns, also when it fails.
+     * @return {@link IStatus#OK} if the database has been replaced by its compacted copy,
+     *     {@link IStatus#CANCEL} if the monitor was canceled, the database is unchanged then.
+     * @throws CoreException if a database cannot be read or written
+     */
+    public final IStatus run(IProgressMonitor monitor) throws CoreException {
+        //$NON-NLS-1$
+        File copy = new File(location.getParentFile(), location.getName() + ".compact");
+        boolean replaced = false;
+        try {
+            IStatus status = new MergePDOM(new File[] { location }, copy, locationConverter, linkageFactoryMappings).run(monitor);
+            if (!status.isOK()) {
+                return status;
+            }
+            long oldSize = location.length();
+            Files.move(copy.toPath(), location.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            replaced = true;
+            return new Status(IStatus.OK, CCorePlugin.PLUGIN_ID, MessageFormat.format(Messages.CompactPDOM_Success, new Object[] { location.getName(), oldSize, location.length() }));
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+        } catch (IOException e) {
+            String msg = MessageFormat.format(Messages.CompactPDOM_CompactionFailed, new Object[] { e.getMessage() });
+            throw new CoreException(CCorePlugin.createStatus(msg, e));
+        } finally {
+            if (!replaced) {
+                copy.delete();
+            }
+        }
+    }
+}
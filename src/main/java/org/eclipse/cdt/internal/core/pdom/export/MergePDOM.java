@@ -0,0 +1,190 @@
+/**
+ * ****************************************************************************
+ *  Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * *****************************************************************************
+ */
+package org.eclipse.cdt.internal.core.pdom.export;
+
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.index.IIndexLocationConverter;
+import org.eclipse.cdt.internal.core.index.IIndexFragment;
+import org.eclipse.cdt.internal.core.index.IIndexFragmentFile;
+import org.eclipse.cdt.internal.core.pdom.PDOM;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
+import org.eclipse.cdt.internal.core.pdom.db.DBProperties;
+import org.eclipse.cdt.internal.core.pdom.dom.IPDOMLinkageFactory;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Merges databases that have been built for disjoint parts of a project (shards) into a single
+ * PDOM. Each shard is typically written by an indexer of its own, possibly in parallel.
+ * <ul>
+ * <li>A file present in several shards, as a header included from sources of different shards,
+ * is reconciled by its location and significant macros. The content of the first shard wins.
+ * <li>Bindings are adapted to or added to the linkages of the merged database, which rebuilds
+ * the indexes of bindings and files.
+ * <li>The first includer of a header copied to the merged database becomes its context.
+ * </ul>
+ * The shards and the merged database have to use the same location converter. The properties
+ * of the first shard are copied to the merged database.
+ */
+public class MergePDOM {
+
+    public File[] shardLocations;
+
+    public File targetLocation;
+
+    public IIndexLocationConverter locationConverter;
+
+    public Map<String, IPDOMLinkageFactory> linkageFactoryMappings;
+
+    public MergePDOM(File[] shardLocations, File targetLocation, IIndexLocationConverter locationConverter, Map<String, IPDOMLinkageFactory> linkageFactoryMappings) {
+        this.shardLocations = shardLocations;
+        this.targetLocation = targetLocation;
+        this.locationConverter = locationConverter;
+        this.linkageFactoryMappings = linkageFactoryMappings;
+    }
+
+    /**
+     * Executes the merge, the previous content of the target database is discarded. The shards
+     * and the target database are closed when the method returns, also when it fails.
+     * @return {@link IStatus#OK} if all shards were merged, {@link IStatus#CANCEL} if the
+     *     monitor was canceled.
+     * @throws CoreException if a database cannot be read or written
+     */
+    public final IStatus run(IProgressMonitor monitor) throws CoreException {
+        SubMonitor progress = SubMonitor.convert(monitor, shardLocations.length * 2);
+        List<PDOM> shards = new ArrayList<>(shardLocations.length);
+        WritablePDOM target = null;
+        try {
+            for (File shardLocation : shardLocations) {
+                shards.add(new PDOM(shardLocation, locationConverter, linkageFactoryMappings));
+            }
+            target = new WritablePDOM(targetLocation, locationConverter, linkageFactoryMappings);
+            if (!merge(shards, target, progress))
+                return Status.CANCEL_STATUS;
+            // Report failures to close the databases after a successful merge.
+            close(target);
+            target = null;
+            while (!shards.isEmpty()) {
+                close(shards.remove(shards.size() - 1));
+            }
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+        } catch (InterruptedException e) {
+            String msg = MessageFormat.format(Messages.MergePDOM_MergeFailed, new Object[] { e.getMessage() });
+            throw new CoreException(CCorePlugin.createStatus(msg, e));
+        } finally {
+            if (target != null) {
+                closeQuietly(target);
+            }
+            for (PDOM shard : shards) {
+                closeQuietly(shard);
+            }
+        }
+        return new Status(IStatus.OK, CCorePlugin.PLUGIN_ID, MessageFormat.format(Messages.MergePDOM_Success, new Object[] { shardLocations.length }));
+    }
+
+    /**
+     * Copies the content of the shards into the target.
+     * @return {@code false} if the monitor was canceled.
+     */
+    private static boolean merge(List<PDOM> shards, WritablePDOM target, SubMonitor progress) throws CoreException, InterruptedException {
+        int readLocked = 0;
+        try {
+            for (PDOM shard : shards) {
+                shard.acquireReadLock();
+                readLocked++;
+            }
+            target.acquireWriteLock(null);
+            try {
+                target.clear();
+                if (!shards.isEmpty()) {
+                    copyProperties(shards.get(0), target);
+                }
+                target.setMergingDatabases(true);
+                // Create all files before copying content, such that bindings local to a file
+                // can be mapped regardless of the order in which the files are copied.
+                List<IIndexFragmentFile[]> copies = new ArrayList<>();
+                Set<IIndexFragmentFile> scheduled = new HashSet<>();
+                for (PDOM shard : shards) {
+                    for (IIndexFragmentFile file : shard.getAllFiles()) {
+                        if (!file.hasContent())
+                            continue;
+                        IIndexFragmentFile existing = target.getFile(file.getLinkageID(), file.getLocation(), file.getSignificantMacros());
+                        if (existing == null || !existing.hasContent() && !scheduled.contains(existing)) {
+                            IIndexFragmentFile targetFile = target.addFile(file.getLinkageID(), file.getLocation(), file.getSignificantMacros());
+                            copies.add(new IIndexFragmentFile[] { targetFile, file });
+                            scheduled.add(targetFile);
+                        }
+                    }
+                    progress.worked(1);
+                    if (progress.isCanceled())
+                        return false;
+                }
+                SubMonitor copyProgress = progress.split(shards.size()).setWorkRemaining(copies.size());
+                for (IIndexFragmentFile[] copy : copies) {
+                    target.copyFileContent(copy[0], copy[1]);
+                    copyProgress.split(1);
+                }
+            } finally {
+                target.setMergingDatabases(false);
+                target.releaseWriteLock();
+            }
+        } finally {
+            for (int i = 0; i < readLocked; i++) {
+                shards.get(i).releaseReadLock();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closes the database, which requires the exclusive lock.
+     */
+    static void close(PDOM pdom) throws CoreException, InterruptedException {
+        pdom.acquireWriteLock(null);
+        try {
+            pdom.close();
+        } finally {
+            pdom.releaseWriteLock();
+        }
+    }
+
+    private static void closeQuietly(PDOM pdom) {
+        try {
+            close(pdom);
+        } catch (CoreException | InterruptedException e) {
+            CCorePlugin.log(e);
+        }
+    }
+
+    private static void copyProperties(PDOM source, WritablePDOM target) throws CoreException {
+        DBProperties sourceProperties = new DBProperties(source.getDB(), PDOM.PROPERTIES);
+        for (String key : sourceProperties.getKeySet()) {
+            // The format is the one of the target.
+            if (!IIndexFragment.PROPERTY_FRAGMENT_FORMAT_ID.equals(key) && !IIndexFragment.PROPERTY_FRAGMENT_FORMAT_VERSION.equals(key)) {
+                target.setProperty(key, sourceProperties.getProperty(key));
+            }
+        }
+    }
+}
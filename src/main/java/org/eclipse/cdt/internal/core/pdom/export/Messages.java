@@ -16,6 +16,8 @@ package org.eclipse.cdt.internal.core.pdom.export;
 import org.eclipse.osgi.util.NLS;
 
 public class Messages extends NLS {
+	public static String CompactPDOM_CompactionFailed;
+	public static String CompactPDOM_Success;
 	public static String GeneratePDOM_GenericGenerationFailed;
 	public static String GeneratePDOM_Incomplete;
 	public static String GeneratePDOM_NullLocationConverter;
@@ -27,6 +29,8 @@ public class Messages extends NLS {
 	public static String GeneratePDOMApplication_Initializing;
 	public static String GeneratePDOMApplication_InvalidIndexerID;
 	public static String GeneratePDOMApplication_UsingDefaultProjectProvider;
+	public static String MergePDOM_MergeFailed;
+	public static String MergePDOM_Success;
 
 	static {
 		// Initialize resource bundle.
@@ -310,6 +310,10 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
             "MB]: " + +hits + //$NON-NLS-1$
             " hits, " + misses + "(" + nfPercent.format(missPct) + //$NON-NLS-1$ //$NON-NLS-2$
             ") misses.");
+            System.out.println(//$NON-NLS-1$
+            indent + " Locks: " + fStatistics.fLockWaitCount + //$NON-NLS-1$
+            " waits, " + fStatistics.fLockWaitTime + //$NON-NLS-1$
+            " ms waiting.");
             if (Boolean.parseBoolean(System.getProperty("SHOW_COMPRESSED_INDEXER_INFO"))) {
                 //$NON-NLS-1$
                 Calendar cal = Calendar.getInstance();
@@ -53,6 +53,8 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
 
     private IProgressMonitor fProgressMonitor;
 
+    private IWritableIndex fBulkLoadingIndex;
+
     public PDOMRebuildTask(IPDOMIndexer indexer) {
         fIndexer = indexer;
         fProgress = createProgress();
@@ -97,6 +99,7 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
             }
         } finally {
             fProgressMonitor = null;
+            finishBulkLoading();
         }
     }
 
@@ -108,12 +111,30 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
             IWritableIndexFragment wf = index.getWritableFragment();
             if (wf instanceof WritablePDOM) {
                 PDOMManager.writeProjectPDOMProperties((WritablePDOM) wf, project.getProject());
+                // The index is empty, let it build its indexes bottom-up.
+                ((WritablePDOM) wf).setBulkLoading(true);
+                fBulkLoadingIndex = index;
             }
         } finally {
             index.releaseWriteLock();
         }
     }
 
+    private void finishBulkLoading() throws InterruptedException {
+        IWritableIndex index = fBulkLoadingIndex;
+        if (index != null) {
+            fBulkLoadingIndex = null;
+            index.acquireWriteLock(null);
+            try {
+                ((WritablePDOM) index.getWritableFragment()).setBulkLoading(false);
+            } catch (CoreException e) {
+                CCorePlugin.log(e);
+            } finally {
+                index.releaseWriteLock();
+            }
+        }
+    }
+
     private void createDelegate(ICProject project, IProgressMonitor monitor) throws CoreException {
         boolean allFiles = TRUE.equals(fIndexer.getProperty(IndexerPreferences.KEY_INDEX_UNUSED_HEADERS_WITH_DEFAULT_LANG)) || TRUE.equals(fIndexer.getProperty(IndexerPreferences.KEY_INDEX_UNUSED_HEADERS_WITH_ALTERNATE_LANG));
         List<ITranslationUnit> sources = new ArrayList<>();
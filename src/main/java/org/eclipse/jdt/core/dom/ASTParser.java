@@ -217,6 +217,11 @@ public class ASTParser {
      */
     private int bits;
 
+    /**
+     * Maximum number of threads parsing source files in a batch.
+     */
+    private int parallelism;
+
     private final ICompilationUnitResolver unitResolver;
 
     /**
@@ -324,6 +329,7 @@ public class ASTParser {
         this.rawSource = null;
         this.typeRoot = null;
         this.bits = 0;
+        this.parallelism = 1;
         this.sourceLength = -1;
         this.sourceOffset = 0;
         this.workingCopyOwner = DefaultWorkingCopyOwner.PRIMARY;
@@ -338,6 +344,21 @@ public class ASTParser {
         this.compilerOptions = options;
     }
 
+    /**
+     * Sets the maximum number of threads used to parse the source files of
+     * {@link #createASTs(String[], String[], String[], FileASTRequestor, IProgressMonitor)}
+     * when bindings are not resolved. Each thread uses its own parser; the ASTs are still
+     * delivered to the requestor from the calling thread, in the order of the source files.
+     * <p>
+     * Defaults to <code>1</code>, i.e. the source files are parsed one after the other.
+     * </p>
+     *
+     * @param parallelism the maximum number of threads, values below <code>1</code> mean <code>1</code>
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
     /**
      * Requests that the compiler should perform bindings recovery.
      * When bindings recovery is enabled the compiler returns incomplete bindings.
@@ -1128,7 +1149,7 @@ public class ASTParser {
                 }
                 this.unitResolver.resolve(safeCopyOf(sourceFilePaths), safeCopyOf(encodings), safeCopyOf(bindingKeys), requestor, this.apiLevel, safeUnmodifiableMap(this.compilerOptions), getClasspath(), flags, monitor);
             } else {
-                this.unitResolver.parse(safeCopyOf(sourceFilePaths), safeCopyOf(encodings), requestor, this.apiLevel, safeUnmodifiableMap(this.compilerOptions), flags, monitor);
+                this.unitResolver.parse(safeCopyOf(sourceFilePaths), safeCopyOf(encodings), requestor, this.apiLevel, safeUnmodifiableMap(this.compilerOptions), flags, this.parallelism, monitor);
             }
         } finally {
             // reset to defaults to allow reuse (and avoid leaking)
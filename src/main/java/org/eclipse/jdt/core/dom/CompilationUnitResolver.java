@@ -20,13 +20,19 @@ package org.eclipse.jdt.core.dom;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.IClasspathEntry;
@@ -94,6 +100,11 @@ public class CompilationUnitResolver extends Compiler {
             CompilationUnitResolver.parse(sourceFilePaths, encodings, requestor, apiLevel, compilerOptions, flags, monitor);
         }
 
+        @Override
+        public void parse(String[] sourceFilePaths, String[] encodings, FileASTRequestor requestor, int apiLevel, Map<String, String> compilerOptions, int flags, int parallelism, IProgressMonitor monitor) {
+            CompilationUnitResolver.parse(sourceFilePaths, encodings, requestor, apiLevel, compilerOptions, flags, parallelism, monitor);
+        }
+
         @Override
         public void resolve(ICompilationUnit[] compilationUnits, String[] bindingKeys, ASTRequestor requestor, int apiLevel, Map<String, String> compilerOptions, IJavaProject project, WorkingCopyOwner workingCopyOwner, int flags, IProgressMonitor monitor) {
             CompilationUnitResolver.resolve(compilationUnits, bindingKeys, requestor, apiLevel, compilerOptions, project, workingCopyOwner, flags, monitor);
@@ -527,45 +538,118 @@ public class CompilationUnitResolver extends Compiler {
         SubMonitor subMonitor = SubMonitor.convert(monitor, unitLength);
         for (int i = 0; i < unitLength; i++) {
             SubMonitor iterationMonitor = subMonitor.split(1);
-            char[] contents = null;
             String encoding = encodings != null ? encodings[i] : null;
-            try {
-                contents = Util.getFileCharContent(new File(sourceUnits[i]), encoding);
-            } catch (IOException e) {
+            CompilationUnit node = parseSourceFile(sourceUnits[i], encoding, parser, compilerOptions, apiLevel, options, flags, iterationMonitor);
+            if (node == null) {
                 // go to the next unit
                 continue;
             }
-            if (contents == null) {
-                // go to the next unit
-                continue;
+            // accept AST
+            astRequestor.acceptAST(sourceUnits[i], node);
+        }
+    }
+
+    /**
+     * Parses the given source files like {@link #parse(String[], String[], FileASTRequestor, int, Map, int, IProgressMonitor)},
+     * with up to <code>parallelism</code> threads each using its own parser. The ASTs are delivered to the requestor
+     * from the calling thread in the order of the source files; at most a few units per thread are parsed ahead.
+     */
+    public static void parse(String[] sourceUnits, String[] encodings, FileASTRequestor astRequestor, int apiLevel, Map options, int flags, int parallelism, IProgressMonitor monitor) {
+        int unitLength = sourceUnits.length;
+        if (parallelism <= 1 || unitLength <= 1) {
+            parse(sourceUnits, encodings, astRequestor, apiLevel, options, flags, monitor);
+            return;
+        }
+        ThreadLocal<Parser> parsers = ThreadLocal.withInitial(() -> {
+            CompilerOptions compilerOptions = new CompilerOptions(options);
+            compilerOptions.ignoreMethodBodies = (flags & ICompilationUnit.IGNORE_METHOD_BODIES) != 0;
+            return new CommentRecorderParser(new ProblemReporter(DefaultErrorHandlingPolicies.proceedWithAllProblems(), compilerOptions, new DefaultProblemFactory()), false);
+        });
+        CompilerOptions compilerOptions = new CompilerOptions(options);
+        SubMonitor subMonitor = SubMonitor.convert(monitor, unitLength);
+        // Same as JavaModelManager.saveState(): never use the shared common pool, and use a custom
+        // ForkJoinWorkerThreadFactory to get no issues with a potential SecurityManager.
+        ForkJoinPool forkJoinPool = new ForkJoinPool(Math.min(parallelism, unitLength), //
+                pool -> new ForkJoinWorkerThread(pool) {
+                    // anonymous subclass to access protected constructor
+                }, null, false);
+        // bounds the number of ASTs held in memory before the requestor accepts them
+        int maxAhead = parallelism * 4;
+        ArrayDeque<Future<CompilationUnit>> pending = new ArrayDeque<>(maxAhead);
+        try {
+            int submitted = 0;
+            for (int i = 0; i < unitLength; i++) {
+                while (submitted < unitLength && submitted - i < maxAhead) {
+                    String sourceUnit = sourceUnits[submitted];
+                    String encoding = encodings != null ? encodings[submitted] : null;
+                    pending.add(forkJoinPool.submit(() -> parseSourceFile(sourceUnit, encoding, parsers.get(), compilerOptions, apiLevel, options, flags, new NullProgressMonitor())));
+                    submitted++;
+                }
+                subMonitor.split(1);
+                CompilationUnit node = pending.remove().get();
+                if (node == null) {
+                    // go to the next unit
+                    continue;
+                }
+                // accept AST
+                astRequestor.acceptAST(sourceUnits[i], node);
             }
-            org.eclipse.jdt.internal.compiler.batch.CompilationUnit compilationUnit = new org.eclipse.jdt.internal.compiler.batch.CompilationUnit(contents, sourceUnits[i], encoding);
-            org.eclipse.jdt.internal.compiler.env.ICompilationUnit sourceUnit = compilationUnit;
-            CompilationResult compilationResult = new CompilationResult(sourceUnit, 0, 0, compilerOptions.maxProblemsPerUnit);
-            CompilationUnitDeclaration compilationUnitDeclaration = parser.dietParse(sourceUnit, compilationResult);
-            if (compilationUnitDeclaration.ignoreMethodBodies) {
-                compilationUnitDeclaration.ignoreFurtherInvestigation = true;
-                // if initial diet parse did not work, no need to dig into method bodies.
-                continue;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
             }
-            //fill the methods bodies in order for the code to be generated
-            //real parse of the method....
-            org.eclipse.jdt.internal.compiler.ast.TypeDeclaration[] types = compilationUnitDeclaration.types;
-            if (types != null) {
-                for (TypeDeclaration type : types) {
-                    type.parseMethods(parser, compilationUnitDeclaration);
-                }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads, parses and converts one source file, answers null if the file cannot be read
+     * or its diet parse failed.
+     */
+    private static CompilationUnit parseSourceFile(String sourceUnitPath, String encoding, Parser parser, CompilerOptions compilerOptions, int apiLevel, Map options, int flags, IProgressMonitor monitor) {
+        char[] contents = null;
+        try {
+            contents = Util.getFileCharContent(new File(sourceUnitPath), encoding);
+        } catch (IOException e) {
+            return null;
+        }
+        if (contents == null) {
+            return null;
+        }
+        org.eclipse.jdt.internal.compiler.batch.CompilationUnit compilationUnit = new org.eclipse.jdt.internal.compiler.batch.CompilationUnit(contents, sourceUnitPath, encoding);
+        org.eclipse.jdt.internal.compiler.env.ICompilationUnit sourceUnit = compilationUnit;
+        CompilationResult compilationResult = new CompilationResult(sourceUnit, 0, 0, compilerOptions.maxProblemsPerUnit);
+        CompilationUnitDeclaration compilationUnitDeclaration = parser.dietParse(sourceUnit, compilationResult);
+        if (compilationUnitDeclaration.ignoreMethodBodies) {
+            compilationUnitDeclaration.ignoreFurtherInvestigation = true;
+            // if initial diet parse did not work, no need to dig into method bodies.
+            return null;
+        }
+        //fill the methods bodies in order for the code to be generated
+        //real parse of the method....
+        org.eclipse.jdt.internal.compiler.ast.TypeDeclaration[] types = compilationUnitDeclaration.types;
+        if (types != null) {
+            for (TypeDeclaration type : types) {
+                type.parseMethods(parser, compilationUnitDeclaration);
             }
-            // convert AST
-            CompilationUnit node = convert(compilationUnitDeclaration, parser.scanner.getSource(), apiLevel, options, false, /* don't resolve binding */
-            null, /* no owner needed */
-            null, /* no binding table needed */
-            flags, /* flags */
-            iterationMonitor, true);
-            node.setTypeRoot(null);
-            // accept AST
-            astRequestor.acceptAST(sourceUnits[i], node);
         }
+        // convert AST
+        CompilationUnit node = convert(compilationUnitDeclaration, parser.scanner.getSource(), apiLevel, options, false, /* don't resolve binding */
+        null, /* no owner needed */
+        null, /* no binding table needed */
+        flags, /* flags */
+        monitor, true);
+        node.setTypeRoot(null);
+        return node;
     }
 
     public static CompilationUnitDeclaration parse(org.eclipse.jdt.internal.compiler.env.ICompilationUnit sourceUnit, NodeSearcher nodeSearcher, Map settings, int flags) {
@@ -82,6 +82,25 @@ public interface ICompilationUnitResolver {
 	void parse(String[] sourceFilePaths, String[] encodings, FileASTRequestor requestor, int apiLevel,
 			Map<String, String> compilerOptions, int flags, IProgressMonitor monitor);
 
+	/**
+	 * Parse the given source paths with the following options, using up to the given number of threads.
+	 * The ASTs are delivered to the requestor from the calling thread in the order of the source paths.
+	 * Default implementation parses the source paths sequentially.
+	 *
+	 * @param sourceFilePaths the compilation units to create ASTs for
+	 * @param encodings the given encoding for the source units
+	 * @param requestor the AST requester that collects abstract syntax trees and bindings
+	 * @param apiLevel Level of AST API desired.
+	 * @param compilerOptions Compiler options. Defaults to JavaCore.getOptions().
+	 * @param flags Flags to to be used during this operation
+	 * @param parallelism the maximum number of threads parsing source files
+	 * @param monitor A progress monitor
+	 */
+	default void parse(String[] sourceFilePaths, String[] encodings, FileASTRequestor requestor, int apiLevel,
+			Map<String, String> compilerOptions, int flags, int parallelism, IProgressMonitor monitor) {
+		parse(sourceFilePaths, encodings, requestor, apiLevel, compilerOptions, flags, monitor);
+	}
+
 	/**
 	 * Parse and resolve bindings for the given compilation units with the following options.
 	 *
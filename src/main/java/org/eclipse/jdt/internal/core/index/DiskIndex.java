@@ -24,8 +24,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.regex.Pattern;
 import org.eclipse.core.runtime.ILog;
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -83,6 +86,12 @@ public class DiskIndex {
     // used when writing data from the streamBuffer to the file
     private int streamEnd;
 
+    // read-only mapping of the index file, decoded without holding the lock on this index
+    private volatile ByteBuffer mappedIndex;
+
+    // set when the index file cannot be mapped, guarded by this
+    private boolean mappingUnavailable;
+
     char separator = Index.DEFAULT_SEPARATOR;
 
     //$NON-NLS-1$
@@ -101,6 +110,13 @@ public class DiskIndex {
 
     private static final int CHUNK_SIZE = 100;
 
+    /**
+     * Whether index files are mapped into memory for reading. Disabled by default on Windows,
+     * where a mapped file cannot be deleted or replaced until the mapping is garbage collected.
+     */
+    //$NON-NLS-1$
+    static final public boolean MAPPED_READS = Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.core.index.mappedReads", String.valueOf(File.separatorChar == '/')));
+
     private static final SimpleSetOfCharArray INTERNED_CATEGORY_NAMES = new SimpleSetOfCharArray(20);
 
     //$NON-NLS-1$
@@ -134,6 +150,120 @@ public class DiskIndex {
         }
     }
 
+    /**
+     * Decodes the index file from its mapping. Every reader has its own position, so any number
+     * of readers can decode the same mapping concurrently.
+     */
+    static class MappedReader {
+
+        final ByteBuffer buffer;
+
+        int position;
+
+        MappedReader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readUnsignedByte() {
+            return this.buffer.get(this.position++) & 0xFF;
+        }
+
+        int readInt() {
+            int val = this.buffer.getInt(this.position);
+            this.position += 4;
+            return val;
+        }
+
+        // same encoding as readStreamChars()
+        char[] readChars() throws UTFDataFormatException {
+            int length = readUnsignedByte() << 8;
+            length += readUnsignedByte();
+            char[] word = new char[length];
+            for (int i = 0; i < length; i++) {
+                byte b = this.buffer.get(this.position++);
+                if (b >= 0) {
+                    word[i] = (char) b;
+                    continue;
+                }
+                switch(b & 0xF0) {
+                    case 0xC0:
+                    case 0xD0:
+                        char next = (char) this.buffer.get(this.position++);
+                        if ((next & 0xC0) != 0x80) {
+                            throw new UTFDataFormatException();
+                        }
+                        char ch = (char) ((b & 0x1F) << 6);
+                        ch |= next & 0x3F;
+                        word[i] = ch;
+                        break;
+                    case 0xE0:
+                        char first = (char) this.buffer.get(this.position++);
+                        char second = (char) this.buffer.get(this.position++);
+                        if ((first & second & 0xC0) != 0x80) {
+                            throw new UTFDataFormatException();
+                        }
+                        ch = (char) ((b & 0x0F) << 12);
+                        ch |= ((first & 0x3F) << 6);
+                        ch |= second & 0x3F;
+                        word[i] = ch;
+                        break;
+                    default:
+                        throw new UTFDataFormatException();
+                }
+            }
+            return word;
+        }
+
+        // same encoding as readStreamDocumentArray()
+        int[] readDocumentArray(int arraySize, int documentReferenceSize) {
+            int[] indexes = new int[arraySize];
+            switch(documentReferenceSize) {
+                case 1:
+                    for (int i = 0; i < arraySize; i++) {
+                        indexes[i] = readUnsignedByte();
+                    }
+                    break;
+                case 2:
+                    for (int i = 0; i < arraySize; i++) {
+                        indexes[i] = this.buffer.getShort(this.position) & 0xFFFF;
+                        this.position += 2;
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < arraySize; i++) {
+                        indexes[i] = readInt();
+                    }
+                    break;
+            }
+            return indexes;
+        }
+
+        // same encoding as readChunk()
+        void readChunk(String[] docNames, int index, int size) throws UTFDataFormatException {
+            String current = new String(readChars());
+            docNames[index++] = current;
+            for (int i = 1; i < size; i++) {
+                int start = readUnsignedByte();
+                int end = readUnsignedByte();
+                String next = new String(readChars());
+                if (start > 0) {
+                    if (end > 0) {
+                        int length = current.length();
+                        next = current.substring(0, start) + next + current.substring(length - end, length);
+                    } else {
+                        next = current.substring(0, start) + next;
+                    }
+                } else if (end > 0) {
+                    int length = current.length();
+                    next = next + current.substring(length - end, length);
+                }
+                docNames[index++] = next;
+                current = next;
+            }
+        }
+    }
+
     DiskIndex() {
         this.headerInfoOffset = -1;
         this.numberOfChunks = -1;
@@ -298,7 +428,28 @@ public class DiskIndex {
         return results;
     }
 
-    private synchronized void cacheDocumentNames() throws IOException {
+    private void cacheDocumentNames() throws IOException {
+        ByteBuffer mapped = getMappedIndex();
+        if (mapped == null) {
+            cacheDocumentNamesFromStream();
+            return;
+        }
+        String[][] chunks = new String[this.numberOfChunks][];
+        try {
+            MappedReader reader = new MappedReader(mapped, this.chunkOffsets[0]);
+            for (int i = 0; i < this.numberOfChunks; i++) {
+                int size = i == this.numberOfChunks - 1 ? this.sizeOfLastChunk : CHUNK_SIZE;
+                reader.readChunk(chunks[i] = new String[size], 0, size);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw corruptedIndex(e);
+        }
+        synchronized (this) {
+            this.cachedChunks = chunks;
+        }
+    }
+
+    private synchronized void cacheDocumentNamesFromStream() throws IOException {
         // will need all document names so get them now
         this.cachedChunks = new String[this.numberOfChunks][];
         try (InputStream stream = this.indexLocation.getInputStream()) {
@@ -438,6 +589,7 @@ public class DiskIndex {
     }
 
     void initialize(boolean reuseExistingFile) throws IOException {
+        releaseMapping();
         if (this.indexLocation.exists()) {
             if (reuseExistingFile) {
                 try (InputStream stream = this.indexLocation.getInputStream()) {
@@ -642,6 +794,7 @@ public class DiskIndex {
             }
             newDiskIndex.writeOffsetToHeader(offsetToHeader);
             // rename file by deleting previous index file & renaming temp one
+            releaseMapping();
             try {
                 Files.deleteIfExists(oldIndexFile.toPath());
             } catch (Exception e2) {
@@ -682,7 +835,32 @@ public class DiskIndex {
         return newDiskIndex;
     }
 
-    private synchronized String[] readAllDocumentNames() throws IOException {
+    private String[] readAllDocumentNames() throws IOException {
+        if (this.numberOfChunks <= 0)
+            return CharOperation.NO_STRINGS;
+        ByteBuffer mapped = getMappedIndex();
+        if (mapped == null)
+            return readAllDocumentNamesFromStream();
+        try {
+            try {
+                MappedReader reader = new MappedReader(mapped, this.chunkOffsets[0]);
+                int lastIndex = this.numberOfChunks - 1;
+                String[] docNames = new String[lastIndex * CHUNK_SIZE + this.sizeOfLastChunk];
+                for (int i = 0; i < this.numberOfChunks; i++) reader.readChunk(docNames, i * CHUNK_SIZE, i < lastIndex ? CHUNK_SIZE : this.sizeOfLastChunk);
+                return docNames;
+            } catch (IndexOutOfBoundsException e) {
+                throw corruptedIndex(e);
+            }
+        } catch (UTFDataFormatException ue) {
+            //$NON-NLS-1$
+            ILog.get().warn("Java Index broken - will be automatically deleted to repair: " + this.indexLocation, ue);
+            releaseMapping();
+            this.indexLocation.delete();
+            return CharOperation.NO_STRINGS;
+        }
+    }
+
+    private synchronized String[] readAllDocumentNamesFromStream() throws IOException {
         if (this.numberOfChunks <= 0)
             return CharOperation.NO_STRINGS;
         try {
@@ -710,7 +888,87 @@ public class DiskIndex {
         }
     }
 
-    private synchronized HashtableOfObject readCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
+    private HashtableOfObject readCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
+        ByteBuffer mapped = getMappedIndex();
+        if (mapped == null)
+            return readCategoryTableFromStream(categoryName, readDocNumbers);
+        // result will be null if categoryName is unknown
+        int offset;
+        HashtableOfObject cachedTable = null;
+        synchronized (this) {
+            offset = this.categoryOffsets.get(categoryName);
+            if (offset == HashtableOfIntValues.NO_VALUE) {
+                return null;
+            }
+            if (this.categoryTables == null) {
+                this.categoryTables = new HashtableOfObject(3);
+            } else {
+                cachedTable = (HashtableOfObject) this.categoryTables.get(categoryName);
+            }
+        }
+        if (cachedTable != null) {
+            if (readDocNumbers) {
+                // must cache remaining document number arrays
+                Object[] arrayOffsets = cachedTable.valueTable;
+                for (int i = 0, l = arrayOffsets.length; i < l; i++) if (arrayOffsets[i] instanceof Integer)
+                    arrayOffsets[i] = readDocumentNumbers(arrayOffsets[i]);
+            }
+            return cachedTable;
+        }
+        HashtableOfObject categoryTable;
+        try {
+            try {
+                categoryTable = readCategoryTable(new MappedReader(mapped, offset), readDocNumbers);
+            } catch (NegativeArraySizeException | IndexOutOfBoundsException e) {
+                throw corruptedIndex(e);
+            }
+        } catch (UTFDataFormatException ue) {
+            //$NON-NLS-1$
+            ILog.get().warn("Java Index broken - will be automatically deleted to repair: " + this.indexLocation, ue);
+            releaseMapping();
+            this.indexLocation.delete();
+            return null;
+        }
+        synchronized (this) {
+            if (this.categoryTables == null)
+                this.categoryTables = new HashtableOfObject(3);
+            this.categoryTables.put(INTERNED_CATEGORY_NAMES.get(categoryName), categoryTable);
+            // cache the table as long as its not too big
+            this.cachedCategoryName = categoryTable.elementSize < 20000 ? categoryName : null;
+        }
+        return categoryTable;
+    }
+
+    // same format as read by readCategoryTableFromStream()
+    private HashtableOfObject readCategoryTable(MappedReader reader, boolean readDocNumbers) throws UTFDataFormatException {
+        int size = reader.readInt();
+        HashtableOfObject categoryTable = new HashtableOfObject(size);
+        int largeArraySize = 256;
+        for (int i = 0; i < size; i++) {
+            char[] word = reader.readChars();
+            int arrayOffset = reader.readInt();
+            if (arrayOffset <= 0) {
+                // store 1 element array by negating documentNumber
+                categoryTable.putUnsafely(word, new int[] { -arrayOffset });
+            } else if (arrayOffset < largeArraySize) {
+                // read in-lined array providing size
+                categoryTable.putUnsafely(word, reader.readDocumentArray(arrayOffset, this.documentReferenceSize));
+            } else {
+                // read actual offset
+                arrayOffset = reader.readInt();
+                if (readDocNumbers) {
+                    MappedReader arrayReader = new MappedReader(reader.buffer, arrayOffset);
+                    categoryTable.putUnsafely(word, arrayReader.readDocumentArray(arrayReader.readInt(), this.documentReferenceSize));
+                } else {
+                    // offset to array in the file
+                    categoryTable.putUnsafely(word, Integer.valueOf(arrayOffset));
+                }
+            }
+        }
+        return categoryTable;
+    }
+
+    private synchronized HashtableOfObject readCategoryTableFromStream(char[] categoryName, boolean readDocNumbers) throws IOException {
         // result will be null if categoryName is unknown
         int offset = this.categoryOffsets.get(categoryName);
         if (offset == HashtableOfIntValues.NO_VALUE) {
@@ -846,7 +1104,35 @@ public class DiskIndex {
         }
     }
 
-    synchronized String readDocumentName(int docNumber) throws IOException {
+    String readDocumentName(int docNumber) throws IOException {
+        ByteBuffer mapped = getMappedIndex();
+        if (mapped == null)
+            return readDocumentNameFromStream(docNumber);
+        int chunkNumber = docNumber / CHUNK_SIZE;
+        String[][] chunks;
+        String[] chunk;
+        synchronized (this) {
+            if (this.cachedChunks == null)
+                this.cachedChunks = new String[this.numberOfChunks][];
+            chunks = this.cachedChunks;
+            chunk = chunks[chunkNumber];
+        }
+        if (chunk == null) {
+            int numberOfNames = chunkNumber == this.numberOfChunks - 1 ? this.sizeOfLastChunk : CHUNK_SIZE;
+            chunk = new String[numberOfNames];
+            try {
+                new MappedReader(mapped, this.chunkOffsets[chunkNumber]).readChunk(chunk, 0, numberOfNames);
+            } catch (IndexOutOfBoundsException e) {
+                throw corruptedIndex(e);
+            }
+            synchronized (this) {
+                chunks[chunkNumber] = chunk;
+            }
+        }
+        return chunk[docNumber - (chunkNumber * CHUNK_SIZE)];
+    }
+
+    private synchronized String readDocumentNameFromStream(int docNumber) throws IOException {
         if (this.cachedChunks == null)
             this.cachedChunks = new String[this.numberOfChunks][];
         int chunkNumber = docNumber / CHUNK_SIZE;
@@ -884,10 +1170,22 @@ public class DiskIndex {
         return chunk[docNumber - (chunkNumber * CHUNK_SIZE)];
     }
 
-    synchronized int[] readDocumentNumbers(Object arrayOffset) throws IOException {
+    int[] readDocumentNumbers(Object arrayOffset) throws IOException {
         // arrayOffset is either a cached array of docNumbers or an Integer offset in the file
         if (arrayOffset instanceof int[])
             return (int[]) arrayOffset;
+        ByteBuffer mapped = getMappedIndex();
+        if (mapped == null)
+            return readDocumentNumbersFromStream(arrayOffset);
+        try {
+            MappedReader reader = new MappedReader(mapped, ((Integer) arrayOffset).intValue());
+            return reader.readDocumentArray(reader.readInt(), this.documentReferenceSize);
+        } catch (NegativeArraySizeException | IndexOutOfBoundsException e) {
+            throw corruptedIndex(e);
+        }
+    }
+
+    private synchronized int[] readDocumentNumbersFromStream(Object arrayOffset) throws IOException {
         InputStream stream = this.indexLocation.getInputStream();
         try (stream) {
             int offset = ((Integer) arrayOffset).intValue();
@@ -902,6 +1200,50 @@ public class DiskIndex {
         }
     }
 
+    /**
+     * Returns the read-only mapping of the index file, or {@code null} if the index has to be
+     * read through its input stream.
+     */
+    private ByteBuffer getMappedIndex() {
+        ByteBuffer mapped = this.mappedIndex;
+        if (mapped != null || !MAPPED_READS)
+            return mapped;
+        synchronized (this) {
+            if (this.mappedIndex == null && !this.mappingUnavailable) {
+                this.mappingUnavailable = true;
+                if (this.indexLocation instanceof FileIndexLocation && this.headerInfoOffset > 0) {
+                    try (FileChannel channel = FileChannel.open(this.indexLocation.getIndexFile().toPath(), StandardOpenOption.READ)) {
+                        long size = channel.size();
+                        if (size > this.headerInfoOffset && size <= Integer.MAX_VALUE) {
+                            this.mappedIndex = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                            this.mappingUnavailable = false;
+                        }
+                    } catch (IOException e) {
+                        if (DEBUG)
+                            //$NON-NLS-1$
+                            System.out.println("Failed to map index " + this.indexLocation);
+                    }
+                }
+            }
+            return this.mappedIndex;
+        }
+    }
+
+    /**
+     * Drops the mapping of the index file before the file is deleted or replaced.
+     */
+    private synchronized void releaseMapping() {
+        this.mappedIndex = null;
+        this.mappingUnavailable = false;
+    }
+
+    private UTFDataFormatException corruptedIndex(RuntimeException e) {
+        //$NON-NLS-1$
+        UTFDataFormatException ue = new UTFDataFormatException("Failed to read index data from " + this.indexLocation);
+        ue.initCause(e);
+        return ue;
+    }
+
     private void readHeaderInfo(InputStream stream) throws IOException {
         // must be same order as writeHeaderInfo()
         this.numberOfChunks = readStreamInt(stream);
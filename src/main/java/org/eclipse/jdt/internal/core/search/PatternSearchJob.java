@@ -66,6 +66,11 @@ public class PatternSearchJob implements IJob {
 
     protected volatile boolean areIndexesReady;
 
+    /**
+     * locations of the indexes selected by the last {@link #getIndexes(IProgressMonitor)}
+     */
+    protected volatile IndexLocation[] indexLocations;
+
     protected final AtomicLong executionTime;
 
     //$NON-NLS-1$
@@ -208,11 +213,31 @@ public class PatternSearchJob implements IJob {
                 indexLocations[i] = new FileIndexLocation(paths[i].toFile(), true);
             }
         }
+        this.indexLocations = indexLocations;
         Index[] indexes = JavaModelManager.getIndexManager().getIndexes(indexLocations, progressMonitor);
         this.areIndexesReady = indexes.length == length;
         return indexes;
     }
 
+    @Override
+    public boolean dependsOn(IJob job) {
+        IndexLocation[] locations = this.indexLocations;
+        if (locations == null || !(job.getIndexKey() instanceof IPath)) {
+            return true;
+        }
+        IndexLocation location = JavaModelManager.getIndexManager().getIndexLocation((IPath) job.getIndexKey());
+        if (location == null) {
+            // location not known yet, the job may create any index
+            return true;
+        }
+        for (IndexLocation selected : locations) {
+            if (location.equals(selected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean waitNeeded() {
         return true;
@@ -358,6 +358,13 @@ public class IndexManager extends JobManager implements IIndexConstants {
         return indexLocation;
     }
 
+    /**
+     * Answers the location of the index of the given container, or null if it was not computed yet.
+     */
+    public synchronized IndexLocation getIndexLocation(IPath containerPath) {
+        return (IndexLocation) this.indexLocations.get(containerPath);
+    }
+
     public synchronized IndexLocation computeIndexLocation(IPath containerPath) {
         IndexLocation indexLocation = (IndexLocation) this.indexLocations.get(containerPath);
         if (indexLocation == null) {
@@ -880,10 +887,10 @@ public class IndexManager extends JobManager implements IIndexConstants {
      * Note: clients awaiting until the job count is zero are still waiting at this point.
      */
     @Override
-    protected synchronized void moveToNextJob() {
+    protected synchronized void moveToNextJob(IJob job) {
         // remember that one job was executed, and we will need to save indexes at some point
         this.needToSave = true;
-        super.moveToNextJob();
+        super.moveToNextJob(job);
     }
 
     /**
@@ -63,4 +63,10 @@ public abstract class IndexRequest implements IJob {
     public boolean waitNeeded() {
         return true;
     }
+
+    @Override
+    public Object getIndexKey() {
+        // one index per container, without computing its location before the request runs
+        return this.containerPath;
+    }
 }
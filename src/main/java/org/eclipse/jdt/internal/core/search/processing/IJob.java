@@ -58,4 +58,21 @@ public interface IJob {
 	public default boolean waitNeeded() {
 		return false;
 	}
+
+	/**
+	 * Answers a key of the index this job updates, or {@code null} if the job has to run alone. Jobs of
+	 * different indexes may be executed concurrently, the jobs of one index run in request order.
+	 * Default implementation returns {@code null}.
+	 */
+	public default Object getIndexKey() {
+		return null;
+	}
+
+	/**
+	 * Answers if this job has to wait for the given awaiting job before it can be performed
+	 * concurrently. Default implementation returns {@code true}.
+	 */
+	public default boolean dependsOn(IJob job) {
+		return true;
+	}
 }
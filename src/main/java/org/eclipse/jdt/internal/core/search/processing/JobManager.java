@@ -16,10 +16,15 @@
 package org.eclipse.jdt.internal.core.search.processing;
 
 import static org.eclipse.jdt.internal.core.JavaModelManager.trace;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -43,6 +48,13 @@ public abstract class JobManager {
 
     volatile public boolean executing;
 
+    /**
+     * jobs of the queue that are currently executed by the processing thread or a worker
+     * <br>
+     * synchronized by JobManager.this
+     */
+    private final Set<IJob> runningJobs = Collections.newSetFromMap(new IdentityHashMap<>());
+
     /**
      * background processing
      * <br>
@@ -50,6 +62,21 @@ public abstract class JobManager {
      */
     public Thread processingThread;
 
+    /**
+     * additional threads processing jobs next to the processing thread
+     * <br>
+     * synchronized by JobManager.this
+     */
+    private final List<Thread> workerThreads = new ArrayList<>();
+
+    /**
+     * Number of threads processing jobs. With more than one thread, jobs updating different
+     * indexes (see {@link IJob#getIndexKey()}) run concurrently, while the jobs of one index
+     * keep running one after the other in the order they were requested.
+     */
+    //$NON-NLS-1$
+    public static int WORKER_COUNT = Math.max(1, Integer.getInteger("org.eclipse.jdt.core.indexerWorkers", 1).intValue());
+
     volatile public Job progressJob;
 
     /**
@@ -95,6 +122,24 @@ public abstract class JobManager {
         return this.activated ? this.awaitingJobs.size() : 1;
     }
 
+    /**
+     * Answer the amount of awaiting jobs the given job depends on.
+     *
+     * @see IJob#dependsOn(IJob)
+     */
+    public synchronized int awaitingJobsCount(IJob job) {
+        if (!this.activated) {
+            // pretend busy in case concurrent job attempts performing before activated
+            return 1;
+        }
+        int count = 0;
+        for (IJob awaitingJob : this.awaitingJobs) {
+            if (job.dependsOn(awaitingJob))
+                count++;
+        }
+        return count;
+    }
+
     /**
      * Answers the first job in the queue, or null if there is no job available or
      * index manager is disabled
@@ -120,6 +165,45 @@ public abstract class JobManager {
         return null;
     }
 
+    /**
+     * Answers the next job that can be started, or null if there is none or index manager is disabled.
+     * A job can start once all earlier jobs of the same index have completed. A job without index
+     * waits for all earlier jobs, and no later job starts before it has completed.
+     */
+    private synchronized IJob nextJob() {
+        if (WORKER_COUNT <= 1) {
+            return this.runningJobs.isEmpty() ? currentJob() : null;
+        }
+        if (this.enableCount <= 0) {
+            return null;
+        }
+        Set<Object> busyIndexes = new HashSet<>();
+        for (IJob job : this.awaitingJobs) {
+            Object indexKey = job.getIndexKey();
+            if (!this.runningJobs.contains(job)) {
+                if (indexKey == null) {
+                    return busyIndexes.isEmpty() ? job : null;
+                }
+                if (!busyIndexes.contains(indexKey)) {
+                    return job;
+                }
+            } else if (indexKey == null) {
+                return null;
+            }
+            busyIndexes.add(indexKey);
+        }
+        return null;
+    }
+
+    private synchronized boolean isRunningJobMatching(String jobFamily) {
+        for (IJob job : this.runningJobs) {
+            if (jobFamily == null || job.belongsTo(jobFamily)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public synchronized void disable() {
         this.enableCount--;
         if (VERBOSE) {
@@ -146,25 +230,34 @@ public abstract class JobManager {
         }
         try {
             IJob currentJob;
-            // cancel current job if it belongs to the given family
+            List<IJob> activeJobs = new ArrayList<>();
+            // cancel active jobs if they belong to the given family
             synchronized (this) {
                 currentJob = currentJob();
+                if (currentJob != null)
+                    activeJobs.add(currentJob);
+                for (IJob job : this.runningJobs) {
+                    if (job != currentJob)
+                        activeJobs.add(job);
+                }
                 disable();
             }
-            if (currentJob != null && (jobFamily == null || currentJob.belongsTo(jobFamily))) {
-                currentJob.cancel();
-                synchronized (this) {
-                    // wait until current active job has finished
-                    while (getProcessingThread() != null && this.executing) {
-                        try {
-                            if (VERBOSE) {
-                                //$NON-NLS-1$
-                                trace("-> waiting end of current background job - " + currentJob);
-                            }
-                            this.wait(50);
-                        } catch (InterruptedException e) {
-                            // ignore
+            for (IJob activeJob : activeJobs) {
+                if (jobFamily == null || activeJob.belongsTo(jobFamily)) {
+                    activeJob.cancel();
+                }
+            }
+            synchronized (this) {
+                // wait until the active jobs of the family have finished
+                while (getProcessingThread() != null && isRunningJobMatching(jobFamily)) {
+                    try {
+                        if (VERBOSE) {
+                            //$NON-NLS-1$
+                            trace("-> waiting end of current background job - " + activeJobs);
                         }
+                        this.wait(50);
+                    } catch (InterruptedException e) {
+                        // ignore
                     }
                 }
             }
@@ -173,6 +266,10 @@ public abstract class JobManager {
                 boolean notify = false;
                 while (it.hasNext()) {
                     currentJob = it.next();
+                    if (this.runningJobs.contains(currentJob)) {
+                        // still executing, removed once completed
+                        continue;
+                    }
                     if (jobFamily == null || currentJob.belongsTo(jobFamily)) {
                         if (VERBOSE) {
                             //$NON-NLS-1$
@@ -228,6 +325,9 @@ public abstract class JobManager {
             if (job == first) {
                 break;
             }
+            if (this.runningJobs.contains(job)) {
+                continue;
+            }
             if (request.test(job)) {
                 return true;
             }
@@ -236,19 +336,23 @@ public abstract class JobManager {
     }
 
     /**
-     * Advance to the next available job, once the current one has been completed.
+     * Advance to the next available job, once the given one has been completed.
      * Note: clients awaiting until the job count is zero are still waiting at this point.
      */
-    protected synchronized void moveToNextJob() {
+    protected synchronized void moveToNextJob(IJob job) {
         //if (!enabled) return;
-        if (!this.awaitingJobs.isEmpty()) {
-            this.awaitingJobs.remove(0);
-            if (awaitingJobsCount() == 0) {
-                synchronized (this) {
-                    this.notifyAll();
-                }
+        this.runningJobs.remove(job);
+        this.executing = !this.runningJobs.isEmpty();
+        for (Iterator<IJob> it = this.awaitingJobs.iterator(); it.hasNext(); ) {
+            if (it.next() == job) {
+                it.remove();
+                break;
             }
         }
+        if (awaitingJobsCount() == 0 || WORKER_COUNT > 1) {
+            // with several workers, jobs of the same index may be ready now
+            this.notifyAll();
+        }
     }
 
     /**
@@ -279,10 +383,10 @@ public abstract class JobManager {
         boolean status = IJob.FAILED;
         try {
             SubMonitor subMonitor = SubMonitor.convert(monitor);
-            if (awaitingJobsCount() > 0) {
+            if (awaitingJobsCount(searchJob) > 0) {
                 if (VERBOSE) {
                     //$NON-NLS-1$ //$NON-NLS-2$
-                    trace("-> NOT READY - " + awaitingJobsCount() + " awaiting jobs - " + searchJob);
+                    trace("-> NOT READY - " + awaitingJobsCount(searchJob) + " awaiting jobs - " + searchJob);
                 }
                 switch(waitingPolicy) {
                     case IJob.ForceImmediate:
@@ -326,7 +430,7 @@ public abstract class JobManager {
                             int lastJobsCount = totalWork;
                             float lastWorked = 0;
                             float totalWorked = 0;
-                            while ((awaitingJobsCount = awaitingJobsCount()) > 0) {
+                            while ((awaitingJobsCount = awaitingJobsCount(searchJob)) > 0) {
                                 if (waitMonitor.isCanceled() || getProcessingThread() == null)
                                     throw new OperationCanceledException();
                                 boolean shouldDisable = false;
@@ -370,7 +474,7 @@ public abstract class JobManager {
                                     previousJob = currentJob;
                                 }
                                 synchronized (this) {
-                                    if (awaitingJobsCount() > 0) {
+                                    if (awaitingJobsCount(searchJob) > 0) {
                                         try {
                                             // avoid Thread.sleep! wait is informed by notifyAll
                                             this.wait(50);
@@ -459,6 +563,15 @@ public abstract class JobManager {
                 t.setContextClassLoader(this.getClass().getClassLoader());
                 t.start();
                 this.processingThread = t;
+                for (int i = 1; i < WORKER_COUNT; i++) {
+                    //$NON-NLS-1$
+                    Thread worker = new Thread(() -> workerLoop(t), processName() + " Worker #" + i);
+                    worker.setDaemon(true);
+                    worker.setPriority(Thread.NORM_PRIORITY - 1);
+                    worker.setContextClassLoader(this.getClass().getClassLoader());
+                    worker.start();
+                    this.workerThreads.add(worker);
+                }
             }
         }
     }
@@ -509,7 +622,12 @@ public abstract class JobManager {
                         if (getProcessingThread() == null)
                             continue;
                         // must check for new job inside this sync block to avoid timing hole
-                        if ((job = currentJob()) == null) {
+                        if ((job = nextJob()) == null && currentJob() != null) {
+                            // the jobs ready to run are executed by workers
+                            this.wait();
+                            continue;
+                        }
+                        if (job == null) {
                             Job pJob = this.progressJob;
                             if (pJob != null) {
                                 pJob.cancel();
@@ -521,6 +639,9 @@ public abstract class JobManager {
                                 // wait until a new job is posted or disabled indexer is enabled again
                                 this.wait();
                             }
+                        } else {
+                            // claim the job before releasing the lock
+                            this.runningJobs.add(job);
                         }
                     }
                     if (job == null) {
@@ -542,14 +663,7 @@ public abstract class JobManager {
                         continue;
                     }
                     idlingStart = null;
-                    if (VERBOSE) {
-                        //$NON-NLS-1$
-                        trace(awaitingJobsCount() + " awaiting jobs");
-                        //$NON-NLS-1$
-                        trace("STARTING background job - " + job);
-                    }
-                    try {
-                        this.executing = true;
+                    synchronized (this) {
                         if (this.progressJob == null) {
                             //$NON-NLS-1$ //$NON-NLS-2$
                             ProgressJob pJob = new ProgressJob(Messages.bind(Messages.jobmanager_indexing, "", ""));
@@ -558,30 +672,12 @@ public abstract class JobManager {
                             pJob.schedule();
                             this.progressJob = pJob;
                         }
-                        if (!cacheZipFiles) {
-                            JavaModelManager.getJavaModelManager().cacheZipFiles(this);
-                            cacheZipFiles = true;
-                        }
-                        // may enqueue a new job
-                        job.execute(null);
-                    } finally {
-                        this.executing = false;
-                        if (VERBOSE) {
-                            //$NON-NLS-1$
-                            trace("FINISHED background job - " + job);
-                        }
-                        moveToNextJob();
-                        if (this.awaitingClients.get() == 0 && job.waitNeeded()) {
-                            if (VERBOSE) {
-                                //$NON-NLS-1$
-                                trace("WAITING after job - " + job);
-                            }
-                            synchronized (this.idleMonitor) {
-                                // avoid sleep fixed time
-                                this.idleMonitor.wait(5);
-                            }
-                        }
                     }
+                    if (!cacheZipFiles) {
+                        JavaModelManager.getJavaModelManager().cacheZipFiles(this);
+                        cacheZipFiles = true;
+                    }
+                    runJob(job);
                 } catch (InterruptedException e) {
                     // background indexing was interrupted
                 }
@@ -609,6 +705,83 @@ public abstract class JobManager {
         }
     }
 
+    /**
+     * Executes a job taken from the queue by {@link #nextJob()} and claimed as running by the caller.
+     */
+    private void runJob(IJob job) throws InterruptedException {
+        this.executing = true;
+        if (VERBOSE) {
+            //$NON-NLS-1$
+            trace(awaitingJobsCount() + " awaiting jobs");
+            //$NON-NLS-1$
+            trace("STARTING background job - " + job);
+        }
+        try {
+            // may enqueue a new job
+            job.execute(null);
+        } finally {
+            if (VERBOSE) {
+                //$NON-NLS-1$
+                trace("FINISHED background job - " + job);
+            }
+            moveToNextJob(job);
+            if (this.awaitingClients.get() == 0 && job.waitNeeded()) {
+                if (VERBOSE) {
+                    //$NON-NLS-1$
+                    trace("WAITING after job - " + job);
+                }
+                synchronized (this.idleMonitor) {
+                    // avoid sleep fixed time
+                    this.idleMonitor.wait(5);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loop of the additional worker threads, runs as long as the given processing thread is active.
+     */
+    void workerLoop(Thread owner) {
+        boolean cacheZipFiles = false;
+        try {
+            while (getProcessingThread() == owner) {
+                try {
+                    IJob job;
+                    synchronized (this) {
+                        if ((job = nextJob()) == null) {
+                            // wait until a job completes, a new job is posted or disabled indexer is enabled again
+                            this.wait();
+                            continue;
+                        }
+                        // claim the job before releasing the lock
+                        this.runningJobs.add(job);
+                    }
+                    if (!cacheZipFiles) {
+                        JavaModelManager.getJavaModelManager().cacheZipFiles(this);
+                        cacheZipFiles = true;
+                    }
+                    try {
+                        runJob(job);
+                    } catch (RuntimeException | Error e) {
+                        //$NON-NLS-1$
+                        Util.log(e, "Background Indexer Crash Recovery");
+                        // as in the processing thread, some indexes will be inconsistent
+                        discardJobs(null);
+                    }
+                } catch (InterruptedException e) {
+                    // background indexing was interrupted
+                }
+            }
+        } finally {
+            synchronized (this) {
+                this.workerThreads.remove(Thread.currentThread());
+            }
+            if (cacheZipFiles) {
+                JavaModelManager.getJavaModelManager().flushZipFiles(this);
+            }
+        }
+    }
+
     /**
      * Stop background processing, and wait until the current job is completed before returning
      */
@@ -636,6 +809,13 @@ public abstract class JobManager {
                 }
                 // in case processing thread is handling a job
                 thread.join();
+                Thread[] workers;
+                synchronized (this) {
+                    workers = this.workerThreads.toArray(new Thread[this.workerThreads.size()]);
+                }
+                for (Thread worker : workers) {
+                    worker.join();
+                }
             }
             Job job = this.progressJob;
             if (job != null) {
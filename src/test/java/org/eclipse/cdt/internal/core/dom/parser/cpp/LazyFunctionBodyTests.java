@@ -0,0 +1,74 @@
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
+import org.eclipse.cdt.core.dom.ast.IASTStatement;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.IType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
+import org.eclipse.cdt.core.dom.ast.gnu.cpp.GPPLanguage;
+import org.eclipse.cdt.core.model.ILanguage;
+import org.eclipse.cdt.core.parser.FileContent;
+import org.eclipse.cdt.core.parser.IncludeFileContentProvider;
+import org.eclipse.cdt.core.parser.NullLogService;
+import org.eclipse.cdt.core.parser.ScannerInfo;
+import org.junit.jupiter.api.Test;
+
+public class LazyFunctionBodyTests {
+
+    private static IASTTranslationUnit parse(String code) throws Exception {
+        FileContent content = FileContent.create("test.cpp", code.toCharArray());
+        return GPPLanguage.getDefault().getASTTranslationUnit(content, new ScannerInfo(), IncludeFileContentProvider.getEmptyFilesProvider(), null, ILanguage.OPTION_LAZY_FUNCTION_BODIES, new NullLogService());
+    }
+
+    @Test
+    void deducedReturnType() throws Exception {
+        IASTTranslationUnit tu = parse("auto f() { return 1; }\n" + "int g() { return f(); }\n");
+        IASTFunctionDefinition f = (IASTFunctionDefinition) tu.getDeclarations()[0];
+        assertInstanceOf(CPPASTDeferredCompoundStatement.class, f.getBody());
+        ICPPFunction binding = (ICPPFunction) f.getDeclarator().getName().resolveBinding();
+        IType returnType = binding.getType().getReturnType();
+        assertTrue(CPPBasicType.INT.isSameType(returnType), String.valueOf(returnType));
+    }
+
+    @Test
+    void bodyReadFromTwoThreads() throws Exception {
+        StringBuilder code = new StringBuilder("int f(int i) {\n");
+        for (int i = 0; i < 200; i++) {
+            code.append("  i = i * ").append(i).append(" + 1;\n");
+        }
+        code.append("  return i;\n}\n");
+        for (int round = 0; round < 20; round++) {
+            IASTTranslationUnit tu = parse(code.toString());
+            IASTCompoundStatement body = (IASTCompoundStatement) ((IASTFunctionDefinition) tu.getDeclarations()[0]).getBody();
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            Callable<IASTStatement[]> read = () -> {
+                barrier.await();
+                return body.getStatements();
+            };
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<IASTStatement[]> first = executor.submit(read);
+                Future<IASTStatement[]> second = executor.submit(read);
+                for (IASTStatement[] statements : new IASTStatement[][][] { first.get(), second.get() }) {
+                    assertEquals(201, statements.length);
+                    for (IASTStatement statement : statements) {
+                        assertNotNull(statement);
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.cdt.core.dom.ILinkage;
+import org.eclipse.cdt.core.dom.ast.ASTTypeUtil;
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPBinding;
+import org.eclipse.cdt.core.dom.ast.gnu.cpp.GPPLanguage;
+import org.eclipse.cdt.core.index.IIndex;
+import org.eclipse.cdt.core.index.URIRelativeLocationConverter;
+import org.eclipse.cdt.core.parser.FileContent;
+import org.eclipse.cdt.core.parser.IncludeFileContentProvider;
+import org.eclipse.cdt.core.parser.NullLogService;
+import org.eclipse.cdt.core.parser.ScannerInfo;
+import org.eclipse.cdt.internal.core.indexer.FileEncodingRegistry;
+import org.eclipse.cdt.internal.core.indexer.IStandaloneScannerInfoProvider;
+import org.eclipse.cdt.internal.core.indexer.StandaloneFullIndexer;
+import org.eclipse.cdt.internal.core.indexer.StandaloneIndexerFallbackReaderFactory;
+import org.eclipse.cdt.internal.core.pdom.dom.IPDOMLinkageFactory;
+import org.eclipse.cdt.internal.core.pdom.dom.cpp.PDOMCPPLinkageFactory;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ParallelNameResolverTests {
+
+    private static final String CODE = String.join("\n",
+            "namespace ns {",
+            "  struct A {",
+            "    A();",
+            "    A(int i);",
+            "    A(const A& a);",
+            "    int f(int i) const;",
+            "    double f(double d) const;",
+            "  };",
+            "  int g(A a);",
+            "}",
+            "using namespace ns;",
+            "template<typename T> T twice(T t) { return t + t; }",
+            "auto deduced() { return 1.5; }",
+            "constexpr int square(int i) { return i * i; }",
+            "int ns::A::f(int i) const { return i; }",
+            "double ns::A::f(double d) const { return d; }",
+            "int h1() { A a(1); return a.f(2); }",
+            "double h2() { A a; return a.f(2.0); }",
+            "int h3() { return g(A(3)); }",
+            "int h4() { return twice(4); }",
+            "double h5() { return twice(deduced()); }",
+            "int h6() { int arr[square(3)]; return sizeof(arr); }",
+            "int h7() { A a; A b(a); return g(b); }",
+            "int h8() { struct L { int m; } l = { 8 }; return l.m; }",
+            "int h9() { using ns::g; return g(A()); }",
+            "int h10() { int (*p)(A) = &g; return p(A(10)); }",
+            "");
+
+    // Declarations found in the index only, the AST reopens one of the namespaces.
+    private static final String HEADER = String.join("\n",
+            "namespace lib {",
+            "  struct B { B(int i); int get() const; };",
+            "  template<typename T> struct Box { T value; };",
+            "  template<typename T> struct Box<T*> { T* pointer; };",
+            "  int use(B b);",
+            "}",
+            "namespace other {",
+            "  struct C { int m; };",
+            "  int make(int i);",
+            "}",
+            "");
+
+    private static final String CODE_WITH_INDEX = String.join("\n",
+            "namespace lib { int extra(B b); }",
+            "using namespace lib;",
+            "int k1() { B b(1); return b.get(); }",
+            "int k2() { return use(B(2)); }",
+            "int k3() { Box<int> box; return box.value; }",
+            "int k4() { int i = 4; Box<int*> box = { &i }; return *box.pointer; }",
+            "int k5() { return extra(B(5)); }",
+            "int k6() { other::C c = { 6 }; return c.m; }",
+            "int k7() { return other::make(7); }",
+            "int k8() { using namespace other; return make(8); }",
+            "int k9() { lib::B b(9); return lib::use(b) + b.get(); }",
+            "int k10() { return Box<other::C>().value.m; }",
+            "");
+
+    @TempDir
+    Path fTempDir;
+
+    private static IASTTranslationUnit parse(String code, IIndex index) throws Exception {
+        FileContent content = FileContent.create("test.cpp", code.toCharArray());
+        return GPPLanguage.getDefault().getASTTranslationUnit(content, new ScannerInfo(), IncludeFileContentProvider.getEmptyFilesProvider(), index, 0, new NullLogService());
+    }
+
+    private static List<String> resolveNames(IASTTranslationUnit tu) {
+        List<String> result = new ArrayList<>();
+        tu.accept(new ASTVisitor() {
+            {
+                shouldVisitNames = true;
+            }
+
+            @Override
+            public int visit(IASTName name) {
+                IBinding binding = name.resolveBinding();
+                String text = binding == null ? "null" : binding.getClass().getSimpleName();
+                if (binding instanceof ICPPBinding) {
+                    text += " " + ASTTypeUtil.getQualifiedName((ICPPBinding) binding);
+                }
+                result.add(name.getFileLocation().getNodeOffset() + " " + name + ": " + text);
+                return PROCESS_CONTINUE;
+            }
+        });
+        return result;
+    }
+
+    private static void assertParallelMatchesSerial(String code, IIndex index) throws Exception {
+        List<String> serial = resolveNames(parse(code, index));
+        System.setProperty(ParallelNameResolver.NAME_RESOLUTION_THREADS_PROPERTY, "4");
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(serial, resolveNames(parse(code, index)));
+            }
+        } finally {
+            System.clearProperty(ParallelNameResolver.NAME_RESOLUTION_THREADS_PROPERTY);
+        }
+    }
+
+    @Test
+    void parallelResolutionMatchesSerialResolution() throws Exception {
+        assertParallelMatchesSerial(CODE, null);
+    }
+
+    @Test
+    void parallelResolutionMatchesSerialResolutionWithIndex() throws Exception {
+        File header = fTempDir.resolve("lib.h").toFile();
+        File source = fTempDir.resolve("lib.cpp").toFile();
+        Files.writeString(header.toPath(), HEADER);
+        Files.writeString(source.toPath(), "#include \"lib.h\"\n");
+        IStandaloneScannerInfoProvider scannerInfo = new IStandaloneScannerInfoProvider() {
+
+            @Override
+            public ScannerInfo getScannerInformation(String path) {
+                return new ScannerInfo();
+            }
+
+            @Override
+            public ScannerInfo getDefaultScannerInformation(int linkageID) {
+                return new ScannerInfo();
+            }
+        };
+        Map<String, IPDOMLinkageFactory> linkageFactories = Collections.singletonMap(ILinkage.CPP_LINKAGE_NAME, new PDOMCPPLinkageFactory());
+        StandaloneFullIndexer indexer = new StandaloneFullIndexer(fTempDir.resolve("test.pdom").toFile(), new URIRelativeLocationConverter(fTempDir.toUri()), linkageFactories, scannerInfo, new FileEncodingRegistry("UTF-8"), file -> GPPLanguage.getDefault(), new NullLogService(), new StandaloneIndexerFallbackReaderFactory());
+        indexer.setIndexAllFiles(true);
+        indexer.rebuild(Collections.singletonList(source.getAbsolutePath()), new NullProgressMonitor());
+        IIndex index = indexer.getIndex();
+        index.acquireReadLock();
+        try {
+            assertParallelMatchesSerial(CODE_WITH_INDEX, index);
+        } finally {
+            index.releaseReadLock();
+        }
+    }
+}